@@ -0,0 +1,28 @@
+-- ============================================
+-- Add Adherence Rollups to Medicine Reminder
+-- This script adds the 'adherence_daily' table used by GET /adherence
+-- and backfills it from the existing reminders
+-- ============================================
+
+CREATE TABLE adherence_daily (
+    user_id INT NOT NULL,
+    medicine_id INT NOT NULL,
+    day DATE NOT NULL,
+    scheduled INT NOT NULL DEFAULT 0,
+    taken INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, medicine_id, day),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (medicine_id) REFERENCES medicines(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Index for per-user date range queries
+CREATE INDEX idx_adherence_user_day ON adherence_daily(user_id, day);
+
+-- Backfill from existing reminder history
+INSERT INTO adherence_daily (user_id, medicine_id, day, scheduled, taken)
+SELECT user_id, medicine_id, reminder_date, COUNT(*), SUM(taken)
+FROM reminders
+GROUP BY user_id, medicine_id, reminder_date;
+
+-- Verify the change
+-- DESCRIBE adherence_daily;
@@ -0,0 +1,16 @@
+-- ============================================
+-- Add iCalendar Feeds to Medicine Reminder
+-- This script adds the 'calendar_feeds' table holding each user's
+-- feed token hash; calendar apps poll GET /calendar/feed?token=...
+-- Feed changes are detected through user_versions (add_user_versions.sql)
+-- ============================================
+
+CREATE TABLE calendar_feeds (
+    user_id INT PRIMARY KEY,
+    token_hash CHAR(64) NOT NULL UNIQUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Verify the change
+-- DESCRIBE calendar_feeds;
@@ -0,0 +1,20 @@
+-- ============================================
+-- Add Caregiver Ward View to Medicine Reminder
+-- This script adds the 'caregiver_patients' link table; a caregiver
+-- sees the schedules of all linked patients in one view (GET /ward)
+-- ============================================
+
+CREATE TABLE caregiver_patients (
+    caregiver_id INT NOT NULL,
+    patient_id INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (caregiver_id, patient_id),
+    FOREIGN KEY (caregiver_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (patient_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Index for listing a patient's caregivers (the primary key covers the ward view)
+CREATE INDEX idx_caregiver_patients_patient ON caregiver_patients(patient_id);
+
+-- Verify the change
+-- DESCRIBE caregiver_patients;
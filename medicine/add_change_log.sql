@@ -0,0 +1,33 @@
+-- ============================================
+-- Add Delta Sync to Medicine Reminder
+-- This script adds 'sync_state' (per-user sequence numbers) and
+-- 'change_log' (latest change to each medicine or reminder), which
+-- GET /sync reads to send clients only what changed
+-- ============================================
+
+CREATE TABLE sync_state (
+    user_id INT PRIMARY KEY,
+    seq BIGINT NOT NULL DEFAULT 0,
+    floor_seq BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE change_log (
+    user_id INT NOT NULL,
+    entity CHAR(1) NOT NULL,
+    entity_id INT NOT NULL,
+    seq BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, entity, entity_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Indexes for reading a user's changes in order, and for compaction
+CREATE INDEX idx_change_log_user_seq ON change_log(user_id, seq);
+CREATE INDEX idx_change_log_changed ON change_log(changed_at);
+
+-- Existing clients start with a full resync, so no backfill is needed
+
+-- Verify the change
+-- DESCRIBE change_log;
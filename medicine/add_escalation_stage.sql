@@ -0,0 +1,12 @@
+-- ============================================
+-- Add Escalation Stage to Medicine Reminder
+-- The last missed-dose escalation step sent for a dose (0 = none, 1 = repeat,
+-- 2 = caregiver alert). Every node queues the same doses, and the node whose
+-- conditional UPDATE raises the stage is the only one that sends the step
+-- ============================================
+
+ALTER TABLE reminders
+ADD COLUMN escalation_stage TINYINT NOT NULL DEFAULT 0 AFTER notified;
+
+-- Verify the change
+-- DESCRIBE reminders;
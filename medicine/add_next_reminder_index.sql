@@ -0,0 +1,10 @@
+-- ============================================
+-- Add Next-Reminder Index to Medicine Reminder
+-- GET /reminders/due looks up the user's next pending dose with one seek
+-- on (user_id, reminder_date, reminder_time)
+-- ============================================
+
+CREATE INDEX idx_reminders_user_schedule ON reminders(user_id, reminder_date, reminder_time);
+
+-- Verify the change
+-- SHOW INDEX FROM reminders;
@@ -0,0 +1,27 @@
+-- ============================================
+-- Add Reminder History Archive to Medicine Reminder
+-- This script adds the 'reminders_archive' table. ReminderArchiveService moves
+-- reminders older than archive.horizonDays into it and adds one partition per
+-- month; history reads union it in only for ranges past the horizon
+-- ============================================
+
+CREATE TABLE reminders_archive (
+    id INT NOT NULL,
+    user_id INT NOT NULL,
+    medicine_id INT NOT NULL,
+    reminder_date DATE NOT NULL,
+    reminder_time TIME NOT NULL,
+    taken TINYINT(1) DEFAULT 0,
+    notified TINYINT(1) DEFAULT 0,
+    PRIMARY KEY (id, reminder_date),
+    KEY idx_archive_user_schedule (user_id, reminder_date, reminder_time),
+    KEY idx_archive_medicine (medicine_id, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+PARTITION BY RANGE COLUMNS (reminder_date) (
+    PARTITION p_start VALUES LESS THAN ('2020-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- Verify the change
+-- SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+-- FROM information_schema.PARTITIONS WHERE TABLE_NAME = 'reminders_archive';
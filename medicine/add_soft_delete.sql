@@ -0,0 +1,14 @@
+-- ============================================
+-- Add Soft Delete to Medicine Reminder
+-- Deleting a medicine only sets 'deleted_at'; its reminders are hidden at once
+-- and removed later in small chunks by the background purger
+-- ============================================
+
+ALTER TABLE medicines
+ADD COLUMN deleted_at TIMESTAMP NULL DEFAULT NULL;
+
+-- Index for the purger's scan (deleted_at IS NOT NULL)
+CREATE INDEX idx_medicines_deleted ON medicines(deleted_at);
+
+-- Verify the change
+-- DESCRIBE medicines;
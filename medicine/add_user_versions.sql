@@ -0,0 +1,19 @@
+-- ============================================
+-- Add Cross-Node Cache Coherence to Medicine Reminder
+-- This script adds the 'user_versions' table that each node polls
+-- to invalidate its per-user caches after writes on other nodes
+-- ============================================
+
+CREATE TABLE user_versions (
+    user_id INT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_by VARCHAR(64) NOT NULL,
+    changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Index for the watermark poll (changed_at > ?)
+CREATE INDEX idx_user_versions_changed ON user_versions(changed_at);
+
+-- Verify the change
+-- DESCRIBE user_versions;
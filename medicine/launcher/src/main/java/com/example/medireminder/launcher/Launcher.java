@@ -0,0 +1,224 @@
+package com.example.medireminder.launcher;
+
+import com.example.medireminder.filter.AdmissionFilter;
+import com.example.medireminder.listener.AdherenceReconciliationListener;
+import com.example.medireminder.listener.CacheCoherenceListener;
+import com.example.medireminder.listener.EscalationListener;
+import com.example.medireminder.listener.MedicinePurgeListener;
+import com.example.medireminder.listener.NotificationListener;
+import com.example.medireminder.listener.ReminderArchiveListener;
+import com.example.medireminder.listener.SyncCompactionListener;
+import com.example.medireminder.listener.WarmupListener;
+import com.example.medireminder.servlet.AdherenceServlet;
+import com.example.medireminder.servlet.BatchServlet;
+import com.example.medireminder.servlet.CalendarFeedServlet;
+import com.example.medireminder.servlet.CalendarServlet;
+import com.example.medireminder.servlet.CaregiverServlet;
+import com.example.medireminder.servlet.DeleteCaregiverServlet;
+import com.example.medireminder.servlet.DeleteMedicineServlet;
+import com.example.medireminder.servlet.DueRemindersServlet;
+import com.example.medireminder.servlet.ExportServlet;
+import com.example.medireminder.servlet.ImportServlet;
+import com.example.medireminder.servlet.LoginServlet;
+import com.example.medireminder.servlet.MarkReminderServlet;
+import com.example.medireminder.servlet.MedicineServlet;
+import com.example.medireminder.servlet.MetricsServlet;
+import com.example.medireminder.servlet.ReadyServlet;
+import com.example.medireminder.servlet.RegisterServlet;
+import com.example.medireminder.servlet.ReminderServlet;
+import com.example.medireminder.servlet.SyncServlet;
+import com.example.medireminder.servlet.WardServlet;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.servlets.DefaultServlet;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.catalina.webresources.DirResourceSet;
+import org.apache.catalina.webresources.JarResourceSet;
+import org.apache.catalina.webresources.StandardRoot;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.apache.tomcat.util.scan.StandardJarScanner;
+
+import javax.servlet.Filter;
+import javax.servlet.MultipartConfigElement;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Runs the Medicine Reminder app in an embedded Tomcat
+ *
+ * Every servlet, filter and listener is registered explicitly from the lists
+ * below, so startup does no classpath or jar scanning and loads no JSP engine.
+ * URL patterns and async/multipart settings are still read from each class's
+ * own annotations, so they are declared in one place.
+ * New servlets, filters and listeners must be added to these lists.
+ *
+ * Settings (system properties): port (8080), contextPath (/medicine-reminder),
+ * maxThreads (50), acceptCount (200).
+ * Usage: java -jar medicine-reminder-launcher.jar
+ */
+public class Launcher {
+
+    private static final List<Class<? extends ServletContextListener>> LISTENERS = List.of(
+            WarmupListener.class,
+            CacheCoherenceListener.class,
+            AdherenceReconciliationListener.class,
+            NotificationListener.class,
+            EscalationListener.class,
+            MedicinePurgeListener.class,
+            ReminderArchiveListener.class,
+            SyncCompactionListener.class);
+
+    private static final List<Class<? extends Filter>> FILTERS = List.of(
+            AdmissionFilter.class);
+
+    private static final List<Class<? extends HttpServlet>> SERVLETS = List.of(
+            LoginServlet.class,
+            RegisterServlet.class,
+            MedicineServlet.class,
+            DeleteMedicineServlet.class,
+            ReminderServlet.class,
+            DueRemindersServlet.class,
+            MarkReminderServlet.class,
+            CalendarServlet.class,
+            AdherenceServlet.class,
+            CaregiverServlet.class,
+            DeleteCaregiverServlet.class,
+            WardServlet.class,
+            CalendarFeedServlet.class,
+            SyncServlet.class,
+            BatchServlet.class,
+            ExportServlet.class,
+            ImportServlet.class,
+            MetricsServlet.class,
+            ReadyServlet.class);
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.getInteger("port", 8080);
+        String contextPath = System.getProperty("contextPath", "/medicine-reminder");
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("medicine-reminder").toString());
+
+        // Request work runs on virtual threads (AsyncDispatcher); container threads only parse and dispatch
+        Connector connector = new Connector("HTTP/1.1");
+        connector.setPort(port);
+        connector.setProperty("maxThreads", System.getProperty("maxThreads", "50"));
+        connector.setProperty("minSpareThreads", "4");
+        connector.setProperty("acceptCount", System.getProperty("acceptCount", "200"));
+        connector.setProperty("connectionTimeout", "20000");
+        connector.setProperty("compression", "on");
+        connector.setProperty("compressibleMimeType", "application/json,text/html,text/css,application/javascript");
+        tomcat.setConnector(connector);
+
+        StandardContext context = (StandardContext) tomcat.addContext(contextPath, null);
+        configure(context);
+
+        tomcat.start();
+        long startedMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("Medicine Reminder listening on port " + port + contextPath
+                + " (" + startedMillis + " ms after JVM start)");
+        tomcat.getServer().await();
+    }
+
+    private static void configure(StandardContext context) throws ReflectiveOperationException, URISyntaxException,
+            LifecycleException {
+        // Nothing is discovered: no annotation, TLD or jar scanning
+        StandardJarScanner jarScanner = new StandardJarScanner();
+        jarScanner.setScanClassPath(false);
+        jarScanner.setScanManifest(false);
+        context.setJarScanner(jarScanner);
+
+        // Sessions only live as long as the process
+        StandardManager manager = new StandardManager();
+        manager.setPathname(null);
+        context.setManager(manager);
+        context.setSessionTimeout(30);
+        context.addWelcomeFile("index.html");
+
+        context.setResources(staticResources(context));
+        Tomcat.addDefaultMimeTypeMappings(context);
+        Tomcat.addServlet(context, "default", new DefaultServlet());
+        context.addServletMappingDecoded("/", "default");
+
+        for (Class<? extends ServletContextListener> listener : LISTENERS) {
+            context.addApplicationLifecycleListener(listener.getDeclaredConstructor().newInstance());
+        }
+        for (Class<? extends Filter> filter : FILTERS) {
+            registerFilter(context, filter);
+        }
+        for (Class<? extends HttpServlet> servlet : SERVLETS) {
+            registerServlet(context, servlet);
+        }
+    }
+
+    /**
+     * Serve index.html, app.js etc. from /webapp inside the jar (or classes directory)
+     */
+    private static WebResourceRoot staticResources(Context context) throws URISyntaxException {
+        File codeSource = new File(Launcher.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        WebResourceRoot resources = new StandardRoot(context);
+        if (codeSource.isDirectory()) {
+            resources.addPreResources(new DirResourceSet(resources, "/",
+                    new File(codeSource, "webapp").getAbsolutePath(), "/"));
+        } else {
+            resources.addPreResources(new JarResourceSet(resources, "/", codeSource.getAbsolutePath(), "/webapp"));
+        }
+        return resources;
+    }
+
+    private static void registerServlet(Context context, Class<? extends HttpServlet> servletClass)
+            throws ReflectiveOperationException {
+        WebServlet mapping = servletClass.getAnnotation(WebServlet.class);
+        String name = servletClass.getSimpleName();
+
+        Wrapper wrapper = Tomcat.addServlet(context, name, servletClass.getDeclaredConstructor().newInstance());
+        wrapper.setAsyncSupported(mapping.asyncSupported());
+        wrapper.setLoadOnStartup(1);
+
+        MultipartConfig multipart = servletClass.getAnnotation(MultipartConfig.class);
+        if (multipart != null) {
+            wrapper.setMultipartConfigElement(new MultipartConfigElement(multipart));
+        }
+
+        for (String pattern : patterns(mapping.value(), mapping.urlPatterns())) {
+            context.addServletMappingDecoded(pattern, name);
+        }
+    }
+
+    private static void registerFilter(Context context, Class<? extends Filter> filterClass)
+            throws ReflectiveOperationException {
+        WebFilter mapping = filterClass.getAnnotation(WebFilter.class);
+        String name = filterClass.getSimpleName();
+
+        FilterDef definition = new FilterDef();
+        definition.setFilterName(name);
+        definition.setFilter(filterClass.getDeclaredConstructor().newInstance());
+        definition.setAsyncSupported(String.valueOf(mapping.asyncSupported()));
+        context.addFilterDef(definition);
+
+        FilterMap filterMap = new FilterMap();
+        filterMap.setFilterName(name);
+        for (String pattern : patterns(mapping.value(), mapping.urlPatterns())) {
+            filterMap.addURLPattern(pattern);
+        }
+        context.addFilterMap(filterMap);
+    }
+
+    private static String[] patterns(String[] value, String[] urlPatterns) {
+        return value.length > 0 ? value : urlPatterns;
+    }
+}
@@ -9,6 +9,12 @@
 -- USE medireminderdb;
 
 -- Drop tables if they exist (for clean setup)
+DROP TABLE IF EXISTS change_log;
+DROP TABLE IF EXISTS sync_state;
+DROP TABLE IF EXISTS calendar_feeds;
+DROP TABLE IF EXISTS caregiver_patients;
+DROP TABLE IF EXISTS reminders_archive;
+DROP TABLE IF EXISTS adherence_daily;
 DROP TABLE IF EXISTS reminders;
 DROP TABLE IF EXISTS medicines;
 DROP TABLE IF EXISTS users;
@@ -35,6 +41,7 @@ CREATE TABLE medicines (
     dosage VARCHAR(50),
     notes TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP NULL DEFAULT NULL,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -49,18 +56,125 @@ CREATE TABLE reminders (
     reminder_date DATE NOT NULL,
     reminder_time TIME NOT NULL,
     taken TINYINT(1) DEFAULT 0,
+    escalation_stage TINYINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (medicine_id) REFERENCES medicines(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- ============================================
+-- Table: adherence_daily
+-- Rollup of scheduled/taken dose counts per user, medicine and day
+-- Maintained incrementally by ReminderService and reconciled nightly
+-- ============================================
+CREATE TABLE adherence_daily (
+    user_id INT NOT NULL,
+    medicine_id INT NOT NULL,
+    day DATE NOT NULL,
+    scheduled INT NOT NULL DEFAULT 0,
+    taken INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, medicine_id, day),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (medicine_id) REFERENCES medicines(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ============================================
+-- Table: reminders_archive
+-- Reminders older than archive.horizonDays, moved out of 'reminders'
+-- Partitioned by month; ReminderArchiveService adds partitions as it goes
+-- (partitioned tables cannot have foreign keys)
+-- ============================================
+CREATE TABLE reminders_archive (
+    id INT NOT NULL,
+    user_id INT NOT NULL,
+    medicine_id INT NOT NULL,
+    reminder_date DATE NOT NULL,
+    reminder_time TIME NOT NULL,
+    taken TINYINT(1) DEFAULT 0,
+    notified TINYINT(1) DEFAULT 0,
+    PRIMARY KEY (id, reminder_date),
+    KEY idx_archive_user_schedule (user_id, reminder_date, reminder_time),
+    KEY idx_archive_medicine (medicine_id, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+PARTITION BY RANGE COLUMNS (reminder_date) (
+    PARTITION p_start VALUES LESS THAN ('2020-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- ============================================
+-- Table: user_versions
+-- Per-user change counter bumped on every write
+-- Each node polls it to drop stale entries from its in-memory caches
+-- ============================================
+CREATE TABLE user_versions (
+    user_id INT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_by VARCHAR(64) NOT NULL,
+    changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ============================================
+-- Table: caregiver_patients
+-- Patients who granted a caregiver access to their schedule (ward view)
+-- ============================================
+CREATE TABLE caregiver_patients (
+    caregiver_id INT NOT NULL,
+    patient_id INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (caregiver_id, patient_id),
+    FOREIGN KEY (caregiver_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (patient_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ============================================
+-- Table: calendar_feeds
+-- Per-user iCalendar feed token (SHA-256 hash only) for GET /calendar/feed
+-- ============================================
+CREATE TABLE calendar_feeds (
+    user_id INT PRIMARY KEY,
+    token_hash CHAR(64) NOT NULL UNIQUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ============================================
+-- Tables: sync_state, change_log
+-- Delta sync for GET /sync: per-user sequence numbers, and the
+-- latest change to each medicine (entity 'M') or reminder ('R')
+-- ============================================
+CREATE TABLE sync_state (
+    user_id INT PRIMARY KEY,
+    seq BIGINT NOT NULL DEFAULT 0,
+    floor_seq BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE change_log (
+    user_id INT NOT NULL,
+    entity CHAR(1) NOT NULL,
+    entity_id INT NOT NULL,
+    seq BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, entity, entity_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- ============================================
 -- Create indexes for better query performance
 -- ============================================
 CREATE INDEX idx_medicines_user_id ON medicines(user_id);
+CREATE INDEX idx_medicines_deleted ON medicines(deleted_at);
 CREATE INDEX idx_reminders_user_id ON reminders(user_id);
 CREATE INDEX idx_reminders_date ON reminders(reminder_date);
 CREATE INDEX idx_reminders_medicine_id ON reminders(medicine_id);
+CREATE INDEX idx_reminders_user_schedule ON reminders(user_id, reminder_date, reminder_time);
+CREATE INDEX idx_adherence_user_day ON adherence_daily(user_id, day);
+CREATE INDEX idx_user_versions_changed ON user_versions(changed_at);
+CREATE INDEX idx_caregiver_patients_patient ON caregiver_patients(patient_id);
+CREATE INDEX idx_change_log_user_seq ON change_log(user_id, seq);
+CREATE INDEX idx_change_log_changed ON change_log(changed_at);
 
 -- ============================================
 -- Sample Data (Optional - for testing)
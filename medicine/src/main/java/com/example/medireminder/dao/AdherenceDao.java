@@ -0,0 +1,197 @@
+package com.example.medireminder.dao;
+
+import com.example.medireminder.model.AdherenceRecord;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the adherence_daily rollup table
+ * Rows are keyed by (user, medicine, day) and hold scheduled/taken dose counts
+ * Uses PreparedStatement to prevent SQL injection
+ */
+public class AdherenceDao {
+
+    /**
+     * Apply a change to one day's counts, creating the row if needed
+     * Counts never go below zero; the nightly reconciliation fixes any drift
+     * @param userId User ID
+     * @param medicineId Medicine ID
+     * @param day Reminder date
+     * @param scheduledDelta Change to the scheduled count
+     * @param takenDelta Change to the taken count
+     * @return true if update was successful, false otherwise
+     */
+    public boolean applyDelta(int userId, int medicineId, Date day, int scheduledDelta, int takenDelta) {
+        String sql = "INSERT INTO adherence_daily (user_id, medicine_id, day, scheduled, taken) " +
+                     "VALUES (?, ?, ?, GREATEST(?, 0), GREATEST(?, 0)) " +
+                     "ON DUPLICATE KEY UPDATE " +
+                     "scheduled = GREATEST(scheduled + ?, 0), " +
+                     "taken = GREATEST(taken + ?, 0)";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setInt(2, medicineId);
+            stmt.setDate(3, day);
+            stmt.setInt(4, scheduledDelta);
+            stmt.setInt(5, takenDelta);
+            stmt.setInt(6, scheduledDelta);
+            stmt.setInt(7, takenDelta);
+
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error updating adherence rollup: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Delete a medicine's rollup rows (one per day) before the medicine is purged
+     * @param medicineId Medicine ID
+     * @return true if the delete ran (even if there were no rows), false on database error
+     */
+    public boolean deleteByMedicine(int medicineId) {
+        String sql = "DELETE FROM adherence_daily WHERE medicine_id = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, medicineId);
+            stmt.executeUpdate();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error deleting adherence rollup: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Count newly scheduled reminders in the rollup with one JDBC batch
+     * @param reminders Reminders that were just saved
+     * @return true if update was successful, false otherwise
+     */
+    public boolean addScheduled(List<Reminder> reminders) {
+        if (reminders.isEmpty()) {
+            return true;
+        }
+        String sql = "INSERT INTO adherence_daily (user_id, medicine_id, day, scheduled, taken) " +
+                     "VALUES (?, ?, ?, 1, 0) " +
+                     "ON DUPLICATE KEY UPDATE scheduled = scheduled + 1";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (Reminder reminder : reminders) {
+                stmt.setInt(1, reminder.getUserId());
+                stmt.setInt(2, reminder.getMedicineId());
+                stmt.setDate(3, reminder.getReminderDate());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error updating adherence rollup: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Find rollup rows for a user within a date range (inclusive)
+     * @param userId User ID
+     * @param from First day
+     * @param to Last day
+     * @return List of AdherenceRecord objects ordered by day
+     */
+    public List<AdherenceRecord> findByUserAndRange(int userId, Date from, Date to) {
+        List<AdherenceRecord> records = new ArrayList<>();
+        String sql = "SELECT a.user_id, a.medicine_id, a.day, a.scheduled, a.taken FROM adherence_daily a " +
+                     "INNER JOIN medicines m ON a.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE a.user_id = ? AND a.day BETWEEN ? AND ? " +
+                     "ORDER BY a.day, a.medicine_id";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setDate(2, from);
+            stmt.setDate(3, to);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                records.add(new AdherenceRecord(
+                        rs.getInt("user_id"),
+                        rs.getInt("medicine_id"),
+                        rs.getDate("day"),
+                        rs.getInt("scheduled"),
+                        rs.getInt("taken")));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding adherence records: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return records;
+    }
+
+    /**
+     * Rebuild the rollup for a date range from the reminders table
+     * Runs as one transaction so readers never see a half-rebuilt range
+     * @param from First day
+     * @param to Last day
+     * @return Number of rollup rows written, or -1 on failure
+     */
+    public int reconcile(Date from, Date to) {
+        String deleteSql = "DELETE FROM adherence_daily WHERE day BETWEEN ? AND ?";
+        String insertSql = "INSERT INTO adherence_daily (user_id, medicine_id, day, scheduled, taken) " +
+                           "SELECT r.user_id, r.medicine_id, r.reminder_date, COUNT(*), SUM(r.taken) " +
+                           "FROM reminders r " +
+                           "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                           "WHERE r.reminder_date BETWEEN ? AND ? " +
+                           "GROUP BY r.user_id, r.medicine_id, r.reminder_date";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql)) {
+
+                delete.setDate(1, from);
+                delete.setDate(2, to);
+                delete.executeUpdate();
+
+                insert.setDate(1, from);
+                insert.setDate(2, to);
+                int rows = insert.executeUpdate();
+
+                conn.commit();
+                return rows;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reconciling adherence rollup: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+}
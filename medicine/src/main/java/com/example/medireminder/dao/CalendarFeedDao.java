@@ -0,0 +1,92 @@
+package com.example.medireminder.dao;
+
+import com.example.medireminder.model.CalendarFeed;
+import com.example.medireminder.util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Data Access Object for calendar_feeds
+ * Only a SHA-256 hash of each feed token is stored; the token itself is
+ * shown to the user once, when it is created.
+ */
+public class CalendarFeedDao {
+
+    /**
+     * Set a user's feed token, replacing any previous one
+     * @param userId User ID
+     * @param tokenHash Hex SHA-256 of the new token
+     * @return true if saved, false otherwise
+     */
+    public boolean saveToken(int userId, String tokenHash) {
+        String sql = "INSERT INTO calendar_feeds (user_id, token_hash) VALUES (?, ?) " +
+                     "ON DUPLICATE KEY UPDATE token_hash = VALUES(token_hash), created_at = CURRENT_TIMESTAMP";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setString(2, tokenHash);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error saving calendar feed token: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Remove a user's feed token
+     * @param userId User ID
+     * @return true if a token was removed, false otherwise
+     */
+    public boolean deleteToken(int userId) {
+        String sql = "DELETE FROM calendar_feeds WHERE user_id = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error deleting calendar feed token: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Resolve a feed token together with the user's data version
+     * One unique-key lookup plus one primary-key lookup, so an unchanged
+     * feed can be answered with 304 without reading any reminders
+     * @param tokenHash Hex SHA-256 of the token
+     * @return CalendarFeed, or null if the token is unknown or on database error
+     */
+    public CalendarFeed findByTokenHash(String tokenHash) {
+        String sql = "SELECT f.user_id, COALESCE(v.version, 0), v.changed_at FROM calendar_feeds f " +
+                     "LEFT JOIN user_versions v ON v.user_id = f.user_id " +
+                     "WHERE f.token_hash = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, tokenHash);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return new CalendarFeed(rs.getInt(1), rs.getLong(2), rs.getTimestamp(3));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding calendar feed: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+}
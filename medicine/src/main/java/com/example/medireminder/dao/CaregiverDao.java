@@ -0,0 +1,249 @@
+package com.example.medireminder.dao;
+
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.User;
+import com.example.medireminder.util.DBConnection;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for caregiver_patients links
+ * A link means the patient granted the caregiver access to their schedule.
+ * The ward view reads every linked patient's doses in one query through the
+ * link table, instead of one query per patient.
+ */
+public class CaregiverDao {
+
+    /**
+     * Callback for streamed ward rows
+     * The same Reminder instance is reused for every row,
+     * so copy any values that must outlive the call
+     */
+    public interface WardRowHandler {
+        void handle(Reminder reminder) throws IOException;
+    }
+
+    /**
+     * Link a caregiver to a patient (does nothing if already linked)
+     * @param caregiverId Caregiver's user ID
+     * @param patientId Patient's user ID
+     * @return true if the link exists afterwards, false on database error
+     */
+    public boolean link(int caregiverId, int patientId) {
+        String sql = "INSERT IGNORE INTO caregiver_patients (caregiver_id, patient_id) VALUES (?, ?)";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, caregiverId);
+            stmt.setInt(2, patientId);
+            stmt.executeUpdate();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error linking caregiver: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Remove a caregiver-patient link
+     * @param caregiverId Caregiver's user ID
+     * @param patientId Patient's user ID
+     * @return true if a link was removed, false otherwise
+     */
+    public boolean unlink(int caregiverId, int patientId) {
+        String sql = "DELETE FROM caregiver_patients WHERE caregiver_id = ? AND patient_id = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, caregiverId);
+            stmt.setInt(2, patientId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error unlinking caregiver: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Count a caregiver's patients
+     * @param caregiverId Caregiver's user ID
+     * @return Number of linked patients, or -1 on database error
+     */
+    public int countPatients(int caregiverId) {
+        String sql = "SELECT COUNT(*) FROM caregiver_patients WHERE caregiver_id = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, caregiverId);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error counting patients: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Find the patients linked to a caregiver
+     * @param caregiverId Caregiver's user ID
+     * @return Users with ID and username only, ordered by username (empty on database error)
+     */
+    public List<User> findPatients(int caregiverId) {
+        String sql = "SELECT u.id, u.username FROM caregiver_patients cp " +
+                     "INNER JOIN users u ON u.id = cp.patient_id " +
+                     "WHERE cp.caregiver_id = ? ORDER BY u.username";
+        return findUsers(sql, caregiverId, "Error finding patients: ");
+    }
+
+    /**
+     * Find the caregivers a patient granted access to
+     * @param patientId Patient's user ID
+     * @return Users with ID and username only, ordered by username (empty on database error)
+     */
+    public List<User> findCaregivers(int patientId) {
+        String sql = "SELECT u.id, u.username FROM caregiver_patients cp " +
+                     "INNER JOIN users u ON u.id = cp.caregiver_id " +
+                     "WHERE cp.patient_id = ? ORDER BY u.username";
+        return findUsers(sql, patientId, "Error finding caregivers: ");
+    }
+
+    /**
+     * Find the caregivers of several patients in one query
+     * @param patientIds Patients' user IDs
+     * @return Map of patient ID to caregiver IDs; patients without caregivers are absent
+     *         (null on database error)
+     */
+    public Map<Integer, List<Integer>> findCaregiverIds(Collection<Integer> patientIds) {
+        Map<Integer, List<Integer>> caregivers = new HashMap<>();
+        if (patientIds.isEmpty()) {
+            return caregivers;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT patient_id, caregiver_id FROM caregiver_patients WHERE patient_id IN (");
+        for (int i = 0; i < patientIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            for (int patientId : patientIds) {
+                stmt.setInt(index++, patientId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    caregivers.computeIfAbsent(rs.getInt(1), id -> new ArrayList<>()).add(rs.getInt(2));
+                }
+            }
+            return caregivers;
+
+        } catch (SQLException e) {
+            System.err.println("Error finding caregivers: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Stream the ward view: today's doses of every linked patient, plus doses
+     * from earlier days that were never taken
+     * One query for the whole ward: the link table's primary key drives a
+     * range scan of idx_reminders_user_schedule per patient. Rows are sorted by
+     * time across patients and read with a streaming cursor.
+     * @param caregiverId Caregiver's user ID
+     * @param missedSince First earlier day whose untaken doses are included
+     * @param today Day whose full schedule is included
+     * @param handler Called once per dose, in date/time order
+     * @return true if all rows were streamed, false on database error
+     * @throws IOException if the handler fails to write a row
+     */
+    public boolean streamWard(int caregiverId, LocalDate missedSince, LocalDate today, WardRowHandler handler)
+            throws IOException {
+        String sql = "SELECT r.id, r.user_id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, " +
+                     "m.name FROM caregiver_patients cp " +
+                     "INNER JOIN reminders r ON r.user_id = cp.patient_id " +
+                     "AND r.reminder_date >= ? AND r.reminder_date <= ? " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE cp.caregiver_id = ? AND (r.reminder_date = ? OR r.taken = 0) " +
+                     "ORDER BY r.reminder_date, r.reminder_time, r.user_id, r.id";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setDate(1, Date.valueOf(missedSince));
+            stmt.setDate(2, Date.valueOf(today));
+            stmt.setInt(3, caregiverId);
+            stmt.setDate(4, Date.valueOf(today));
+
+            Reminder reminder = new Reminder();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reminder.setId(rs.getInt(1));
+                    reminder.setUserId(rs.getInt(2));
+                    reminder.setMedicineId(rs.getInt(3));
+                    reminder.setReminderDate(rs.getDate(4));
+                    reminder.setReminderTime(rs.getTime(5));
+                    reminder.setTaken(rs.getBoolean(6));
+                    reminder.setNotified(rs.getBoolean(7));
+                    reminder.setMedicineName(rs.getString(8));
+                    handler.handle(reminder);
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error streaming ward view: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private List<User> findUsers(String sql, int userId, String errorMessage) {
+        List<User> users = new ArrayList<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                User user = new User();
+                user.setId(rs.getInt(1));
+                user.setUsername(rs.getString(2));
+                users.add(user);
+            }
+
+        } catch (SQLException e) {
+            System.err.println(errorMessage + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return users;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.medireminder.dao;
+
+import com.example.medireminder.model.SyncChange;
+import com.example.medireminder.model.SyncState;
+import com.example.medireminder.util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for the delta sync tables (sync_state and change_log)
+ *
+ * change_log keeps one row per changed medicine or reminder, holding the
+ * sequence number of its latest change; sync_state hands out the numbers.
+ * Numbers are taken and the log rows written in one transaction that holds
+ * the user's sync_state row lock, so a user's changes commit in sequence
+ * order and a reader never sees number N before N - 1. Called inside
+ * DBConnection.inTransaction, that is the caller's transaction, so the
+ * changed rows and their log rows commit (or roll back) together.
+ */
+public class ChangeLogDao {
+
+    /**
+     * Record changes to several rows of one user
+     * Joins the transaction open on the connection, if any; otherwise runs its own
+     * @param userId User ID
+     * @param entity SyncChange.MEDICINE or SyncChange.REMINDER
+     * @param entityIds IDs of the changed rows
+     * @param deleted true if the rows were deleted
+     * @return The last sequence number used, or -1 on database error
+     */
+    public long record(int userId, String entity, List<Integer> entityIds, boolean deleted) {
+        if (entityIds.isEmpty()) {
+            return 0;
+        }
+        String allocateSql = "INSERT INTO sync_state (user_id, seq) VALUES (?, ?) " +
+                             "ON DUPLICATE KEY UPDATE seq = seq + VALUES(seq)";
+        String seqSql = "SELECT seq FROM sync_state WHERE user_id = ?";
+        String logSql = "INSERT INTO change_log (user_id, entity, entity_id, seq, deleted) VALUES (?, ?, ?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE seq = VALUES(seq), deleted = VALUES(deleted), changed_at = CURRENT_TIMESTAMP";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            boolean ownTransaction = conn.getAutoCommit();
+            if (ownTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement allocate = conn.prepareStatement(allocateSql);
+                 PreparedStatement select = conn.prepareStatement(seqSql);
+                 PreparedStatement log = conn.prepareStatement(logSql)) {
+
+                allocate.setInt(1, userId);
+                allocate.setLong(2, entityIds.size());
+                allocate.executeUpdate();
+
+                select.setInt(1, userId);
+                long last;
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    last = rs.getLong(1);
+                }
+
+                long seq = last - entityIds.size();
+                for (int entityId : entityIds) {
+                    log.setInt(1, userId);
+                    log.setString(2, entity);
+                    log.setInt(3, entityId);
+                    log.setLong(4, ++seq);
+                    log.setBoolean(5, deleted);
+                    log.addBatch();
+                }
+                log.executeBatch();
+
+                if (ownTransaction) {
+                    conn.commit();
+                }
+                return last;
+
+            } catch (SQLException e) {
+                if (ownTransaction) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (ownTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error recording changes: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Get a user's sync state
+     * @param userId User ID
+     * @return SyncState (zeros if the user never changed anything), or null on database error
+     */
+    public SyncState findState(int userId) {
+        String sql = "SELECT seq, floor_seq FROM sync_state WHERE user_id = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new SyncState(userId, rs.getLong(1), rs.getLong(2));
+                }
+                return new SyncState(userId, 0, 0);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding sync state: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Find a user's changes after a sequence number, oldest first
+     * @param userId User ID
+     * @param since Last sequence number the client has
+     * @param limit Maximum number of changes
+     * @return List of SyncChange, or null on database error
+     */
+    public List<SyncChange> findSince(int userId, long since, int limit) {
+        String sql = "SELECT entity, entity_id, seq, deleted FROM change_log " +
+                     "WHERE user_id = ? AND seq > ? ORDER BY seq LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setLong(2, since);
+            stmt.setInt(3, limit);
+
+            List<SyncChange> changes = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(new SyncChange(rs.getString(1), rs.getInt(2), rs.getLong(3), rs.getBoolean(4)));
+                }
+            }
+            return changes;
+
+        } catch (SQLException e) {
+            System.err.println("Error finding changes: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Find users with changes older than a cutoff, and their newest such change
+     * @param before Cutoff time
+     * @param limit Maximum number of users
+     * @return Map of user ID to highest sequence number before the cutoff (empty on database error)
+     */
+    public Map<Integer, Long> findCompactable(Timestamp before, int limit) {
+        Map<Integer, Long> users = new LinkedHashMap<>();
+        String sql = "SELECT user_id, MAX(seq) FROM change_log WHERE changed_at < ? GROUP BY user_id LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, before);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding compactable changes: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return users;
+    }
+
+    /**
+     * Raise a user's floor: clients behind it get a full resync
+     * Must happen before the changes below it are deleted
+     * @param userId User ID
+     * @param floorSeq New floor
+     * @return true if updated, false otherwise
+     */
+    public boolean raiseFloor(int userId, long floorSeq) {
+        String sql = "UPDATE sync_state SET floor_seq = GREATEST(floor_seq, ?) WHERE user_id = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, floorSeq);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error raising sync floor: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Delete one chunk of a user's changes up to a sequence number
+     * @param userId User ID
+     * @param maxSeq Highest sequence number to delete
+     * @param limit Maximum number of rows
+     * @return Number of rows deleted, or -1 on database error
+     */
+    public int deleteChunk(int userId, long maxSeq, int limit) {
+        String sql = "DELETE FROM change_log WHERE user_id = ? AND seq <= ? ORDER BY seq LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setLong(2, maxSeq);
+            stmt.setInt(3, limit);
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error deleting changes: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,6 +20,7 @@ public class MedicineDao {
 
     /**
      * Save a new medicine to the database
+     * The generated ID is written back into the Medicine object
      * @param medicine Medicine object to save
      * @return true if save was successful, false otherwise
      */
@@ -26,7 +28,7 @@ public class MedicineDao {
         String sql = "INSERT INTO medicines (user_id, name, dosage, notes) VALUES (?, ?, ?, ?)";
         
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setInt(1, medicine.getUserId());
             stmt.setString(2, medicine.getName());
@@ -34,6 +36,10 @@ public class MedicineDao {
             stmt.setString(4, medicine.getNotes());
             
             int rowsAffected = stmt.executeUpdate();
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (keys.next()) {
+                medicine.setId(keys.getInt(1));
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -43,6 +49,46 @@ public class MedicineDao {
         }
     }
 
+    /**
+     * Save several medicines in one JDBC batch
+     * Generated IDs are written back into the Medicine objects
+     * @param medicines Medicines to save
+     * @return true if all medicines were saved, false otherwise
+     */
+    public boolean saveMedicines(List<Medicine> medicines) {
+        if (medicines.isEmpty()) {
+            return true;
+        }
+        String sql = "INSERT INTO medicines (user_id, name, dosage, notes) VALUES (?, ?, ?, ?)";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            for (Medicine medicine : medicines) {
+                stmt.setInt(1, medicine.getUserId());
+                stmt.setString(2, medicine.getName());
+                stmt.setString(3, medicine.getDosage());
+                stmt.setString(4, medicine.getNotes());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            ResultSet keys = stmt.getGeneratedKeys();
+            for (Medicine medicine : medicines) {
+                if (!keys.next()) {
+                    return false;
+                }
+                medicine.setId(keys.getInt(1));
+            }
+            return true;
+            
+        } catch (SQLException e) {
+            System.err.println("Error saving medicines: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Find all medicines for a specific user
      * @param userId User ID
@@ -50,7 +96,7 @@ public class MedicineDao {
      */
     public List<Medicine> findByUserId(int userId) {
         List<Medicine> medicines = new ArrayList<>();
-        String sql = "SELECT id, user_id, name, dosage, notes FROM medicines WHERE user_id = ? ORDER BY name";
+        String sql = "SELECT id, user_id, name, dosage, notes FROM medicines WHERE user_id = ? AND deleted_at IS NULL ORDER BY name";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -77,12 +123,15 @@ public class MedicineDao {
     }
 
     /**
-     * Delete a medicine by ID
+     * Soft-delete a medicine by ID
+     * Only sets deleted_at, so it returns at once however long the history is;
+     * the medicine and its reminders are hidden from every read from now on
+     * and removed later by the background purger
      * @param medicineId Medicine ID to delete
      * @return true if deletion was successful, false otherwise
      */
     public boolean deleteById(int medicineId) {
-        String sql = "DELETE FROM medicines WHERE id = ?";
+        String sql = "UPDATE medicines SET deleted_at = CURRENT_TIMESTAMP WHERE id = ? AND deleted_at IS NULL";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -98,13 +147,62 @@ public class MedicineDao {
         }
     }
 
+    /**
+     * Find soft-deleted medicines waiting to be purged, oldest deletion first
+     * @param limit Most IDs to return
+     * @return Medicine IDs (empty on database error)
+     */
+    public List<Integer> findDeletedIds(int limit) {
+        List<Integer> ids = new ArrayList<>();
+        String sql = "SELECT id FROM medicines WHERE deleted_at IS NOT NULL ORDER BY deleted_at, id LIMIT ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, limit);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error finding deleted medicines: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return ids;
+    }
+
+    /**
+     * Remove a soft-deleted medicine row once its reminders are purged
+     * Run in one transaction with AdherenceDao.deleteByMedicine (see MedicinePurgeService)
+     * @param medicineId Medicine ID
+     * @return true if the medicine was removed, false otherwise
+     */
+    public boolean purgeById(int medicineId) {
+        String sql = "DELETE FROM medicines WHERE id = ? AND deleted_at IS NOT NULL";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, medicineId);
+            return stmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            System.err.println("Error purging medicine: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Find a medicine by ID
      * @param medicineId Medicine ID
      * @return Medicine object if found, null otherwise
      */
     public Medicine findById(int medicineId) {
-        String sql = "SELECT id, user_id, name, dosage, notes FROM medicines WHERE id = ?";
+        String sql = "SELECT id, user_id, name, dosage, notes FROM medicines WHERE id = ? AND deleted_at IS NULL";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -129,4 +227,51 @@ public class MedicineDao {
         
         return null;
     }
+
+    /**
+     * Find a user's medicines among the given IDs (deleted ones are skipped)
+     * @param userId User ID
+     * @param medicineIds Medicine IDs
+     * @return List of Medicine objects, or null on database error
+     */
+    public List<Medicine> findByIds(int userId, List<Integer> medicineIds) {
+        List<Medicine> medicines = new ArrayList<>();
+        if (medicineIds.isEmpty()) {
+            return medicines;
+        }
+        
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, user_id, name, dosage, notes FROM medicines " +
+                "WHERE user_id = ? AND deleted_at IS NULL AND id IN (");
+        for (int i = 0; i < medicineIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            stmt.setInt(1, userId);
+            for (int i = 0; i < medicineIds.size(); i++) {
+                stmt.setInt(i + 2, medicineIds.get(i));
+            }
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                Medicine medicine = new Medicine();
+                medicine.setId(rs.getInt("id"));
+                medicine.setUserId(rs.getInt("user_id"));
+                medicine.setName(rs.getString("name"));
+                medicine.setDosage(rs.getString("dosage"));
+                medicine.setNotes(rs.getString("notes"));
+                medicines.add(medicine);
+            }
+            return medicines;
+            
+        } catch (SQLException e) {
+            System.err.println("Error finding medicines by ID: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
@@ -0,0 +1,214 @@
+package com.example.medireminder.dao;
+
+import com.example.medireminder.util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for reminders_archive
+ * Moves old reminders out of the hot table and keeps the archive's
+ * monthly partitions ahead of the rows moved into it
+ */
+public class ReminderArchiveDao {
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    /**
+     * Find the upper bound of the archive's last monthly partition
+     * @return First day not covered by a monthly partition, or null if the
+     *         archive table does not exist or on database error
+     */
+    public LocalDate findPartitionedUntil() {
+        String sql = "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_DESCRIPTION <> 'MAXVALUE'";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, ReminderDao.ARCHIVE_TABLE);
+            ResultSet rs = stmt.executeQuery();
+
+            LocalDate until = null;
+            while (rs.next()) {
+                // Boundaries are stored as quoted literals, e.g. '2026-11-01'
+                LocalDate bound = LocalDate.parse(rs.getString(1).replace("'", ""));
+                if (until == null || bound.isAfter(until)) {
+                    until = bound;
+                }
+            }
+            return until;
+
+        } catch (SQLException e) {
+            System.err.println("Error reading archive partitions: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Find the scheduled day of the oldest reminder in the hot table
+     * One probe at the start of idx_reminders_date
+     * @return Oldest reminder_date, or null if the table is empty or on database error
+     */
+    public LocalDate findOldestReminderDate() {
+        String sql = "SELECT MIN(reminder_date) FROM reminders";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next() && rs.getDate(1) != null) {
+                return rs.getDate(1).toLocalDate();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding oldest reminder: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Add a partition ending with a month by splitting it off the MAXVALUE partition
+     * It covers everything from the current last bound to the end of the month.
+     * Cheap while the MAXVALUE partition is empty, which holds as long as
+     * rows are only archived below the last monthly bound
+     * @param month Last month the partition covers (must end after the current last bound)
+     * @return true if the partition was added, false otherwise
+     */
+    public boolean addMonthPartition(YearMonth month) {
+        String bound = month.plusMonths(1).atDay(1).toString();
+        String sql = "ALTER TABLE " + ReminderDao.ARCHIVE_TABLE + " REORGANIZE PARTITION p_future INTO (" +
+                     "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" + bound + "'), " +
+                     "PARTITION p_future VALUES LESS THAN (MAXVALUE))";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.executeUpdate();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error adding archive partition: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Move one batch of reminders scheduled before a day into the archive
+     * The oldest rows go first (idx_reminders_date); copy and delete run in one
+     * short transaction, so a row is always in exactly one of the two tables.
+     * @param before Rows with reminder_date before this day are moved
+     * @param limit Most rows to move
+     * @return Number of rows moved, or -1 on database error
+     */
+    public int archiveBatch(LocalDate before, int limit) {
+        String selectSql = "SELECT id FROM reminders WHERE reminder_date < ? ORDER BY reminder_date, id LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            List<Integer> ids = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                stmt.setDate(1, Date.valueOf(before));
+                stmt.setInt(2, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            StringBuilder in = new StringBuilder("(");
+            for (int i = 0; i < ids.size(); i++) {
+                in.append(i == 0 ? "?" : ", ?");
+            }
+            in.append(")");
+            String copySql = "INSERT INTO " + ReminderDao.ARCHIVE_TABLE +
+                             " (id, user_id, medicine_id, reminder_date, reminder_time, taken, notified) " +
+                             "SELECT id, user_id, medicine_id, reminder_date, reminder_time, taken, notified " +
+                             "FROM reminders WHERE id IN " + in;
+            String deleteSql = "DELETE FROM reminders WHERE id IN " + in;
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement copy = conn.prepareStatement(copySql);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+
+                for (int i = 0; i < ids.size(); i++) {
+                    copy.setInt(i + 1, ids.get(i));
+                    delete.setInt(i + 1, ids.get(i));
+                }
+                copy.executeUpdate();
+                int moved = delete.executeUpdate();
+                conn.commit();
+                return moved;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error archiving reminders: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Hard-delete the next chunk of a soft-deleted medicine's archived reminders
+     * Same keyset walk as ReminderDao#purgeChunkByMedicine, on (medicine_id, id)
+     * @param medicineId Medicine ID
+     * @param afterId Last reminder ID deleted so far (0 to start)
+     * @param limit Most rows to delete
+     * @return Last reminder ID deleted, 0 if none were left, or -1 on database error
+     */
+    public int purgeChunkByMedicine(int medicineId, int afterId, int limit) {
+        String boundSql = "SELECT MAX(id) FROM (" +
+                          "SELECT id FROM " + ReminderDao.ARCHIVE_TABLE +
+                          " WHERE medicine_id = ? AND id > ? ORDER BY id LIMIT ?) chunk";
+        String deleteSql = "DELETE FROM " + ReminderDao.ARCHIVE_TABLE +
+                           " WHERE medicine_id = ? AND id > ? AND id <= ?";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            int lastId;
+            try (PreparedStatement stmt = conn.prepareStatement(boundSql)) {
+                stmt.setInt(1, medicineId);
+                stmt.setInt(2, afterId);
+                stmt.setInt(3, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    lastId = rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+            if (lastId == 0) {
+                return 0;
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+                stmt.setInt(1, medicineId);
+                stmt.setInt(2, afterId);
+                stmt.setInt(3, lastId);
+                stmt.executeUpdate();
+            }
+            return lastId;
+
+        } catch (SQLException e) {
+            System.err.println("Error purging archived reminders: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package com.example.medireminder.dao;
 
+import com.example.medireminder.model.DaySchedule;
+import com.example.medireminder.model.DoseCalendarMonth;
+import com.example.medireminder.model.Medicine;
 import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.ReminderRange;
 import com.example.medireminder.util.DBConnection;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Date;
+import java.sql.Statement;
 import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -18,9 +29,29 @@ import java.util.List;
  * Uses PreparedStatement to prevent SQL injection
  */
 public class ReminderDao {
+    /** Monthly-partitioned table holding reminders older than the archive horizon */
+    public static final String ARCHIVE_TABLE = "reminders_archive";
+
+    /**
+     * Callback for streamed history rows
+     * The same Reminder and Medicine instances are reused for every row,
+     * so copy any values that must outlive the call
+     */
+    public interface HistoryRowHandler {
+        void handle(Reminder reminder, Medicine medicine) throws IOException;
+    }
+
+    /**
+     * Callback for streamed notified-but-untaken doses
+     * escalationStage is the last escalation step already sent (0 = none)
+     */
+    public interface PendingDoseHandler {
+        void handle(int reminderId, Date reminderDate, Time reminderTime, int escalationStage);
+    }
 
     /**
      * Save a new reminder to the database
+     * The generated ID is written back into the Reminder object
      * @param reminder Reminder object to save
      * @return true if save was successful, false otherwise
      */
@@ -28,7 +59,7 @@ public class ReminderDao {
         String sql = "INSERT INTO reminders (user_id, medicine_id, reminder_date, reminder_time, taken) VALUES (?, ?, ?, ?, ?)";
         
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setInt(1, reminder.getUserId());
             stmt.setInt(2, reminder.getMedicineId());
@@ -37,6 +68,10 @@ public class ReminderDao {
             stmt.setBoolean(5, reminder.isTaken());
             
             int rowsAffected = stmt.executeUpdate();
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (keys.next()) {
+                reminder.setId(keys.getInt(1));
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -46,6 +81,47 @@ public class ReminderDao {
         }
     }
 
+    /**
+     * Save several reminders in one JDBC batch
+     * Generated IDs are written back into the Reminder objects
+     * @param reminders Reminders to save
+     * @return true if all reminders were saved, false otherwise
+     */
+    public boolean saveReminders(List<Reminder> reminders) {
+        if (reminders.isEmpty()) {
+            return true;
+        }
+        String sql = "INSERT INTO reminders (user_id, medicine_id, reminder_date, reminder_time, taken) VALUES (?, ?, ?, ?, ?)";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            for (Reminder reminder : reminders) {
+                stmt.setInt(1, reminder.getUserId());
+                stmt.setInt(2, reminder.getMedicineId());
+                stmt.setDate(3, reminder.getReminderDate());
+                stmt.setTime(4, reminder.getReminderTime());
+                stmt.setBoolean(5, reminder.isTaken());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            ResultSet keys = stmt.getGeneratedKeys();
+            for (Reminder reminder : reminders) {
+                if (!keys.next()) {
+                    return false;
+                }
+                reminder.setId(keys.getInt(1));
+            }
+            return true;
+            
+        } catch (SQLException e) {
+            System.err.println("Error saving reminders: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Find today's reminders for a specific user
      * Joins with medicines table to get medicine names
@@ -56,7 +132,7 @@ public class ReminderDao {
         List<Reminder> reminders = new ArrayList<>();
         String sql = "SELECT r.id, r.user_id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, m.name as medicine_name " +
                      "FROM reminders r " +
-                     "INNER JOIN medicines m ON r.medicine_id = m.id " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
                      "WHERE r.user_id = ? AND r.reminder_date = CURDATE() " +
                      "ORDER BY r.reminder_time";
         
@@ -89,23 +165,24 @@ public class ReminderDao {
 
     /**
      * Mark a reminder as taken
+     * Only flips a dose that is not taken yet, so of two concurrent calls
+     * exactly one sees the change
      * @param reminderId Reminder ID to mark as taken
-     * @return true if update was successful, false otherwise
+     * @return 1 if the dose was flipped, 0 if it was already taken (or is gone), -1 on database error
      */
-    public boolean markTaken(int reminderId) {
-        String sql = "UPDATE reminders SET taken = 1 WHERE id = ?";
+    public int markTaken(int reminderId) {
+        String sql = "UPDATE reminders SET taken = 1 WHERE id = ? AND taken = 0";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, reminderId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            return stmt.executeUpdate();
             
         } catch (SQLException e) {
             System.err.println("Error marking reminder as taken: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return -1;
         }
     }
 
@@ -115,17 +192,32 @@ public class ReminderDao {
      * @return List of Reminder objects
      */
     public List<Reminder> findByUserId(int userId) {
+        return findByUserId(userId, false);
+    }
+
+    /**
+     * Find all reminders for a specific user, optionally including archived ones
+     * @param userId User ID
+     * @param includeArchive true to union in reminders_archive
+     * @return List of Reminder objects, newest first
+     */
+    public List<Reminder> findByUserId(int userId, boolean includeArchive) {
         List<Reminder> reminders = new ArrayList<>();
-        String sql = "SELECT r.id, r.user_id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, m.name as medicine_name " +
+        String sql = historySql("SELECT r.id, r.user_id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, m.name as medicine_name " +
                      "FROM reminders r " +
-                     "INNER JOIN medicines m ON r.medicine_id = m.id " +
-                     "WHERE r.user_id = ? " +
-                     "ORDER BY r.reminder_date DESC, r.reminder_time DESC";
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE r.user_id = ? ",
+                     "ORDER BY r.reminder_date DESC, r.reminder_time DESC",
+                     "ORDER BY reminder_date DESC, reminder_time DESC",
+                     includeArchive);
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, userId);
+            if (includeArchive) {
+                stmt.setInt(2, userId);
+            }
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -149,6 +241,401 @@ public class ReminderDao {
         return reminders;
     }
 
+    /**
+     * Find a reminder by ID
+     * @param reminderId Reminder ID
+     * @return Reminder object if found, null otherwise
+     */
+    public Reminder findById(int reminderId) {
+        String sql = "SELECT r.id, r.user_id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified " +
+                     "FROM reminders r " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE r.id = ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, reminderId);
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                Reminder reminder = new Reminder();
+                reminder.setId(rs.getInt("id"));
+                reminder.setUserId(rs.getInt("user_id"));
+                reminder.setMedicineId(rs.getInt("medicine_id"));
+                reminder.setReminderDate(rs.getDate("reminder_date"));
+                reminder.setReminderTime(rs.getTime("reminder_time"));
+                reminder.setTaken(rs.getBoolean("taken"));
+                reminder.setNotified(rs.getBoolean("notified"));
+                return reminder;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error finding reminder by ID: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
+    /**
+     * Find a user's live reminders among the given IDs
+     * Reminders that were deleted, archived or belong to a deleted medicine are skipped
+     * @param userId User ID
+     * @param reminderIds Reminder IDs
+     * @return List of Reminder objects with medicine names, or null on database error
+     */
+    public List<Reminder> findByIds(int userId, List<Integer> reminderIds) {
+        List<Reminder> reminders = new ArrayList<>();
+        if (reminderIds.isEmpty()) {
+            return reminders;
+        }
+        
+        StringBuilder sql = new StringBuilder(
+                "SELECT r.id, r.user_id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, m.name " +
+                "FROM reminders r " +
+                "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                "WHERE r.user_id = ? AND r.id IN (");
+        for (int i = 0; i < reminderIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            stmt.setInt(1, userId);
+            for (int i = 0; i < reminderIds.size(); i++) {
+                stmt.setInt(i + 2, reminderIds.get(i));
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Reminder reminder = new Reminder();
+                    reminder.setId(rs.getInt(1));
+                    reminder.setUserId(rs.getInt(2));
+                    reminder.setMedicineId(rs.getInt(3));
+                    reminder.setReminderDate(rs.getDate(4));
+                    reminder.setReminderTime(rs.getTime(5));
+                    reminder.setTaken(rs.getBoolean(6));
+                    reminder.setNotified(rs.getBoolean(7));
+                    reminder.setMedicineName(rs.getString(8));
+                    reminders.add(reminder);
+                }
+            }
+            return reminders;
+            
+        } catch (SQLException e) {
+            System.err.println("Error finding reminders by ID: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Build the compact dose calendar for one user and month
+     * Reads only the columns the bitsets need, without creating Reminder objects
+     * @param userId User ID
+     * @param month Calendar month
+     * @return DoseCalendarMonth (empty if no doses), or null on database error
+     */
+    public DoseCalendarMonth loadDoseCalendarMonth(int userId, YearMonth month) {
+        return loadDoseCalendarMonth(userId, month, false);
+    }
+
+    /**
+     * Build the compact dose calendar, optionally including archived doses
+     * @param userId User ID
+     * @param month Calendar month
+     * @param includeArchive true to union in reminders_archive
+     * @return DoseCalendarMonth (empty if no doses), or null on database error
+     */
+    public DoseCalendarMonth loadDoseCalendarMonth(int userId, YearMonth month, boolean includeArchive) {
+        String sql = historySql("SELECT r.id, r.reminder_date, r.reminder_time, r.taken, r.notified FROM reminders r " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE r.user_id = ? AND r.reminder_date BETWEEN ? AND ? ",
+                     "ORDER BY r.reminder_date, r.reminder_time, r.id",
+                     "ORDER BY reminder_date, reminder_time, id",
+                     includeArchive);
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int parts = includeArchive ? 2 : 1;
+            for (int part = 0; part < parts; part++) {
+                stmt.setInt(part * 3 + 1, userId);
+                stmt.setDate(part * 3 + 2, Date.valueOf(month.atDay(1)));
+                stmt.setDate(part * 3 + 3, Date.valueOf(month.atEndOfMonth()));
+            }
+            ResultSet rs = stmt.executeQuery();
+            
+            byte[] dosesPerDay = new byte[month.lengthOfMonth()];
+            int[] reminderIds = new int[64];
+            BitSet taken = new BitSet();
+            BitSet notified = new BitSet();
+            int count = 0;
+            
+            while (rs.next()) {
+                int day = rs.getDate("reminder_date").toLocalDate().getDayOfMonth();
+                int perDay = dosesPerDay[day - 1] & 0xFF;
+                if (perDay == 0xFF) {
+                    continue; // More than 255 doses in a day is not a real schedule
+                }
+                dosesPerDay[day - 1] = (byte) (perDay + 1);
+                
+                if (count == reminderIds.length) {
+                    reminderIds = Arrays.copyOf(reminderIds, count * 2);
+                }
+                reminderIds[count] = rs.getInt("id");
+                taken.set(count, rs.getBoolean("taken"));
+                notified.set(count, rs.getBoolean("notified"));
+                count++;
+            }
+            
+            return new DoseCalendarMonth(month, dosesPerDay, Arrays.copyOf(reminderIds, count), taken, notified);
+            
+        } catch (SQLException e) {
+            System.err.println("Error loading dose calendar: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
+    /**
+     * Load one user's doses over a date range in columnar form
+     * One range scan of idx_reminders_user_schedule (user_id, reminder_date, reminder_time),
+     * which already returns the rows in schedule order
+     * @param userId User ID
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @param includeArchive true to union in reminders_archive
+     * @return ReminderRange (empty if no doses), or null on database error
+     */
+    public ReminderRange loadReminderRange(int userId, LocalDate from, LocalDate to, boolean includeArchive) {
+        String sql = historySql("SELECT r.id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, " +
+                     "m.name FROM reminders r " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE r.user_id = ? AND r.reminder_date BETWEEN ? AND ? ",
+                     "ORDER BY r.reminder_date, r.reminder_time, r.id",
+                     "ORDER BY reminder_date, reminder_time, id",
+                     includeArchive);
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int parts = includeArchive ? 2 : 1;
+            for (int part = 0; part < parts; part++) {
+                stmt.setInt(part * 3 + 1, userId);
+                stmt.setDate(part * 3 + 2, Date.valueOf(from));
+                stmt.setDate(part * 3 + 3, Date.valueOf(to));
+            }
+            
+            ReminderRange range = new ReminderRange(from, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    range.add(rs.getDate(3).toLocalDate(), rs.getInt(1), rs.getInt(2), rs.getString(7),
+                            rs.getTime(4).toLocalTime().toSecondOfDay() / 60,
+                            rs.getBoolean(5), rs.getBoolean(6));
+                }
+            }
+            return range;
+            
+        } catch (SQLException e) {
+            System.err.println("Error loading reminder range: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
+    /**
+     * Load one user's doses for one day into a DaySchedule
+     * Also checks whether any earlier day still has a dose waiting for notification
+     * @param userId User ID
+     * @param day Day to load
+     * @return DaySchedule (empty if no doses), or null on database error
+     */
+    public DaySchedule loadDaySchedule(int userId, LocalDate day) {
+        String pendingSql = "SELECT 1 FROM reminders r " +
+                            "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                            "WHERE r.user_id = ? AND r.taken = 0 AND r.notified = 0 AND r.reminder_date < ? LIMIT 1";
+        String daySql = "SELECT r.id, r.medicine_id, r.reminder_time, r.taken, r.notified, m.name as medicine_name " +
+                        "FROM reminders r " +
+                        "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                        "WHERE r.user_id = ? AND r.reminder_date = ? " +
+                        "ORDER BY r.reminder_time, r.id";
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            boolean priorDaysClear;
+            try (PreparedStatement stmt = conn.prepareStatement(pendingSql)) {
+                stmt.setInt(1, userId);
+                stmt.setDate(2, Date.valueOf(day));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    priorDaysClear = !rs.next();
+                }
+            }
+            
+            DaySchedule schedule = new DaySchedule(userId, day, priorDaysClear, 8);
+            try (PreparedStatement stmt = conn.prepareStatement(daySql)) {
+                stmt.setInt(1, userId);
+                stmt.setDate(2, Date.valueOf(day));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        schedule.add(rs.getInt("id"), rs.getInt("medicine_id"),
+                                rs.getTime("reminder_time").toLocalTime().toSecondOfDay() / 60,
+                                rs.getString("medicine_name"),
+                                rs.getBoolean("taken"), rs.getBoolean("notified"));
+                    }
+                }
+            }
+            return schedule;
+            
+        } catch (SQLException e) {
+            System.err.println("Error loading day schedule: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
+    /**
+     * Stream a user's full reminder history joined with medicine details
+     * Uses a forward-only MySQL streaming cursor (fetch size Integer.MIN_VALUE),
+     * so rows are read from the socket one at a time and memory stays flat
+     * regardless of history size
+     * @param userId User ID
+     * @param handler Called once per row, in date/time order
+     * @return true if all rows were streamed, false on database error
+     * @throws IOException if the handler fails to write a row
+     */
+    public boolean streamHistory(int userId, HistoryRowHandler handler) throws IOException {
+        return streamHistory(userId, false, handler);
+    }
+
+    /**
+     * Stream a user's full reminder history, optionally including archived rows
+     * @param userId User ID
+     * @param includeArchive true to union in reminders_archive
+     * @param handler Called once per row, in date/time order
+     * @return true if all rows were streamed, false on database error
+     * @throws IOException if the handler fails to write a row
+     */
+    public boolean streamHistory(int userId, boolean includeArchive, HistoryRowHandler handler) throws IOException {
+        String sql = historySql("SELECT r.id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, " +
+                     "m.name, m.dosage, m.notes " +
+                     "FROM reminders r " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE r.user_id = ? ",
+                     "ORDER BY r.reminder_date, r.reminder_time, r.id",
+                     "ORDER BY reminder_date, reminder_time, id",
+                     includeArchive);
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setInt(1, userId);
+            if (includeArchive) {
+                stmt.setInt(2, userId);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                readHistoryRows(rs, userId, handler);
+            }
+            return true;
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming reminder history: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Stream a user's doses from a day onwards, joined with medicine details
+     * Same streaming cursor and row layout as streamHistory, on a range of
+     * idx_reminders_user_schedule; never reads the archive
+     * @param userId User ID
+     * @param from First day to include
+     * @param handler Called once per row, in date/time order
+     * @return true if all rows were streamed, false on database error
+     * @throws IOException if the handler fails to write a row
+     */
+    public boolean streamSchedule(int userId, LocalDate from, HistoryRowHandler handler) throws IOException {
+        String sql = "SELECT r.id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, " +
+                     "m.name, m.dosage, m.notes " +
+                     "FROM reminders r " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE r.user_id = ? AND r.reminder_date >= ? " +
+                     "ORDER BY r.reminder_date, r.reminder_time, r.id";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(from));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                readHistoryRows(rs, userId, handler);
+            }
+            return true;
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming reminder schedule: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Hand each row (id, medicine_id, date, time, taken, notified, name, dosage, notes)
+     * to the handler, reusing one Reminder and one Medicine
+     */
+    private static void readHistoryRows(ResultSet rs, int userId, HistoryRowHandler handler)
+            throws SQLException, IOException {
+        Reminder reminder = new Reminder();
+        Medicine medicine = new Medicine();
+        reminder.setUserId(userId);
+        medicine.setUserId(userId);
+        
+        while (rs.next()) {
+            reminder.setId(rs.getInt(1));
+            reminder.setMedicineId(rs.getInt(2));
+            reminder.setReminderDate(rs.getDate(3));
+            reminder.setReminderTime(rs.getTime(4));
+            reminder.setTaken(rs.getBoolean(5));
+            reminder.setNotified(rs.getBoolean(6));
+            reminder.setMedicineName(rs.getString(7));
+            medicine.setId(reminder.getMedicineId());
+            medicine.setName(reminder.getMedicineName());
+            medicine.setDosage(rs.getString(8));
+            medicine.setNotes(rs.getString(9));
+            handler.handle(reminder, medicine);
+        }
+    }
+
+    /**
+     * Build a history query over the hot table, or over the hot table and the archive
+     * The archive half is the same query against reminders_archive, so its
+     * parameters repeat those of the first half.
+     * @param query SELECT ... FROM reminders r ... WHERE ..., without ORDER BY
+     * @param orderBy ORDER BY for the hot table alone (qualified columns)
+     * @param unionOrderBy ORDER BY for the union (result column names)
+     * @param includeArchive true to union in the archive
+     * @return SQL text
+     */
+    private static String historySql(String query, String orderBy, String unionOrderBy, boolean includeArchive) {
+        if (!includeArchive) {
+            return query + orderBy;
+        }
+        String archiveQuery = query.replace("FROM reminders r ", "FROM " + ARCHIVE_TABLE + " r ");
+        return "(" + query + ") UNION ALL (" + archiveQuery + ") " + unionOrderBy;
+    }
+
     /**
      * Delete a reminder by ID
      * @param reminderId Reminder ID to delete
@@ -171,6 +658,88 @@ public class ReminderDao {
         }
     }
 
+    /**
+     * Hard-delete the next chunk of a soft-deleted medicine's reminders
+     * Keyset-ordered on (medicine_id, id): each chunk starts after the last ID
+     * deleted, so it never rescans rows removed by earlier chunks. Each chunk
+     * is its own short autocommit statement.
+     * @param medicineId Medicine ID
+     * @param afterId Last reminder ID deleted so far (0 to start)
+     * @param limit Most rows to delete
+     * @return Last reminder ID deleted, 0 if none were left, or -1 on database error
+     */
+    public int purgeChunkByMedicine(int medicineId, int afterId, int limit) {
+        String boundSql = "SELECT MAX(id) FROM (" +
+                          "SELECT id FROM reminders WHERE medicine_id = ? AND id > ? ORDER BY id LIMIT ?) chunk";
+        String deleteSql = "DELETE FROM reminders WHERE medicine_id = ? AND id > ? AND id <= ?";
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            int lastId;
+            try (PreparedStatement stmt = conn.prepareStatement(boundSql)) {
+                stmt.setInt(1, medicineId);
+                stmt.setInt(2, afterId);
+                stmt.setInt(3, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    lastId = rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+            if (lastId == 0) {
+                return 0;
+            }
+            
+            try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+                stmt.setInt(1, medicineId);
+                stmt.setInt(2, afterId);
+                stmt.setInt(3, lastId);
+                stmt.executeUpdate();
+            }
+            return lastId;
+            
+        } catch (SQLException e) {
+            System.err.println("Error purging reminders: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Find when the user's next dose that still needs a notification is scheduled
+     * A single seek on idx_reminders_user_schedule (user_id, reminder_date, reminder_time)
+     * @param userId User ID
+     * @param from Earliest date/time to consider (inclusive)
+     * @return Date/time of that dose, null if there is none or on database error
+     */
+    public LocalDateTime findNextPendingReminderAt(int userId, LocalDateTime from) {
+        String sql = "SELECT r.reminder_date, r.reminder_time FROM reminders r " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                     "WHERE r.user_id = ? AND r.taken = 0 AND r.notified = 0 " +
+                     "AND (r.reminder_date > ? OR (r.reminder_date = ? AND r.reminder_time >= ?)) " +
+                     "ORDER BY r.reminder_date, r.reminder_time LIMIT 1";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            Date day = Date.valueOf(from.toLocalDate());
+            stmt.setInt(1, userId);
+            stmt.setDate(2, day);
+            stmt.setDate(3, day);
+            stmt.setTime(4, Time.valueOf(from.toLocalTime().withNano(0)));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return LocalDateTime.of(rs.getDate("reminder_date").toLocalDate(),
+                            rs.getTime("reminder_time").toLocalTime());
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error finding next reminder: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
     /**
      * NEW: Find due (overdue + current) reminders that haven't been notified yet
      * This method finds reminders where:
@@ -182,21 +751,32 @@ public class ReminderDao {
      * @return List of due Reminder objects with medicine names
      */
     public List<Reminder> findDueRemindersForUser(int userId) {
+        return findDueRemindersForUser(userId, 0);
+    }
+
+    /**
+     * Find due reminders, counting today's doses as due a little before their time
+     * @param userId User ID
+     * @param leadSeconds How many seconds early a dose counts as due
+     * @return List of due Reminder objects with medicine names
+     */
+    public List<Reminder> findDueRemindersForUser(int userId, int leadSeconds) {
         List<Reminder> reminders = new ArrayList<>();
         String sql = "SELECT r.id, r.user_id, r.medicine_id, r.reminder_date, r.reminder_time, r.taken, r.notified, m.name as medicine_name " +
                      "FROM reminders r " +
-                     "INNER JOIN medicines m ON r.medicine_id = m.id " +
+                     "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
                      "WHERE r.user_id = ? " +
                      "AND r.taken = 0 " +
                      "AND r.notified = 0 " +
                      "AND (r.reminder_date < CURDATE() OR " +
-                     "     (r.reminder_date = CURDATE() AND r.reminder_time <= CURTIME())) " +
+                     "     (r.reminder_date = CURDATE() AND r.reminder_time <= ADDTIME(CURTIME(), SEC_TO_TIME(?)))) " +
                      "ORDER BY r.reminder_date, r.reminder_time";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, userId);
+            stmt.setInt(2, leadSeconds);
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -220,6 +800,168 @@ public class ReminderDao {
         return reminders;
     }
 
+    /**
+     * Stream doses that were notified but not taken, scheduled on or after a day
+     * Used to rebuild the escalation queue at startup; a range on idx_reminders_date
+     * read with a streaming cursor, so memory stays flat however many rows match
+     * @param since First scheduled day to include
+     * @param handler Called once per dose
+     * @return true if all rows were streamed, false on database error
+     */
+    public boolean streamNotifiedUntaken(LocalDate since, PendingDoseHandler handler) {
+        String sql = "SELECT id, reminder_date, reminder_time, escalation_stage FROM reminders " +
+                     "WHERE reminder_date >= ? AND notified = 1 AND taken = 0";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setDate(1, Date.valueOf(since));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs.getInt(1), rs.getDate(2), rs.getTime(3), rs.getInt(4));
+                }
+            }
+            return true;
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming notified reminders: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Find the reminders among the given IDs that are still not taken
+     * @param reminderIds Reminder IDs to check
+     * @return Untaken Reminder objects with medicine names, or null on database error
+     */
+    public List<Reminder> findUntakenByIds(List<Integer> reminderIds) {
+        List<Reminder> reminders = new ArrayList<>();
+        if (reminderIds == null || reminderIds.isEmpty()) {
+            return reminders;
+        }
+        
+        StringBuilder sql = new StringBuilder(
+                "SELECT r.id, r.user_id, r.medicine_id, r.reminder_date, r.reminder_time, r.notified, m.name " +
+                "FROM reminders r " +
+                "INNER JOIN medicines m ON r.medicine_id = m.id AND m.deleted_at IS NULL " +
+                "WHERE r.taken = 0 AND r.id IN (");
+        for (int i = 0; i < reminderIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < reminderIds.size(); i++) {
+                stmt.setInt(i + 1, reminderIds.get(i));
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Reminder reminder = new Reminder();
+                    reminder.setId(rs.getInt(1));
+                    reminder.setUserId(rs.getInt(2));
+                    reminder.setMedicineId(rs.getInt(3));
+                    reminder.setReminderDate(rs.getDate(4));
+                    reminder.setReminderTime(rs.getTime(5));
+                    reminder.setNotified(rs.getBoolean(6));
+                    reminder.setMedicineName(rs.getString(7));
+                    reminders.add(reminder);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error finding untaken reminders: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+        
+        return reminders;
+    }
+
+    /**
+     * Claim reminders for notification
+     * Each dose is flipped by its own conditional UPDATE (sent as one batch),
+     * so when several nodes or requests race for a dose, exactly one of them
+     * sees it change. Doses already notified or taken are not claimed.
+     * @param reminderIds Reminder IDs to claim
+     * @return IDs that this call flipped (empty if none), or null on database error
+     */
+    public List<Integer> claimNotified(List<Integer> reminderIds) {
+        List<Integer> claimed = new ArrayList<>();
+        if (reminderIds == null || reminderIds.isEmpty()) {
+            return claimed;
+        }
+        String sql = "UPDATE reminders SET notified = 1 WHERE id = ? AND notified = 0 AND taken = 0";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            for (int reminderId : reminderIds) {
+                stmt.setInt(1, reminderId);
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 1) {
+                    claimed.add(reminderIds.get(i));
+                }
+            }
+            return claimed;
+            
+        } catch (SQLException e) {
+            System.err.println("Error claiming reminders: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Claim an escalation step for reminders
+     * Like claimNotified: each dose is raised to the stage by its own conditional
+     * UPDATE, so when every node has the dose queued, exactly one of them sends
+     * the step. Doses taken meanwhile, or already at or past the stage, are not claimed.
+     * @param reminderIds Reminder IDs due for the step
+     * @param stage Escalation stage to claim
+     * @return IDs that this call raised (empty if none), or null on database error
+     */
+    public List<Integer> claimEscalation(List<Integer> reminderIds, int stage) {
+        List<Integer> claimed = new ArrayList<>();
+        if (reminderIds == null || reminderIds.isEmpty()) {
+            return claimed;
+        }
+        String sql = "UPDATE reminders SET escalation_stage = ? " +
+                     "WHERE id = ? AND escalation_stage < ? AND taken = 0";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            for (int reminderId : reminderIds) {
+                stmt.setInt(1, stage);
+                stmt.setInt(2, reminderId);
+                stmt.setInt(3, stage);
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 1) {
+                    claimed.add(reminderIds.get(i));
+                }
+            }
+            return claimed;
+            
+        } catch (SQLException e) {
+            System.err.println("Error claiming escalation step: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * NEW: Mark reminders as notified
      * This prevents duplicate notifications
@@ -66,19 +66,19 @@ public class UserDao {
     }
 
     /**
-     * Find a user by username and password (for login)
+     * Find a user by username (for login)
+     * The password field holds the stored hash (or a legacy plaintext value);
+     * it is checked by PasswordHasher, not in SQL.
      * @param username Username
-     * @param password Password
      * @return User object if found, null otherwise
      */
-    public User findByUsernameAndPassword(String username, String password) {
-        String sql = "SELECT id, username, password FROM users WHERE username = ? AND password = ?";
+    public User findByUsername(String username) {
+        String sql = "SELECT id, username, password FROM users WHERE username = ?";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, username);
-            stmt.setString(2, password);
             
             ResultSet rs = stmt.executeQuery();
             
@@ -98,6 +98,34 @@ public class UserDao {
         return null;
     }
 
+    /**
+     * Replace a user's stored password (used to migrate to a new hash)
+     * Only updates if the stored value is still the one that was verified,
+     * so a concurrent change is not overwritten.
+     * @param userId User ID
+     * @param oldPassword Stored value that was verified
+     * @param newPassword New stored value
+     * @return true if the row was updated, false otherwise
+     */
+    public boolean updatePassword(int userId, String oldPassword, String newPassword) {
+        String sql = "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, newPassword);
+            stmt.setInt(2, userId);
+            stmt.setString(3, oldPassword);
+            
+            return stmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            System.err.println("Error updating password: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Find a user by ID
      * @param userId User ID
@@ -0,0 +1,111 @@
+package com.example.medireminder.dao;
+
+import com.example.medireminder.model.UserVersion;
+import com.example.medireminder.util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the user_versions table
+ * One row per user, bumped on every write to that user's data
+ * Uses PreparedStatement to prevent SQL injection
+ */
+public class UserVersionDao {
+
+    /**
+     * Bump a user's version, creating the row if needed
+     * @param userId User ID
+     * @param nodeId ID of the node making the change
+     * @return true if update was successful, false otherwise
+     */
+    public boolean bump(int userId, String nodeId) {
+        String sql = "INSERT INTO user_versions (user_id, version, updated_by, changed_at) " +
+                     "VALUES (?, 1, ?, NOW(3)) " +
+                     "ON DUPLICATE KEY UPDATE version = version + 1, " +
+                     "updated_by = VALUES(updated_by), changed_at = NOW(3)";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setString(2, nodeId);
+
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error bumping user version: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Read one page of changed rows, ordered by (changed_at, user_id)
+     * Pages are keyset-paged: pass the last row of the previous page, or the
+     * watermark and Integer.MIN_VALUE for the first page. Rows sharing a
+     * changed_at are never skipped at a page boundary.
+     * @param afterChangedAt changed_at of the last row already read
+     * @param afterUserId user_id of the last row already read
+     * @param limit Maximum number of rows
+     * @return Changed rows, or null on database error
+     */
+    public List<UserVersion> findChangedAfter(Timestamp afterChangedAt, int afterUserId, int limit) {
+        // idx_user_versions_changed carries the primary key, so this is one index range scan
+        String sql = "SELECT user_id, version, updated_by, changed_at, " +
+                     "TIMESTAMPDIFF(MICROSECOND, changed_at, NOW(3)) DIV 1000 AS age_millis " +
+                     "FROM user_versions " +
+                     "WHERE changed_at >= ? AND (changed_at > ? OR user_id > ?) " +
+                     "ORDER BY changed_at, user_id LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, afterChangedAt);
+            stmt.setTimestamp(2, afterChangedAt);
+            stmt.setInt(3, afterUserId);
+            stmt.setInt(4, limit);
+
+            List<UserVersion> changes = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(new UserVersion(
+                            rs.getInt("user_id"),
+                            rs.getLong("version"),
+                            rs.getString("updated_by"),
+                            rs.getTimestamp("changed_at"),
+                            rs.getLong("age_millis")));
+                }
+            }
+            return changes;
+
+        } catch (SQLException e) {
+            System.err.println("Error polling user versions: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Read the database clock, used as the starting watermark
+     * @return Current database time, or null on database error
+     */
+    public Timestamp currentTime() {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT NOW(3)");
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getTimestamp(1) : null;
+
+        } catch (SQLException e) {
+            System.err.println("Error reading database time: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
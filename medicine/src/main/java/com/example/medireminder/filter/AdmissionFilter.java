@@ -0,0 +1,268 @@
+package com.example.medireminder.filter;
+
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.Metrics;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of every API endpoint
+ *
+ * Two checks run before a request reaches its servlet:
+ * - Priority shedding: while requests are queueing for a DB slot (see AsyncDispatcher),
+ *   LOW requests are rejected, and NORMAL ones too once the queue is as long as
+ *   the number of slots. CRITICAL and HIGH requests are always admitted.
+ * - Per-user rate limit: each logged-in user has a token bucket refilled at
+ *   admission.ratePerSecond up to admission.burst requests. Mark-taken requests
+ *   may dig twice as deep, so a user who flooded the due check can still record doses.
+ *
+ * Rejected requests get 429 with Retry-After and never touch the database.
+ *
+ * A full bucket is the same as no bucket, so a background sweep drops full
+ * buckets every admission.sweepSeconds; the request path never scans. If
+ * admission.maxTrackedUsers users are active at once, new users are admitted
+ * unlimited until the next sweep makes room.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class AdmissionFilter implements Filter {
+
+    /**
+     * Request priority classes, most important first
+     */
+    enum Priority {
+        /** Recording a dose */
+        CRITICAL,
+        /** Due reminder polling */
+        HIGH,
+        /** Dashboard reads and edits */
+        NORMAL,
+        /** History, statistics, export, import, full sync, the ward view and date ranges */
+        LOW,
+        /** Static files, /metrics and /ready, never limited */
+        EXEMPT
+    }
+
+    private static final boolean ENABLED = AppConfig.getBoolean("admission.enabled", true);
+    private static final double RATE_PER_SECOND = Math.max(0.1,
+            AppConfig.getDouble("admission.ratePerSecond", 5));
+    private static final int BURST = Math.max(1, AppConfig.getInt("admission.burst", 20));
+    private static final int MAX_TRACKED_USERS = AppConfig.getInt("admission.maxTrackedUsers", 100000);
+    private static final long SWEEP_SECONDS = Math.max(1, AppConfig.getLong("admission.sweepSeconds", 60));
+
+    /** Time for one token to refill */
+    private static final long INTERVAL_NANOS = (long) (TimeUnit.SECONDS.toNanos(1) / RATE_PER_SECOND);
+
+    private static final Map<Integer, TokenBucket> BUCKETS = new ConcurrentHashMap<>();
+
+    static {
+        Metrics.gauge("admission.trackedUsers", BUCKETS::size);
+    }
+
+    private ScheduledExecutorService sweeper;
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        if (!ENABLED) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "admission-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(AdmissionFilter::sweep, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) resp;
+
+        Priority priority = classify(request);
+        if (!ENABLED || priority == Priority.EXEMPT) {
+            chain.doFilter(req, resp);
+            return;
+        }
+
+        // Shed before charging the bucket, so a shed request costs the user nothing
+        if (shouldShed(priority)) {
+            Metrics.increment("admission.shed." + priority.name().toLowerCase());
+            reject(response, 1, "Server is busy, please try again");
+            return;
+        }
+
+        Integer userId = sessionUserId(request);
+        TokenBucket bucket = userId == null ? null : bucketFor(userId);
+        if (bucket != null) {
+            long waitNanos = bucket.tryAcquire(System.nanoTime(),
+                    priority == Priority.CRITICAL ? 2 * BURST : BURST);
+            if (waitNanos > 0) {
+                Metrics.increment("admission.rateLimited");
+                reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)),
+                        "Too many requests, please slow down");
+                return;
+            }
+        }
+
+        chain.doFilter(req, resp);
+    }
+
+    /**
+     * Map a request to its priority class by path
+     * Endpoints that can read a whole history are LOW: a first /sync (full
+     * snapshot, including archived reminders), /ward and GET /reminders with a
+     * from/to range. A /sync whose client fell past sync.retentionDays also gets
+     * a snapshot, but that is only known once the servlet looks, so it stays NORMAL.
+     */
+    static Priority classify(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path == null || path.isEmpty() || path.equals("/") || path.indexOf('.') >= 0
+                || path.equals("/metrics") || path.equals("/ready")) {
+            return Priority.EXEMPT;
+        }
+        switch (path) {
+            case "/reminders/markTaken":
+                return Priority.CRITICAL;
+            case "/reminders/due":
+                return Priority.HIGH;
+            case "/export":
+            case "/import":
+            case "/adherence":
+            case "/reminders/calendar":
+            case "/calendar/feed":
+            case "/ward":
+                return Priority.LOW;
+            case "/sync":
+                return isFullSync(request) ? Priority.LOW : Priority.NORMAL;
+            case "/reminders":
+                return isRangeRead(request) ? Priority.LOW : Priority.NORMAL;
+            default:
+                return Priority.NORMAL;
+        }
+    }
+
+    private static boolean isFullSync(HttpServletRequest request) {
+        String since = request.getParameter("since");
+        return since == null || since.trim().isEmpty() || since.trim().equals("0");
+    }
+
+    private static boolean isRangeRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && (request.getParameter("from") != null || request.getParameter("to") != null);
+    }
+
+    private static boolean shouldShed(Priority priority) {
+        int queued = AsyncDispatcher.queuedRequests();
+        if (queued == 0 && AsyncDispatcher.availablePermits() > 0) {
+            return false;
+        }
+        switch (priority) {
+            case LOW:
+                return true;
+            case NORMAL:
+                return queued >= AsyncDispatcher.maxConcurrentRequests();
+            default:
+                return false;
+        }
+    }
+
+    private static Integer sessionUserId(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session == null ? null : (Integer) session.getAttribute("userId");
+    }
+
+    /**
+     * @return The user's bucket, or null if the table is full (admit without limiting)
+     */
+    private static TokenBucket bucketFor(int userId) {
+        TokenBucket bucket = BUCKETS.get(userId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (BUCKETS.size() >= MAX_TRACKED_USERS) {
+            Metrics.increment("admission.untracked");
+            return null;
+        }
+        return BUCKETS.computeIfAbsent(userId, id -> new TokenBucket());
+    }
+
+    /**
+     * Drop buckets that have refilled; runs on the sweeper thread only
+     */
+    private static void sweep() {
+        long now = System.nanoTime();
+        int before = BUCKETS.size();
+        BUCKETS.values().removeIf(b -> b.isFull(now));
+        Metrics.add("admission.swept", before - BUCKETS.size());
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+        out.print("{\"success\":false,\"message\":\"" + message + "\"}");
+        out.flush();
+    }
+
+    /**
+     * Lock-free token bucket kept as a single "theoretical arrival time"
+     * (the generic cell rate algorithm). The bucket is empty when that time is
+     * burst intervals ahead of now, and full when it is in the past.
+     */
+    static final class TokenBucket {
+        private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+        /**
+         * Take one token
+         * @param now Current System.nanoTime()
+         * @param burst Bucket depth allowed for this request
+         * @return 0 if admitted, otherwise nanoseconds until a token is available
+         */
+        long tryAcquire(long now, int burst) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long next = Math.max(tat, now) + INTERVAL_NANOS;
+                long overdraft = next - now - burst * INTERVAL_NANOS;
+                if (overdraft > 0) {
+                    return overdraft;
+                }
+                if (theoreticalArrival.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return theoreticalArrival.get() - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.medireminder.listener;
+
+import com.example.medireminder.service.AdherenceService;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.JobLock;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nightly reconciliation of the adherence rollup
+ *
+ * The rollup is kept up to date incrementally by ReminderService; this job
+ * rebuilds the last few days from the reminders table once a night to repair
+ * any drift (failed updates, concurrent writes, manual DB edits).
+ * Every node schedules it; the JobLock lets only one of them run it.
+ */
+@WebListener
+public class AdherenceReconciliationListener implements ServletContextListener {
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        int hour = AppConfig.getInt("adherence.reconcileHour", 2);
+        int days = AppConfig.getInt("adherence.reconcileDays", 7);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "adherence-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleAtFixedRate(() -> reconcile(days),
+                millisUntilNext(hour), TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void reconcile(int days) {
+        try (JobLock lock = JobLock.tryAcquire("adherence-reconciliation")) {
+            if (lock == null) {
+                // Another node is reconciling
+                return;
+            }
+            long start = System.currentTimeMillis();
+            int rows = new AdherenceService().reconcileRecentDays(days);
+            System.out.println("Adherence rollup reconciled: " + rows + " rows in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            // Keep the schedule alive for the next night
+            System.err.println("Adherence reconciliation failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static long millisUntilNext(int hour) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(hour, 0);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        return Duration.between(now, next).toMillis();
+    }
+}
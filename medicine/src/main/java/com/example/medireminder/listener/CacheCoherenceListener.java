@@ -0,0 +1,58 @@
+package com.example.medireminder.listener;
+
+import com.example.medireminder.service.CacheCoherenceService;
+import com.example.medireminder.util.AppConfig;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls user_versions so this node's caches converge with writes made on other nodes
+ *
+ * Runs every coherence.pollMillis (default one second), which bounds how long
+ * a cache entry can stay stale after a write elsewhere. Poll cost and
+ * convergence time are reported under "coherence.*" in GET /metrics.
+ */
+@WebListener
+public class CacheCoherenceListener implements ServletContextListener {
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        if (!CacheCoherenceService.ENABLED) {
+            return;
+        }
+        long pollMillis = AppConfig.getLong("coherence.pollMillis", 1000);
+        CacheCoherenceService coherenceService = new CacheCoherenceService();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-coherence");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(() -> poll(coherenceService),
+                pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void poll(CacheCoherenceService coherenceService) {
+        try {
+            coherenceService.poll();
+        } catch (Exception e) {
+            // Keep the schedule alive for the next poll
+            System.err.println("Cache coherence poll failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.medireminder.listener;
+
+import com.example.medireminder.service.EscalationService;
+import com.example.medireminder.util.AppConfig;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds the missed-dose escalation queue at startup, then fires due steps
+ *
+ * Runs every escalation.tickMillis (default one second); each run only looks
+ * at the in-memory queue and reads the database for steps that are due.
+ */
+@WebListener
+public class EscalationListener implements ServletContextListener {
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        if (!EscalationService.ENABLED) {
+            return;
+        }
+        long tickMillis = AppConfig.getLong("escalation.tickMillis", 1000);
+        EscalationService escalationService = new EscalationService();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "escalation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Same thread as the ticks, so no step fires before the queue is loaded
+        scheduler.execute(() -> run(escalationService::rebuild));
+        scheduler.scheduleWithFixedDelay(() -> run(escalationService::fireDue),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            // Keep the schedule alive for the next tick
+            System.err.println("Escalation run failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.medireminder.listener;
+
+import com.example.medireminder.service.MedicinePurgeService;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.JobLock;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the soft-deleted medicine purge in the background
+ *
+ * One run every purge.intervalMillis (default ten seconds); each run is
+ * bounded by purge.maxChunksPerRun, so the purge trickles through large
+ * histories instead of deleting them in one transaction. Only the node
+ * holding the JobLock purges; the others skip the run.
+ */
+@WebListener
+public class MedicinePurgeListener implements ServletContextListener {
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        if (!AppConfig.getBoolean("purge.enabled", true)) {
+            return;
+        }
+        long intervalMillis = AppConfig.getLong("purge.intervalMillis", 10000);
+        MedicinePurgeService purgeService = new MedicinePurgeService();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "medicine-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(() -> purge(purgeService),
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void purge(MedicinePurgeService purgeService) {
+        try (JobLock lock = JobLock.tryAcquire("medicine-purge")) {
+            if (lock == null) {
+                // Another node is purging
+                return;
+            }
+            purgeService.runOnce();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Keep the schedule alive for the next run
+            System.err.println("Medicine purge failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
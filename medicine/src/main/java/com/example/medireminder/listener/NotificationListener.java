@@ -0,0 +1,25 @@
+package com.example.medireminder.listener;
+
+import com.example.medireminder.notification.NotificationPipeline;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Starts and stops the server-side notification pipeline with the application
+ * The pipeline stays off unless notify.channels names at least one channel.
+ */
+@WebListener
+public class NotificationListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        NotificationPipeline.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        NotificationPipeline.stop();
+    }
+}
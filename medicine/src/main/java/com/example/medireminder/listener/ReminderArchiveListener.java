@@ -0,0 +1,66 @@
+package com.example.medireminder.listener;
+
+import com.example.medireminder.service.ReminderArchiveService;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.JobLock;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the reminder history archival in the background
+ *
+ * One run every archive.intervalMillis (default one hour); each run is
+ * bounded by archive.maxBatchesPerRun, so a large backlog is moved over
+ * several runs instead of in one long transaction. Only the node holding
+ * the JobLock archives; the others skip the run.
+ */
+@WebListener
+public class ReminderArchiveListener implements ServletContextListener {
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        if (!ReminderArchiveService.ENABLED) {
+            return;
+        }
+        long intervalMillis = AppConfig.getLong("archive.intervalMillis", 3600000);
+        ReminderArchiveService archiveService = new ReminderArchiveService();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reminder-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(() -> archive(archiveService),
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void archive(ReminderArchiveService archiveService) {
+        try (JobLock lock = JobLock.tryAcquire("reminder-archive")) {
+            if (lock == null) {
+                // Another node is archiving
+                return;
+            }
+            archiveService.runOnce();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Keep the schedule alive for the next run
+            System.err.println("Reminder archive run failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.medireminder.listener;
+
+import com.example.medireminder.service.SyncService;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.JobLock;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacts the delta sync change log in the background
+ *
+ * One run every sync.compactIntervalMinutes (default an hour); each run
+ * handles at most sync.compactUsersPerRun users, deleting in chunks.
+ * Only the node holding the JobLock compacts; the others skip the run.
+ */
+@WebListener
+public class SyncCompactionListener implements ServletContextListener {
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        if (!AppConfig.getBoolean("sync.compactEnabled", true)) {
+            return;
+        }
+        long intervalMinutes = Math.max(1, AppConfig.getLong("sync.compactIntervalMinutes", 60));
+        SyncService syncService = new SyncService();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sync-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(() -> compact(syncService),
+                intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void compact(SyncService syncService) {
+        try (JobLock lock = JobLock.tryAcquire("sync-compaction")) {
+            if (lock == null) {
+                // Another node is compacting
+                return;
+            }
+            syncService.compactOnce();
+        } catch (Exception e) {
+            // Keep the schedule alive for the next run
+            System.err.println("Sync compaction failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
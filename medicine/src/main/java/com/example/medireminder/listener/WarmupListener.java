@@ -0,0 +1,49 @@
+package com.example.medireminder.listener;
+
+import com.example.medireminder.service.WarmupService;
+import com.example.medireminder.util.Readiness;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Warms the node up in the background and then marks it ready
+ *
+ * Runs on its own thread so the container can already answer GET /ready
+ * (with 503) while connections are opened and code paths are compiled.
+ * A failed step is logged and the node is marked ready anyway: it still
+ * works, only its first requests are slower.
+ */
+@WebListener
+public class WarmupListener implements ServletContextListener {
+    private Thread warmupThread;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        warmupThread = new Thread(this::warmUp, "warmup");
+        warmupThread.setDaemon(true);
+        warmupThread.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (warmupThread != null) {
+            warmupThread.interrupt();
+        }
+    }
+
+    private void warmUp() {
+        try {
+            if (!new WarmupService().warmUp()) {
+                System.err.println("Warm-up incomplete; marking ready anyway");
+            }
+        } catch (Exception e) {
+            System.err.println("Warm-up failed: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            Readiness.markReady();
+            System.out.println("Node ready");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.medireminder.model;
+
+import java.sql.Date;
+
+/**
+ * AdherenceRecord POJO (Plain Old Java Object)
+ * One row of the adherence_daily rollup: dose counts for a user's medicine on one day
+ */
+public class AdherenceRecord {
+    private int userId;
+    private int medicineId;
+    private Date day;
+    private int scheduled;
+    private int taken;
+
+    // Constructors
+    public AdherenceRecord() {
+    }
+
+    public AdherenceRecord(int userId, int medicineId, Date day, int scheduled, int taken) {
+        this.userId = userId;
+        this.medicineId = medicineId;
+        this.day = day;
+        this.scheduled = scheduled;
+        this.taken = taken;
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(int medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public Date getDay() {
+        return day;
+    }
+
+    public void setDay(Date day) {
+        this.day = day;
+    }
+
+    public int getScheduled() {
+        return scheduled;
+    }
+
+    public void setScheduled(int scheduled) {
+        this.scheduled = scheduled;
+    }
+
+    public int getTaken() {
+        return taken;
+    }
+
+    public void setTaken(int taken) {
+        this.taken = taken;
+    }
+
+    @Override
+    public String toString() {
+        return "AdherenceRecord{" +
+                "userId=" + userId +
+                ", medicineId=" + medicineId +
+                ", day=" + day +
+                ", scheduled=" + scheduled +
+                ", taken=" + taken +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.medireminder.model;
+
+import java.sql.Timestamp;
+
+/**
+ * A user's iCalendar feed, as resolved from its token
+ * version and changedAt come from user_versions (0 and null if the user never changed anything)
+ */
+public class CalendarFeed {
+    private final int userId;
+    private final long version;
+    private final Timestamp changedAt;
+
+    public CalendarFeed(int userId, long version, Timestamp changedAt) {
+        this.userId = userId;
+        this.version = version;
+        this.changedAt = changedAt;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return The user's data version; the feed only changes when it does (or the day rolls over)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Timestamp getChangedAt() {
+        return changedAt;
+    }
+}
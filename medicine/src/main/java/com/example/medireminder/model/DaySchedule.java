@@ -0,0 +1,264 @@
+package com.example.medireminder.model;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One user's doses for one day, stored column by column
+ *
+ * Doses are kept sorted by time (then reminder ID) in parallel arrays:
+ * - minute of day as short
+ * - reminder ID and medicine ID as int
+ * - medicine name, interned so all days share one String per name
+ * - taken/notified as bit flags in one byte
+ *
+ * priorDaysClear records that the user has no untaken, un-notified dose on an
+ * earlier day, so the due check can be answered from this day alone.
+ */
+public class DaySchedule {
+    private static final byte TAKEN = 1;
+    private static final byte NOTIFIED = 2;
+
+    private final int userId;
+    private final LocalDate day;
+    private final Date sqlDay;
+
+    private short[] minutes;
+    private int[] reminderIds;
+    private int[] medicineIds;
+    private String[] medicineNames;
+    private byte[] flags;
+    private int count;
+    private boolean priorDaysClear;
+
+    public DaySchedule(int userId, LocalDate day, boolean priorDaysClear, int capacity) {
+        this.userId = userId;
+        this.day = day;
+        this.sqlDay = Date.valueOf(day);
+        this.priorDaysClear = priorDaysClear;
+        int size = Math.max(capacity, 4);
+        this.minutes = new short[size];
+        this.reminderIds = new int[size];
+        this.medicineIds = new int[size];
+        this.medicineNames = new String[size];
+        this.flags = new byte[size];
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public synchronized int getDoseCount() {
+        return count;
+    }
+
+    public synchronized boolean isPriorDaysClear() {
+        return priorDaysClear;
+    }
+
+    public synchronized void setPriorDaysClear(boolean priorDaysClear) {
+        this.priorDaysClear = priorDaysClear;
+    }
+
+    /**
+     * Insert a dose in time order
+     * A dose that is already present is left alone: a schedule loaded just
+     * after the INSERT committed already holds the row that onAdded reports.
+     * @param reminderId Reminder ID
+     * @param medicineId Medicine ID
+     * @param minute Minute of day (0-1439)
+     * @param medicineName Medicine name, or null if not known
+     * @param taken Whether the dose is taken
+     * @param notified Whether the user was notified
+     */
+    public synchronized void add(int reminderId, int medicineId, int minute, String medicineName,
+                                 boolean taken, boolean notified) {
+        if (indexOf(reminderId) >= 0) {
+            return;
+        }
+        if (count == reminderIds.length) {
+            int size = count * 2;
+            minutes = Arrays.copyOf(minutes, size);
+            reminderIds = Arrays.copyOf(reminderIds, size);
+            medicineIds = Arrays.copyOf(medicineIds, size);
+            medicineNames = Arrays.copyOf(medicineNames, size);
+            flags = Arrays.copyOf(flags, size);
+        }
+
+        // Rows usually arrive in order, so this scan from the end is short
+        int index = count;
+        while (index > 0 && (minutes[index - 1] > minute
+                || (minutes[index - 1] == minute && reminderIds[index - 1] > reminderId))) {
+            index--;
+        }
+        shift(index, index + 1, count - index);
+
+        minutes[index] = (short) minute;
+        reminderIds[index] = reminderId;
+        medicineIds[index] = medicineId;
+        medicineNames[index] = medicineName == null ? null : medicineName.intern();
+        flags[index] = (byte) ((taken ? TAKEN : 0) | (notified ? NOTIFIED : 0));
+        count++;
+    }
+
+    /**
+     * Find the name of a medicine that already has a dose on this day
+     * @param medicineId Medicine ID
+     * @return Medicine name, or null if the medicine has no dose today
+     */
+    public synchronized String findMedicineName(int medicineId) {
+        for (int i = 0; i < count; i++) {
+            if (medicineIds[i] == medicineId && medicineNames[i] != null) {
+                return medicineNames[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove a dose
+     * @param reminderId Reminder ID
+     * @return true if the dose was found
+     */
+    public synchronized boolean remove(int reminderId) {
+        int index = indexOf(reminderId);
+        if (index < 0) {
+            return false;
+        }
+        shift(index + 1, index, count - index - 1);
+        count--;
+        medicineNames[count] = null;
+        return true;
+    }
+
+    /**
+     * Set the taken flag for a dose
+     * @param reminderId Reminder ID
+     * @return true if the dose was found
+     */
+    public synchronized boolean markTaken(int reminderId) {
+        int index = indexOf(reminderId);
+        if (index < 0) {
+            return false;
+        }
+        flags[index] |= TAKEN;
+        return true;
+    }
+
+    /**
+     * Set the notified flag for a dose
+     * @param reminderId Reminder ID
+     * @return true if the dose was found
+     */
+    public synchronized boolean markNotified(int reminderId) {
+        int index = indexOf(reminderId);
+        if (index < 0) {
+            return false;
+        }
+        flags[index] |= NOTIFIED;
+        return true;
+    }
+
+    /**
+     * Clear the notified flag for a dose (undo a claim the database did not confirm)
+     * @param reminderId Reminder ID
+     * @return true if the dose was found
+     */
+    public synchronized boolean clearNotified(int reminderId) {
+        int index = indexOf(reminderId);
+        if (index < 0) {
+            return false;
+        }
+        flags[index] &= ~NOTIFIED;
+        return true;
+    }
+
+    /**
+     * Claim every dose scheduled at or before a second of the day
+     * Sets the notified flag on the claimed doses, so this copy of the schedule
+     * hands each dose out once; other nodes have their own copy, so the caller
+     * must confirm the claim in the database.
+     * Does not allocate when nothing is due.
+     * @param dueBySecond Second of day; doses scheduled up to it are claimed
+     * @return Claimed doses as Reminder objects (empty if nothing is due)
+     */
+    public synchronized List<Reminder> claimDue(int dueBySecond) {
+        List<Reminder> claimed = null;
+        for (int i = 0; i < count && minutes[i] * 60 <= dueBySecond; i++) {
+            if ((flags[i] & (TAKEN | NOTIFIED)) == 0) {
+                flags[i] |= NOTIFIED;
+                if (claimed == null) {
+                    claimed = new ArrayList<>();
+                }
+                claimed.add(toReminder(i));
+            }
+        }
+        return claimed == null ? Collections.emptyList() : claimed;
+    }
+
+    /**
+     * Find the first dose still waiting for notification after a second of the day
+     * @param afterSecond Second of day
+     * @return Minute of day of that dose, or -1 if there is none
+     */
+    public synchronized int nextPendingMinute(int afterSecond) {
+        for (int i = 0; i < count; i++) {
+            if (minutes[i] * 60 > afterSecond && (flags[i] & (TAKEN | NOTIFIED)) == 0) {
+                return minutes[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copy the day out as Reminder objects, in time order
+     * @return List of Reminder objects with medicine names populated
+     */
+    public synchronized List<Reminder> toReminders() {
+        List<Reminder> reminders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reminders.add(toReminder(i));
+        }
+        return reminders;
+    }
+
+    private Reminder toReminder(int index) {
+        Reminder reminder = new Reminder();
+        reminder.setId(reminderIds[index]);
+        reminder.setUserId(userId);
+        reminder.setMedicineId(medicineIds[index]);
+        reminder.setReminderDate(sqlDay);
+        reminder.setReminderTime(Time.valueOf(LocalTime.of(minutes[index] / 60, minutes[index] % 60)));
+        reminder.setTaken((flags[index] & TAKEN) != 0);
+        reminder.setNotified((flags[index] & NOTIFIED) != 0);
+        reminder.setMedicineName(medicineNames[index]);
+        return reminder;
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(minutes, from, minutes, to, length);
+        System.arraycopy(reminderIds, from, reminderIds, to, length);
+        System.arraycopy(medicineIds, from, medicineIds, to, length);
+        System.arraycopy(medicineNames, from, medicineNames, to, length);
+        System.arraycopy(flags, from, flags, to, length);
+    }
+
+    private int indexOf(int reminderId) {
+        for (int i = 0; i < count; i++) {
+            if (reminderIds[i] == reminderId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.medireminder.model;
+
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact dose history for one user and one calendar month
+ *
+ * Doses are numbered in schedule order (by day, then time). The month is stored as:
+ * - doses per day, one unsigned byte per day (the "scheduled" state)
+ * - a bitset of taken doses
+ * - a bitset of notified doses
+ * - the reminder ID of each dose, so single doses can be updated in place
+ *
+ * A month with three doses a day is about 100 bytes on the wire.
+ */
+public class DoseCalendarMonth {
+    private final YearMonth month;
+    private final byte[] dosesPerDay;
+    private final int[] reminderIds;
+    private final BitSet taken;
+    private final BitSet notified;
+
+    public DoseCalendarMonth(YearMonth month, byte[] dosesPerDay, int[] reminderIds, BitSet taken, BitSet notified) {
+        this.month = month;
+        this.dosesPerDay = dosesPerDay;
+        this.reminderIds = reminderIds;
+        this.taken = taken;
+        this.notified = notified;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getDoseCount() {
+        return reminderIds.length;
+    }
+
+    /**
+     * Set the taken bit for a reminder if it belongs to this month
+     * @param reminderId Reminder ID
+     * @return true if the reminder was found
+     */
+    public synchronized boolean markTaken(int reminderId) {
+        int index = indexOf(reminderId);
+        if (index < 0) {
+            return false;
+        }
+        taken.set(index);
+        return true;
+    }
+
+    /**
+     * Set the notified bit for a reminder if it belongs to this month
+     * @param reminderId Reminder ID
+     * @return true if the reminder was found
+     */
+    public synchronized boolean markNotified(int reminderId) {
+        int index = indexOf(reminderId);
+        if (index < 0) {
+            return false;
+        }
+        notified.set(index);
+        return true;
+    }
+
+    /**
+     * Encode for the wire: byte arrays as base64 strings
+     * Bitsets are little-endian (bit i of the taken array is dose i)
+     * @return Map ready for JSON serialization
+     */
+    public synchronized Map<String, Object> toWireFormat() {
+        Base64.Encoder encoder = Base64.getEncoder();
+        Map<String, Object> wire = new LinkedHashMap<>();
+        wire.put("month", month.toString());
+        wire.put("doses", reminderIds.length);
+        wire.put("perDay", encoder.encodeToString(dosesPerDay));
+        wire.put("taken", encoder.encodeToString(taken.toByteArray()));
+        wire.put("notified", encoder.encodeToString(notified.toByteArray()));
+        return wire;
+    }
+
+    // Months hold at most a few hundred doses, a linear scan is cheap
+    private int indexOf(int reminderId) {
+        for (int i = 0; i < reminderIds.length; i++) {
+            if (reminderIds[i] == reminderId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "DoseCalendarMonth{" +
+                "month=" + month +
+                ", doses=" + reminderIds.length +
+                ", taken=" + taken.cardinality() +
+                ", notified=" + notified.cardinality() +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.medireminder.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ImportReport POJO (Plain Old Java Object)
+ * Outcome of a bulk CSV import: counters plus one entry per rejected row
+ * Only the first MAX_ERRORS row errors are kept so a bad file cannot exhaust memory
+ */
+public class ImportReport {
+    public static final int MAX_ERRORS = 1000;
+
+    private int rowsRead;
+    private int medicinesCreated;
+    private int remindersCreated;
+    private int rowsFailed;
+    private boolean errorsTruncated;
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+
+    /**
+     * Record a rejected row
+     * @param line Line number in the uploaded file
+     * @param message Reason the row was rejected
+     */
+    public synchronized void addError(long line, String message) {
+        rowsFailed++;
+        if (errors.size() >= MAX_ERRORS) {
+            errorsTruncated = true;
+            return;
+        }
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("line", line);
+        error.put("message", message);
+        errors.add(error);
+    }
+
+    public synchronized void incrementRowsRead() {
+        rowsRead++;
+    }
+
+    public synchronized void addMedicinesCreated(int count) {
+        medicinesCreated += count;
+    }
+
+    public synchronized void addRemindersCreated(int count) {
+        remindersCreated += count;
+    }
+
+    // Getters
+    public synchronized int getRowsRead() {
+        return rowsRead;
+    }
+
+    public synchronized int getMedicinesCreated() {
+        return medicinesCreated;
+    }
+
+    public synchronized int getRemindersCreated() {
+        return remindersCreated;
+    }
+
+    public synchronized int getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public synchronized boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public synchronized List<Map<String, Object>> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ImportReport{" +
+                "rowsRead=" + rowsRead +
+                ", medicinesCreated=" + medicinesCreated +
+                ", remindersCreated=" + remindersCreated +
+                ", rowsFailed=" + rowsFailed +
+                '}';
+    }
+}
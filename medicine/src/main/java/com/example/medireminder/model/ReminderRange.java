@@ -0,0 +1,216 @@
+package com.example.medireminder.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One user's doses over a date range, stored column by column
+ *
+ * Medicine names are dictionary-encoded: each medicine appears once in
+ * the dictionary and doses refer to it by index. Doses are kept in schedule
+ * order in flat parallel arrays, and each day with doses records where its
+ * doses end:
+ * - reminder ID as int
+ * - minute of day as short
+ * - medicine index as short
+ * - status bits in one byte (1 = taken, 2 = notified, as in DaySchedule)
+ *
+ * Doses must be added in date/time order (the DAO reads them sorted).
+ * A month with three doses a day is about 3.5 KB as JSON and 1.1 KB as protobuf.
+ */
+public class ReminderRange {
+    public static final int TAKEN = 1;
+    public static final int NOTIFIED = 2;
+
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private final List<Integer> medicineIds = new ArrayList<>();
+    private final List<String> medicineNames = new ArrayList<>();
+    private final Map<Integer, Integer> medicineIndex = new HashMap<>();
+
+    // Days that have doses, and the end (exclusive) of each day's doses
+    private long[] dayEpochs = new long[32];
+    private int[] dayEnds = new int[32];
+    private int dayCount;
+
+    private int[] reminderIds = new int[64];
+    private short[] minutes = new short[64];
+    private short[] medicines = new short[64];
+    private byte[] flags = new byte[64];
+    private int count;
+
+    public ReminderRange(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public int getDoseCount() {
+        return count;
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    /**
+     * Append a dose (must not be earlier than the last one added)
+     * @param day Scheduled day
+     * @param reminderId Reminder ID
+     * @param medicineId Medicine ID
+     * @param medicineName Medicine name
+     * @param minute Minute of day (0-1439)
+     * @param taken Whether the dose is taken
+     * @param notified Whether the user was notified
+     */
+    public void add(LocalDate day, int reminderId, int medicineId, String medicineName, int minute,
+                    boolean taken, boolean notified) {
+        long epochDay = day.toEpochDay();
+        if (dayCount == 0 || dayEpochs[dayCount - 1] != epochDay) {
+            if (dayCount == dayEpochs.length) {
+                dayEpochs = Arrays.copyOf(dayEpochs, dayCount * 2);
+                dayEnds = Arrays.copyOf(dayEnds, dayCount * 2);
+            }
+            dayEpochs[dayCount++] = epochDay;
+        }
+
+        if (count == reminderIds.length) {
+            int size = count * 2;
+            reminderIds = Arrays.copyOf(reminderIds, size);
+            minutes = Arrays.copyOf(minutes, size);
+            medicines = Arrays.copyOf(medicines, size);
+            flags = Arrays.copyOf(flags, size);
+        }
+
+        Integer index = medicineIndex.get(medicineId);
+        if (index == null) {
+            index = medicineIds.size();
+            medicineIndex.put(medicineId, index);
+            medicineIds.add(medicineId);
+            medicineNames.add(medicineName);
+        }
+
+        reminderIds[count] = reminderId;
+        minutes[count] = (short) minute;
+        medicines[count] = (short) (int) index;
+        flags[count] = (byte) ((taken ? TAKEN : 0) | (notified ? NOTIFIED : 0));
+        count++;
+        dayEnds[dayCount - 1] = count;
+    }
+
+    public List<Integer> getMedicineIds() {
+        return medicineIds;
+    }
+
+    public List<String> getMedicineNames() {
+        return medicineNames;
+    }
+
+    /**
+     * @param day Day index (0 .. getDayCount() - 1)
+     * @return The day's date
+     */
+    public LocalDate getDay(int day) {
+        return LocalDate.ofEpochDay(dayEpochs[day]);
+    }
+
+    /**
+     * @param day Day index
+     * @return Index of the day's first dose
+     */
+    public int getDayStart(int day) {
+        return day == 0 ? 0 : dayEnds[day - 1];
+    }
+
+    /**
+     * @param day Day index
+     * @return Index after the day's last dose
+     */
+    public int getDayEnd(int day) {
+        return dayEnds[day];
+    }
+
+    public int getReminderId(int dose) {
+        return reminderIds[dose];
+    }
+
+    public int getMinute(int dose) {
+        return minutes[dose];
+    }
+
+    public int getMedicineIndex(int dose) {
+        return medicines[dose];
+    }
+
+    public int getStatus(int dose) {
+        return flags[dose];
+    }
+
+    /**
+     * Encode for the wire: one object per day holding parallel arrays
+     * @return Map ready for JSON serialization
+     */
+    public Map<String, Object> toWireFormat() {
+        List<Map<String, Object>> medicineList = new ArrayList<>(medicineIds.size());
+        for (int i = 0; i < medicineIds.size(); i++) {
+            Map<String, Object> medicine = new LinkedHashMap<>();
+            medicine.put("id", medicineIds.get(i));
+            medicine.put("name", medicineNames.get(i));
+            medicineList.add(medicine);
+        }
+
+        List<Map<String, Object>> days = new ArrayList<>(dayCount);
+        for (int day = 0; day < dayCount; day++) {
+            int start = getDayStart(day);
+            int end = dayEnds[day];
+            int[] ids = Arrays.copyOfRange(reminderIds, start, end);
+            int[] dayMinutes = new int[end - start];
+            int[] dayMedicines = new int[end - start];
+            int[] status = new int[end - start];
+            for (int i = start; i < end; i++) {
+                dayMinutes[i - start] = minutes[i];
+                dayMedicines[i - start] = medicines[i];
+                status[i - start] = flags[i];
+            }
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("date", getDay(day).toString());
+            entry.put("ids", ids);
+            entry.put("minutes", dayMinutes);
+            entry.put("medicines", dayMedicines);
+            entry.put("status", status);
+            days.add(entry);
+        }
+
+        Map<String, Object> wire = new LinkedHashMap<>();
+        wire.put("from", from.toString());
+        wire.put("to", to.toString());
+        wire.put("medicines", medicineList);
+        wire.put("days", days);
+        return wire;
+    }
+
+    @Override
+    public String toString() {
+        return "ReminderRange{" +
+                "from=" + from +
+                ", to=" + to +
+                ", days=" + dayCount +
+                ", doses=" + count +
+                ", medicines=" + medicineIds.size() +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.medireminder.model;
+
+/**
+ * A row of the change_log table: the latest change to one medicine or reminder
+ * The log keeps one row per row changed, so repeated updates collapse into one
+ */
+public class SyncChange {
+    public static final String MEDICINE = "M";
+    public static final String REMINDER = "R";
+
+    private final String entity;
+    private final int entityId;
+    private final long seq;
+    private final boolean deleted;
+
+    public SyncChange(String entity, int entityId, long seq, boolean deleted) {
+        this.entity = entity;
+        this.entityId = entityId;
+        this.seq = seq;
+        this.deleted = deleted;
+    }
+
+    /**
+     * @return MEDICINE or REMINDER
+     */
+    public String getEntity() {
+        return entity;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * @return The user's sequence number of the change
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncChange{" +
+                "entity='" + entity + '\'' +
+                ", entityId=" + entityId +
+                ", seq=" + seq +
+                ", deleted=" + deleted +
+                '}';
+    }
+}
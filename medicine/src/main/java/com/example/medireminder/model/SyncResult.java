@@ -0,0 +1,81 @@
+package com.example.medireminder.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answer to one GET /sync call
+ *
+ * A full result holds every medicine and replaces the client's copy; its
+ * reminders are not held here but streamed (SyncService.streamReminders),
+ * since a long history does not fit comfortably in memory. A delta result holds only what changed after the client's sequence
+ * number. Either way the client stores seq and sends it next time. When more
+ * is set the delta was cut short and the client should call again at once.
+ */
+public class SyncResult {
+    private final boolean full;
+    private final long seq;
+    private final boolean more;
+    private final List<Medicine> medicines;
+    private final List<Reminder> reminders;
+    private final List<Integer> deletedMedicineIds = new ArrayList<>();
+    private final List<Integer> deletedReminderIds = new ArrayList<>();
+
+    public SyncResult(boolean full, long seq, boolean more, List<Medicine> medicines, List<Reminder> reminders) {
+        this.full = full;
+        this.seq = seq;
+        this.more = more;
+        this.medicines = medicines;
+        this.reminders = reminders;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public boolean isMore() {
+        return more;
+    }
+
+    /**
+     * @return Medicines added or changed (all medicines for a full result)
+     */
+    public List<Medicine> getMedicines() {
+        return medicines;
+    }
+
+    /**
+     * @return Reminders added or changed; null for a full result (stream them instead)
+     */
+    public List<Reminder> getReminders() {
+        return reminders;
+    }
+
+    /**
+     * @return Medicines deleted; their reminders are gone with them
+     */
+    public List<Integer> getDeletedMedicineIds() {
+        return deletedMedicineIds;
+    }
+
+    public List<Integer> getDeletedReminderIds() {
+        return deletedReminderIds;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncResult{" +
+                "full=" + full +
+                ", seq=" + seq +
+                ", more=" + more +
+                ", medicines=" + medicines.size() +
+                ", reminders=" + (reminders == null ? "streamed" : reminders.size()) +
+                ", deletedMedicines=" + deletedMedicineIds.size() +
+                ", deletedReminders=" + deletedReminderIds.size() +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.medireminder.model;
+
+/**
+ * A user's row of the sync_state table
+ * seq is the last sequence number handed out; changes up to floorSeq have
+ * been compacted away, so clients behind it need a full resync
+ */
+public class SyncState {
+    private final int userId;
+    private final long seq;
+    private final long floorSeq;
+
+    public SyncState(int userId, long seq, long floorSeq) {
+        this.userId = userId;
+        this.seq = seq;
+        this.floorSeq = floorSeq;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public long getFloorSeq() {
+        return floorSeq;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.medireminder.model;
+
+import java.sql.Timestamp;
+
+/**
+ * A row of the user_versions table as seen by the coherence poller
+ */
+public class UserVersion {
+    private final int userId;
+    private final long version;
+    private final String updatedBy;
+    private final Timestamp changedAt;
+    private final long ageMillis;
+
+    public UserVersion(int userId, long version, String updatedBy, Timestamp changedAt, long ageMillis) {
+        this.userId = userId;
+        this.version = version;
+        this.updatedBy = updatedBy;
+        this.changedAt = changedAt;
+        this.ageMillis = ageMillis;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return ID of the node that made the latest change
+     */
+    public String getUpdatedBy() {
+        return updatedBy;
+    }
+
+    public Timestamp getChangedAt() {
+        return changedAt;
+    }
+
+    /**
+     * @return Milliseconds between the change and the poll that read it (database clock)
+     */
+    public long getAgeMillis() {
+        return ageMillis;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.medireminder.notification;
+
+import java.util.Arrays;
+
+/**
+ * Compact delay queue of pending missed-dose escalations
+ *
+ * Entries live in parallel primitive arrays (a binary min-heap on due time)
+ * instead of one object per escalation, about 30 bytes per pending dose.
+ * Cancelling only removes the reminder ID from an open-addressing set, which
+ * is O(1); the heap entry stays behind and is skipped when it comes due.
+ *
+ * Reminder IDs must be positive (0 marks an empty set slot).
+ * All methods are synchronized.
+ */
+public class EscalationQueue {
+    private final int capacity;
+
+    // Min-heap on dueMillis
+    private long[] dueMillis = new long[1024];
+    private int[] heapIds = new int[1024];
+    private byte[] stages = new byte[1024];
+    private int heapSize;
+
+    // Reminder IDs still waiting (linear probing, kept at most half full)
+    private int[] pendingIds = new int[2048];
+    private int pendingCount;
+
+    /**
+     * @param capacity Most heap entries (pending plus cancelled-but-not-yet-due)
+     */
+    public EscalationQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Schedule an escalation step for a reminder
+     * Adding a step for a reminder that is already pending keeps both steps.
+     * @param reminderId Reminder ID (positive)
+     * @param due When the step fires (epoch millis)
+     * @param stage Escalation step, returned as-is by pollDue
+     * @return false if the queue is full
+     */
+    public synchronized boolean add(int reminderId, long due, byte stage) {
+        if (heapSize == capacity) {
+            return false;
+        }
+        if (heapSize == heapIds.length) {
+            int newLength = (int) Math.min((long) heapIds.length * 2, capacity);
+            dueMillis = Arrays.copyOf(dueMillis, newLength);
+            heapIds = Arrays.copyOf(heapIds, newLength);
+            stages = Arrays.copyOf(stages, newLength);
+        }
+
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (dueMillis[parent] <= due) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        dueMillis[i] = due;
+        heapIds[i] = reminderId;
+        stages[i] = stage;
+
+        addPending(reminderId);
+        return true;
+    }
+
+    /**
+     * Cancel every pending step of a reminder (e.g. the dose was taken)
+     * @param reminderId Reminder ID
+     * @return true if the reminder was pending
+     */
+    public synchronized boolean cancel(int reminderId) {
+        int slot = findSlot(reminderId);
+        if (pendingIds[slot] == 0) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Take the steps that are due, skipping cancelled ones
+     * A returned reminder is no longer pending; add its next step to keep it.
+     * @param now Current time (epoch millis)
+     * @param ids Filled with reminder IDs
+     * @param stagesOut Filled with the matching steps
+     * @return Number of entries filled (at most ids.length)
+     */
+    public synchronized int pollDue(long now, int[] ids, byte[] stagesOut) {
+        int count = 0;
+        while (count < ids.length && heapSize > 0 && dueMillis[0] <= now) {
+            int reminderId = heapIds[0];
+            byte stage = stages[0];
+            removeTop();
+
+            int slot = findSlot(reminderId);
+            if (pendingIds[slot] != 0) {
+                removeSlot(slot);
+                ids[count] = reminderId;
+                stagesOut[count] = stage;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Reminders still waiting for an escalation step
+     */
+    public synchronized int pendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return Heap entries, including cancelled ones not yet due
+     */
+    public synchronized int size() {
+        return heapSize;
+    }
+
+    /**
+     * Drop everything (used before a rebuild)
+     */
+    public synchronized void clear() {
+        heapSize = 0;
+        Arrays.fill(pendingIds, 0);
+        pendingCount = 0;
+    }
+
+    private void removeTop() {
+        int last = --heapSize;
+        if (last == 0) {
+            return;
+        }
+        long due = dueMillis[last];
+        int reminderId = heapIds[last];
+        byte stage = stages[last];
+
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < last && dueMillis[child + 1] < dueMillis[child]) {
+                child++;
+            }
+            if (due <= dueMillis[child]) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        dueMillis[i] = due;
+        heapIds[i] = reminderId;
+        stages[i] = stage;
+    }
+
+    private void move(int from, int to) {
+        dueMillis[to] = dueMillis[from];
+        heapIds[to] = heapIds[from];
+        stages[to] = stages[from];
+    }
+
+    private void addPending(int reminderId) {
+        int slot = findSlot(reminderId);
+        if (pendingIds[slot] != 0) {
+            return;
+        }
+        pendingIds[slot] = reminderId;
+        pendingCount++;
+
+        if (pendingCount * 2 > pendingIds.length) {
+            int[] old = pendingIds;
+            pendingIds = new int[old.length * 2];
+            for (int id : old) {
+                if (id != 0) {
+                    pendingIds[findSlot(id)] = id;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Slot holding the ID, or the empty slot where it would go
+     */
+    private int findSlot(int reminderId) {
+        int mask = pendingIds.length - 1;
+        int slot = ((reminderId * 0x9E3779B9) >>> 1) & mask;
+        while (pendingIds[slot] != 0 && pendingIds[slot] != reminderId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Remove a slot and shift later entries of the probe run back, so no tombstones are needed
+     */
+    private void removeSlot(int slot) {
+        int mask = pendingIds.length - 1;
+        pendingIds[slot] = 0;
+        pendingCount--;
+
+        int next = (slot + 1) & mask;
+        while (pendingIds[next] != 0) {
+            int id = pendingIds[next];
+            pendingIds[next] = 0;
+            pendingIds[findSlot(id)] = id;
+            next = (next + 1) & mask;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.medireminder.notification;
+
+import java.util.List;
+
+/**
+ * Local stand-in channel that prints each notification to standard output
+ * Channel name: "log"
+ */
+public class LogChannel implements NotificationChannel {
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return 100;
+    }
+
+    @Override
+    public void send(List<NotificationMessage> batch) {
+        for (NotificationMessage message : batch) {
+            System.out.println("Notification (" + message.getKind() + ") for user " + message.getUserId()
+                    + ": " + message.toText());
+        }
+    }
+}
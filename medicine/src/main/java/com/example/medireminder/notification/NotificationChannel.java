@@ -0,0 +1,33 @@
+package com.example.medireminder.notification;
+
+import java.util.List;
+
+/**
+ * A way of delivering notifications (webhook, log, ...)
+ *
+ * Implementations are called from the single pipeline thread, one batch at a
+ * time, so they do not need to be thread-safe. To add a channel (e.g. email or
+ * SMS through a provider API), implement this interface and register it in
+ * NotificationPipeline#createChannel.
+ */
+public interface NotificationChannel {
+
+    /**
+     * @return Channel name, used in the notify.channels setting and in metrics
+     */
+    String getName();
+
+    /**
+     * @return Largest number of messages to pass to one send call
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Deliver a batch of messages
+     * Either the whole batch is delivered or an exception is thrown, in which case
+     * every message in it is retried.
+     * @param batch Messages to deliver (at most getMaxBatchSize())
+     * @throws Exception if delivery failed
+     */
+    void send(List<NotificationMessage> batch) throws Exception;
+}
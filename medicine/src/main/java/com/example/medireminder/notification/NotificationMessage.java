@@ -0,0 +1,88 @@
+package com.example.medireminder.notification;
+
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.util.JsonSupport;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One notification for one user, covering every dose claimed for them in a flush
+ * The user is the recipient: the doses' owner, or for CAREGIVER messages a
+ * caregiver of the patient(s) the doses belong to (see Reminder.getUserId()).
+ */
+public class NotificationMessage {
+
+    /**
+     * Why the notification is sent
+     */
+    public enum Kind {
+        /** The dose is due */
+        DUE("Time to take: "),
+        /** The dose was notified but is still not taken */
+        REPEAT("Still not taken: "),
+        /** The dose stayed untaken past the escalation window; sent to a caregiver */
+        CAREGIVER("Missed dose: ");
+
+        private final String prefix;
+
+        Kind(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    private final int userId;
+    private final Kind kind;
+    private final List<Reminder> reminders;
+    private final long createdAtMillis;
+
+    public NotificationMessage(int userId, List<Reminder> reminders, long createdAtMillis) {
+        this(userId, Kind.DUE, reminders, createdAtMillis);
+    }
+
+    public NotificationMessage(int userId, Kind kind, List<Reminder> reminders, long createdAtMillis) {
+        this.userId = userId;
+        this.kind = kind;
+        this.reminders = Collections.unmodifiableList(reminders);
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<Reminder> getReminders() {
+        return reminders;
+    }
+
+    /**
+     * @return When the first dose in this message entered the pipeline
+     */
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Short human-readable text, e.g. "Time to take: Aspirin at 08:00, Vitamin D at 08:00"
+     * @return Message text
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder(kind.prefix);
+        for (int i = 0; i < reminders.size(); i++) {
+            Reminder reminder = reminders.get(i);
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(reminder.getMedicineName() == null ? "medicine #" + reminder.getMedicineId()
+                    : reminder.getMedicineName());
+            if (reminder.getReminderTime() != null) {
+                text.append(" at ").append(JsonSupport.formatTime(reminder.getReminderTime()));
+            }
+        }
+        return text.toString();
+    }
+}
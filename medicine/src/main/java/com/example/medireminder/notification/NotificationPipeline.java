@@ -0,0 +1,325 @@
+package com.example.medireminder.notification;
+
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side delivery of due reminder notifications
+ *
+ * Claimed doses are offered to a bounded queue (never blocking the request;
+ * overflow is dropped and counted). One background thread:
+ * 1. drains the queue every notify.flushMillis and groups the doses per
+ *    recipient (and kind) into one NotificationMessage
+ * 2. sends the messages to every configured channel in batches of the channel's size
+ * 3. puts failed messages in a DelayQueue and retries them with exponential
+ *    backoff, up to notify.maxAttempts per channel
+ *
+ * A due dose is only accepted once (by reminder ID), so repeated claims do not
+ * notify twice; a dose dropped on overflow is forgotten again so it can be
+ * accepted later. Metrics per channel, under "notify.<channel>.":
+ * sent, failed, gaveUp, sendMillis (one batch) and deliveryMillis (claim to delivery).
+ */
+public class NotificationPipeline {
+    private static final int QUEUE_CAPACITY = AppConfig.getInt("notify.queueCapacity", 10000);
+    private static final long FLUSH_MILLIS = AppConfig.getLong("notify.flushMillis", 500);
+    private static final int MAX_ATTEMPTS = Math.max(1, AppConfig.getInt("notify.maxAttempts", 5));
+    private static final long RETRY_BASE_MILLIS = AppConfig.getLong("notify.retryBaseMillis", 1000);
+    private static final long RETRY_MAX_MILLIS = AppConfig.getLong("notify.retryMaxMillis", 60000);
+    private static final int DEDUPE_SIZE = AppConfig.getInt("notify.dedupeSize", 100000);
+
+    private static final BlockingQueue<Claim> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final DelayQueue<Delivery> RETRIES = new DelayQueue<>();
+
+    // Reminder IDs already accepted, oldest evicted first
+    private static final Map<Integer, Boolean> SEEN = Collections.synchronizedMap(
+            new LinkedHashMap<Integer, Boolean>(1024, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+                    return size() > DEDUPE_SIZE;
+                }
+            });
+
+    private static volatile List<NotificationChannel> channels = Collections.emptyList();
+    private static Thread worker;
+
+    static {
+        Metrics.gauge("notify.queued", QUEUE::size);
+        Metrics.gauge("notify.retrying", RETRIES::size);
+    }
+
+    private NotificationPipeline() {
+    }
+
+    /**
+     * Start the pipeline with the channels named in notify.channels
+     * Does nothing if no channel is configured
+     */
+    public static synchronized void start() {
+        List<NotificationChannel> configured = new ArrayList<>();
+        for (String name : AppConfig.getString("notify.channels", "").split(",")) {
+            NotificationChannel channel = createChannel(name.trim());
+            if (channel != null) {
+                configured.add(channel);
+            }
+        }
+        if (configured.isEmpty() || worker != null) {
+            return;
+        }
+
+        channels = Collections.unmodifiableList(configured);
+        worker = new Thread(NotificationPipeline::run, "notification-pipeline");
+        worker.setDaemon(true);
+        worker.start();
+        System.out.println("Notification pipeline started with " + configured.size() + " channel(s)");
+    }
+
+    /**
+     * Stop the pipeline; queued and retrying notifications are discarded
+     */
+    public static synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+        channels = Collections.emptyList();
+    }
+
+    /**
+     * Submit claimed doses for delivery
+     * Never blocks: doses that do not fit in the queue are dropped and counted
+     * @param reminders Doses that were just claimed (need user ID and reminder ID)
+     */
+    public static void submit(List<Reminder> reminders) {
+        submit(reminders, NotificationMessage.Kind.DUE);
+    }
+
+    /**
+     * Submit doses for delivery with a given kind
+     * Only DUE notifications are de-duplicated; escalations repeat on purpose.
+     * @param reminders Doses to notify about (need user ID and reminder ID)
+     * @param kind Why they are notified
+     */
+    public static void submit(List<Reminder> reminders, NotificationMessage.Kind kind) {
+        submit(-1, reminders, kind);
+    }
+
+    /**
+     * Submit doses for delivery to someone other than their owner (e.g. a caregiver)
+     * @param recipientId User to notify, or -1 for each dose's own user
+     * @param reminders Doses to notify about (need user ID and reminder ID)
+     * @param kind Why they are notified
+     */
+    public static void submit(int recipientId, List<Reminder> reminders, NotificationMessage.Kind kind) {
+        if (channels.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Reminder reminder : reminders) {
+            boolean dedupe = kind == NotificationMessage.Kind.DUE;
+            if (dedupe && SEEN.putIfAbsent(reminder.getId(), Boolean.TRUE) != null) {
+                Metrics.increment("notify.duplicatesSuppressed");
+                continue;
+            }
+            int recipient = recipientId < 0 ? reminder.getUserId() : recipientId;
+            if (!QUEUE.offer(new Claim(recipient, reminder, kind, now))) {
+                Metrics.increment("notify.dropped");
+                if (dedupe) {
+                    // Not accepted after all, so a later claim of this dose may notify
+                    SEEN.remove(reminder.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if notify.channels names any channel (the pipeline will run)
+     */
+    public static boolean isConfigured() {
+        return !AppConfig.getString("notify.channels", "").trim().isEmpty();
+    }
+
+    private static NotificationChannel createChannel(String name) {
+        try {
+            switch (name) {
+                case "":
+                    return null;
+                case "log":
+                    return new LogChannel();
+                case "memory":
+                    return new RecordingChannel();
+                case "webhook":
+                    return new WebhookChannel();
+                default:
+                    System.err.println("Unknown notification channel: " + name);
+                    return null;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not create notification channel " + name + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void run() {
+        List<Claim> claims = new ArrayList<>();
+        List<Delivery> retries = new ArrayList<>();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Claim first = QUEUE.poll(FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    claims.add(first);
+                    QUEUE.drainTo(claims);
+                    List<NotificationMessage> messages = groupByUser(claims);
+                    claims.clear();
+                    for (NotificationChannel channel : channels) {
+                        List<Delivery> deliveries = new ArrayList<>(messages.size());
+                        for (NotificationMessage message : messages) {
+                            deliveries.add(new Delivery(channel, message, 1));
+                        }
+                        deliver(channel, deliveries);
+                    }
+                }
+
+                // Retries whose backoff has elapsed
+                RETRIES.drainTo(retries);
+                if (!retries.isEmpty()) {
+                    for (NotificationChannel channel : channels) {
+                        List<Delivery> forChannel = new ArrayList<>();
+                        for (Delivery delivery : retries) {
+                            if (delivery.channel == channel) {
+                                forChannel.add(delivery);
+                            }
+                        }
+                        deliver(channel, forChannel);
+                    }
+                    retries.clear();
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Keep the pipeline alive
+                System.err.println("Error in notification pipeline: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static List<NotificationMessage> groupByUser(List<Claim> claims) {
+        // One message per recipient and kind
+        Map<Long, List<Claim>> byUser = new LinkedHashMap<>();
+        for (Claim claim : claims) {
+            long key = ((long) claim.recipientId << 2) | claim.kind.ordinal();
+            byUser.computeIfAbsent(key, k -> new ArrayList<>()).add(claim);
+        }
+
+        List<NotificationMessage> messages = new ArrayList<>(byUser.size());
+        for (List<Claim> group : byUser.values()) {
+            Claim first = group.get(0);
+            List<Reminder> reminders = new ArrayList<>(group.size());
+            for (Claim claim : group) {
+                reminders.add(claim.reminder);
+            }
+            messages.add(new NotificationMessage(first.recipientId, first.kind, reminders,
+                    first.claimedAtMillis));
+        }
+        return messages;
+    }
+
+    private static void deliver(NotificationChannel channel, List<Delivery> deliveries) {
+        String prefix = "notify." + channel.getName() + ".";
+        int batchSize = Math.max(1, channel.getMaxBatchSize());
+
+        for (int from = 0; from < deliveries.size(); from += batchSize) {
+            List<Delivery> batch = deliveries.subList(from, Math.min(from + batchSize, deliveries.size()));
+            List<NotificationMessage> messages = new ArrayList<>(batch.size());
+            for (Delivery delivery : batch) {
+                messages.add(delivery.message);
+            }
+
+            long start = System.nanoTime();
+            try {
+                channel.send(messages);
+                Metrics.recordMillis(prefix + "sendMillis", (System.nanoTime() - start) / 1_000_000);
+                Metrics.add(prefix + "sent", messages.size());
+                long now = System.currentTimeMillis();
+                for (NotificationMessage message : messages) {
+                    Metrics.recordMillis(prefix + "deliveryMillis", now - message.getCreatedAtMillis());
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                Metrics.add(prefix + "failed", messages.size());
+                System.err.println("Notification channel " + channel.getName() + " failed: " + e.getMessage());
+                for (Delivery delivery : batch) {
+                    if (delivery.attempt >= MAX_ATTEMPTS) {
+                        Metrics.increment(prefix + "gaveUp");
+                    } else {
+                        RETRIES.add(new Delivery(channel, delivery.message, delivery.attempt + 1));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A dose waiting in the intake queue
+     */
+    private static final class Claim {
+        final int recipientId;
+        final Reminder reminder;
+        final NotificationMessage.Kind kind;
+        final long claimedAtMillis;
+
+        Claim(int recipientId, Reminder reminder, NotificationMessage.Kind kind, long claimedAtMillis) {
+            this.recipientId = recipientId;
+            this.reminder = reminder;
+            this.kind = kind;
+            this.claimedAtMillis = claimedAtMillis;
+        }
+    }
+
+    /**
+     * One message for one channel; as a retry it becomes available after its backoff
+     */
+    private static final class Delivery implements Delayed {
+        final NotificationChannel channel;
+        final NotificationMessage message;
+        final int attempt;
+        final long readyAtNanos;
+
+        Delivery(NotificationChannel channel, NotificationMessage message, int attempt) {
+            this.channel = channel;
+            this.message = message;
+            this.attempt = attempt;
+            // Attempt 2 waits the base delay, each later attempt twice as long
+            long backoff = attempt <= 1 ? 0
+                    : Math.min(RETRY_MAX_MILLIS, RETRY_BASE_MILLIS << Math.min(attempt - 2, 20));
+            this.readyAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.medireminder.notification;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Local stand-in channel that keeps the most recent notifications in memory
+ * Channel name: "memory". Useful to check what would have been sent without
+ * any external service.
+ */
+public class RecordingChannel implements NotificationChannel {
+    private static final int MAX_RECORDED = 1000;
+
+    private static final Deque<NotificationMessage> RECORDED = new ArrayDeque<>();
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return 100;
+    }
+
+    @Override
+    public void send(List<NotificationMessage> batch) {
+        synchronized (RECORDED) {
+            for (NotificationMessage message : batch) {
+                if (RECORDED.size() == MAX_RECORDED) {
+                    RECORDED.removeFirst();
+                }
+                RECORDED.addLast(message);
+            }
+        }
+    }
+
+    /**
+     * Get the recorded notifications, oldest first
+     * @return Copy of the recorded messages
+     */
+    public static List<NotificationMessage> getRecorded() {
+        synchronized (RECORDED) {
+            return new ArrayList<>(RECORDED);
+        }
+    }
+}
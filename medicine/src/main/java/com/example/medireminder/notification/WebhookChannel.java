@@ -0,0 +1,79 @@
+package com.example.medireminder.notification;
+
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.JsonSupport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Channel that POSTs each batch as JSON to a configured URL
+ * Channel name: "webhook". Settings: notify.webhook.url, notify.webhook.timeoutMillis,
+ * notify.webhook.batchSize
+ *
+ * Body: {"notifications": [{"userId": 1, "kind": "DUE", "text": "...", "reminders": [...]}, ...]}
+ * Any 2xx response counts as delivered; anything else is retried.
+ * userId is the recipient: the patient for DUE and REPEAT, a linked caregiver for CAREGIVER
+ * (each reminder still carries the patient's userId).
+ */
+public class WebhookChannel implements NotificationChannel {
+    private final URI url;
+    private final Duration timeout;
+    private final int batchSize;
+    private final HttpClient client;
+
+    public WebhookChannel() {
+        String configured = AppConfig.getString("notify.webhook.url", null);
+        if (configured == null) {
+            throw new IllegalStateException("notify.webhook.url is not set");
+        }
+        this.url = URI.create(configured);
+        this.timeout = Duration.ofMillis(AppConfig.getLong("notify.webhook.timeoutMillis", 5000));
+        this.batchSize = Math.max(1, AppConfig.getInt("notify.webhook.batchSize", 50));
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public void send(List<NotificationMessage> batch) throws IOException, InterruptedException {
+        List<Map<String, Object>> notifications = new ArrayList<>(batch.size());
+        for (NotificationMessage message : batch) {
+            Map<String, Object> notification = new HashMap<>();
+            notification.put("userId", message.getUserId());
+            notification.put("kind", message.getKind().name());
+            notification.put("text", message.toText());
+            notification.put("reminders", message.getReminders());
+            notifications.add(notification);
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("notifications", notifications);
+
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JsonSupport.GSON.toJson(body)))
+                .build();
+
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook returned HTTP " + response.statusCode());
+        }
+    }
+}
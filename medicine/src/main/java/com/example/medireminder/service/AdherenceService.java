@@ -0,0 +1,103 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.AdherenceDao;
+import com.example.medireminder.model.AdherenceRecord;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service layer for adherence statistics
+ * Answers range queries from the adherence_daily rollup (one row per medicine per day)
+ * instead of scanning the user's reminder history
+ */
+public class AdherenceService {
+    public static final String PERIOD_DAY = "day";
+    public static final String PERIOD_WEEK = "week";
+
+    private final AdherenceDao adherenceDao;
+
+    public AdherenceService() {
+        this.adherenceDao = new AdherenceDao();
+    }
+
+    /**
+     * Summarize a user's adherence over a date range
+     * @param userId User ID
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @param period PERIOD_DAY or PERIOD_WEEK (weeks start on Monday)
+     * @return Map with overall totals, per-period totals and per-medicine totals
+     */
+    public Map<String, Object> getAdherence(int userId, LocalDate from, LocalDate to, String period) {
+        List<AdherenceRecord> records =
+                adherenceDao.findByUserAndRange(userId, Date.valueOf(from), Date.valueOf(to));
+
+        boolean weekly = PERIOD_WEEK.equals(period);
+        Map<LocalDate, int[]> byPeriod = new TreeMap<>();
+        Map<Integer, int[]> byMedicine = new LinkedHashMap<>();
+        int[] total = new int[2];
+
+        for (AdherenceRecord record : records) {
+            LocalDate day = record.getDay().toLocalDate();
+            LocalDate periodStart = weekly ? day.with(DayOfWeek.MONDAY) : day;
+
+            add(byPeriod.computeIfAbsent(periodStart, k -> new int[2]), record);
+            add(byMedicine.computeIfAbsent(record.getMedicineId(), k -> new int[2]), record);
+            add(total, record);
+        }
+
+        List<Map<String, Object>> periods = new ArrayList<>();
+        for (Map.Entry<LocalDate, int[]> entry : byPeriod.entrySet()) {
+            Map<String, Object> item = counts(entry.getValue());
+            item.put("start", entry.getKey().toString());
+            periods.add(item);
+        }
+
+        List<Map<String, Object>> medicines = new ArrayList<>();
+        for (Map.Entry<Integer, int[]> entry : byMedicine.entrySet()) {
+            Map<String, Object> item = counts(entry.getValue());
+            item.put("medicineId", entry.getKey());
+            medicines.add(item);
+        }
+
+        Map<String, Object> result = counts(total);
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("period", weekly ? PERIOD_WEEK : PERIOD_DAY);
+        result.put("periods", periods);
+        result.put("medicines", medicines);
+        return result;
+    }
+
+    private static void add(int[] counts, AdherenceRecord record) {
+        counts[0] += record.getScheduled();
+        counts[1] += record.getTaken();
+    }
+
+    private static Map<String, Object> counts(int[] counts) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("scheduled", counts[0]);
+        item.put("taken", counts[1]);
+        // Percentage of scheduled doses taken, one decimal place
+        item.put("percentage", counts[0] == 0 ? null : Math.round(counts[1] * 1000.0 / counts[0]) / 10.0);
+        return item;
+    }
+
+    /**
+     * Rebuild the rollup for the most recent days from the reminders table
+     * @param days Number of days back from today to reconcile
+     * @return Number of rollup rows written, or -1 on failure
+     */
+    public int reconcileRecentDays(int days) {
+        LocalDate today = LocalDate.now();
+        return adherenceDao.reconcile(Date.valueOf(today.minusDays(days)), Date.valueOf(today));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.UserVersionDao;
+import com.example.medireminder.model.UserVersion;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.Metrics;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+/**
+ * Keeps per-user in-memory caches coherent across nodes
+ *
+ * Every write bumps the user's row in user_versions in its own transaction, so
+ * a committed write always has its bump and a failed bump fails the write; no
+ * crash or error between the two can leave other nodes stale. Each node polls the table
+ * by changed_at watermark (see CacheCoherenceListener) and evicts the changed
+ * users from every registered cache. A change whose only new version came from
+ * this node is skipped, since the local caches were already updated in place.
+ *
+ * A poll reads every row from the watermark on, in keyset pages of
+ * coherence.batchSize ordered by (changed_at, user_id), so a burst larger than
+ * one page is never skipped. Only after the last page does the watermark move,
+ * to the newest row minus coherence.overlapMillis, so a write that commits late
+ * with an older changed_at is still seen; rows read twice are skipped by version.
+ */
+public class CacheCoherenceService {
+    public static final boolean ENABLED = AppConfig.getBoolean("coherence.enabled", true);
+
+    /** Identifies this JVM in user_versions.updated_by */
+    public static final String NODE_ID = UUID.randomUUID().toString();
+
+    private static final long OVERLAP_MILLIS = AppConfig.getLong("coherence.overlapMillis", 2000);
+    private static final int BATCH_SIZE = Math.max(1, AppConfig.getInt("coherence.batchSize", 1000));
+    private static final int MAX_TRACKED_USERS = AppConfig.getInt("coherence.maxTrackedUsers", 100000);
+
+    private static final List<IntConsumer> INVALIDATORS = new CopyOnWriteArrayList<>();
+
+    private final UserVersionDao userVersionDao;
+
+    // Poller state, only touched by the polling thread
+    private Timestamp watermark;
+    private final Map<Integer, Long> lastSeen = new LinkedHashMap<Integer, Long>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+            return size() > MAX_TRACKED_USERS;
+        }
+    };
+
+    public CacheCoherenceService() {
+        this.userVersionDao = new UserVersionDao();
+    }
+
+    /**
+     * Register a per-user cache to be evicted when another node changes a user
+     * @param invalidator Called with the user ID to evict
+     */
+    public static void register(IntConsumer invalidator) {
+        INVALIDATORS.add(invalidator);
+    }
+
+    /**
+     * Record a change to a user's data
+     * Call inside the write's DBConnection.inTransaction and roll back if it fails
+     * @param userId User ID
+     * @return true if recorded (or coherence is disabled), false on database error
+     */
+    public boolean recordChange(int userId) {
+        return !ENABLED || userVersionDao.bump(userId, NODE_ID);
+    }
+
+    /**
+     * Record a change to several users' data (bulk writes)
+     * @param userIds User IDs
+     * @return true if all were recorded, false on database error
+     */
+    public boolean recordChanges(Collection<Integer> userIds) {
+        for (int userId : userIds) {
+            if (!recordChange(userId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Poll user_versions once and evict changed users
+     * @return Number of users evicted
+     */
+    public int poll() {
+        long start = System.nanoTime();
+        if (watermark == null) {
+            watermark = userVersionDao.currentTime();
+            if (watermark == null) {
+                Metrics.increment("coherence.pollErrors");
+                return 0;
+            }
+        }
+
+        int evicted = 0;
+        int rowsRead = 0;
+        Timestamp newest = null;
+        Timestamp afterChangedAt = watermark;
+        int afterUserId = Integer.MIN_VALUE;
+        List<UserVersion> changes;
+        do {
+            changes = userVersionDao.findChangedAfter(afterChangedAt, afterUserId, BATCH_SIZE);
+            if (changes == null) {
+                // Keep the watermark; the next poll reads these rows again
+                Metrics.increment("coherence.pollErrors");
+                return evicted;
+            }
+            evicted += evict(changes);
+            rowsRead += changes.size();
+            if (!changes.isEmpty()) {
+                UserVersion last = changes.get(changes.size() - 1);
+                afterChangedAt = last.getChangedAt();
+                afterUserId = last.getUserId();
+                newest = afterChangedAt;
+            }
+        } while (changes.size() == BATCH_SIZE);
+
+        if (newest != null) {
+            long next = newest.getTime() - OVERLAP_MILLIS;
+            if (next > watermark.getTime()) {
+                watermark = new Timestamp(next);
+            }
+        }
+
+        Metrics.increment("coherence.polls");
+        Metrics.add("coherence.rowsRead", rowsRead);
+        Metrics.add("coherence.evictions", evicted);
+        Metrics.recordMillis("coherence.pollMillis", (System.nanoTime() - start) / 1_000_000);
+        return evicted;
+    }
+
+    private int evict(List<UserVersion> changes) {
+        int evicted = 0;
+        for (UserVersion change : changes) {
+            Long seen = lastSeen.get(change.getUserId());
+            if (seen != null && change.getVersion() <= seen) {
+                continue;
+            }
+            lastSeen.put(change.getUserId(), change.getVersion());
+
+            boolean onlyOwnWrite = seen != null
+                    && change.getVersion() == seen + 1
+                    && NODE_ID.equals(change.getUpdatedBy());
+            if (!onlyOwnWrite) {
+                for (IntConsumer invalidator : INVALIDATORS) {
+                    invalidator.accept(change.getUserId());
+                }
+                evicted++;
+                Metrics.recordMillis("coherence.convergenceMillis", change.getAgeMillis());
+            }
+        }
+        return evicted;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.CalendarFeedDao;
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.model.CalendarFeed;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.IcsWriter;
+import com.example.medireminder.util.Metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Service layer for per-user iCalendar feeds
+ *
+ * A feed covers the last ics.pastDays days and everything scheduled after.
+ * Its content only changes when the user's data version (user_versions)
+ * moves or the day rolls over, so (version, day) is used as the ETag and
+ * as the key of a bounded LRU cache of generated feeds. A poll of an
+ * unchanged feed costs one indexed lookup and is answered with 304.
+ *
+ * With coherence disabled versions are not recorded; feeds are then
+ * generated on every poll and the ETag is a checksum of the body.
+ */
+public class CalendarFeedService {
+    private static final int PAST_DAYS = Math.max(0, AppConfig.getInt("ics.pastDays", 30));
+    private static final int REFRESH_MINUTES = Math.max(5, AppConfig.getInt("ics.refreshMinutes", 60));
+    private static final int EVENT_MINUTES = Math.max(1, AppConfig.getInt("ics.eventMinutes", 15));
+    private static final int MAX_CACHED_USERS = AppConfig.getInt("ics.cacheMaxUsers", 2000);
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final Map<Integer, CachedFeed> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<Integer, CachedFeed>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, CachedFeed> eldest) {
+                    return size() > MAX_CACHED_USERS;
+                }
+            });
+
+    static {
+        CacheCoherenceService.register(CalendarFeedService::evictUser);
+        Metrics.gauge("ics.cachedFeeds", () -> CACHE.size());
+    }
+
+    private final CalendarFeedDao calendarFeedDao;
+    private final ReminderDao reminderDao;
+
+    public CalendarFeedService() {
+        this.calendarFeedDao = new CalendarFeedDao();
+        this.reminderDao = new ReminderDao();
+    }
+
+    /**
+     * Create a new feed token for a user, replacing (and so revoking) the old one
+     * @param userId User ID
+     * @return The token, or null on database error
+     */
+    public String createToken(int userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        return calendarFeedDao.saveToken(userId, hashToken(token)) ? token : null;
+    }
+
+    /**
+     * Revoke a user's feed token
+     * @param userId User ID
+     * @return true if a token was revoked
+     */
+    public boolean revokeToken(int userId) {
+        boolean revoked = calendarFeedDao.deleteToken(userId);
+        evictUser(userId);
+        return revoked;
+    }
+
+    /**
+     * Resolve a feed token
+     * @param token Token from the feed URL
+     * @return CalendarFeed, or null if the token is unknown
+     */
+    public CalendarFeed resolve(String token) {
+        if (token == null || token.isEmpty() || token.length() > 128) {
+            return null;
+        }
+        return calendarFeedDao.findByTokenHash(hashToken(token));
+    }
+
+    /**
+     * ETag of the feed as of today, computed without reading any reminders
+     * @param feed Resolved feed
+     * @param today Current date
+     * @return Quoted ETag, or null if coherence is disabled (use contentEtag)
+     */
+    public String versionEtag(CalendarFeed feed, LocalDate today) {
+        if (!CacheCoherenceService.ENABLED) {
+            return null;
+        }
+        return "\"" + feed.getUserId() + "-" + feed.getVersion() + "-" + today.toEpochDay() + "\"";
+    }
+
+    /**
+     * ETag from the feed body (used when coherence is disabled)
+     * @param body Feed body
+     * @return Quoted ETag
+     */
+    public static String contentEtag(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        return "\"c" + Long.toHexString(crc.getValue()) + "-" + body.length + "\"";
+    }
+
+    /**
+     * When the feed content last changed: the user's last write, or the start
+     * of today (the window moves at midnight), whichever is later
+     * @param feed Resolved feed
+     * @param today Current date
+     * @return Epoch millis, truncated to seconds as HTTP dates are
+     */
+    public long lastModified(CalendarFeed feed, LocalDate today) {
+        long dayStart = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long changed = feed.getChangedAt() == null ? 0 : feed.getChangedAt().getTime();
+        return Math.max(dayStart, changed) / 1000 * 1000;
+    }
+
+    /**
+     * Get the feed body, from cache when the version and day still match
+     * @param feed Resolved feed
+     * @param today Current date
+     * @return UTF-8 iCalendar bytes, or null on database error
+     */
+    public byte[] getFeed(CalendarFeed feed, LocalDate today) throws IOException {
+        long epochDay = today.toEpochDay();
+        if (CacheCoherenceService.ENABLED) {
+            CachedFeed cached = CACHE.get(feed.getUserId());
+            if (cached != null && cached.version == feed.getVersion() && cached.epochDay == epochDay) {
+                Metrics.increment("ics.cacheHits");
+                return cached.body;
+            }
+        }
+
+        byte[] body = generate(feed, today);
+        if (body != null && CacheCoherenceService.ENABLED) {
+            // The version was read before the rows, so a concurrent write can
+            // only make this body newer than its key, never older
+            CACHE.put(feed.getUserId(), new CachedFeed(feed.getVersion(), epochDay, body));
+        }
+        return body;
+    }
+
+    // Stream the schedule straight into the encoder; no reminder list is built
+    private byte[] generate(CalendarFeed feed, LocalDate today) throws IOException {
+        long start = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);
+        Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        IcsWriter ics = new IcsWriter(writer, Instant.ofEpochMilli(lastModified(feed, today)));
+
+        ics.begin("Medicine Reminders", REFRESH_MINUTES);
+        boolean loaded = reminderDao.streamSchedule(feed.getUserId(), today.minusDays(PAST_DAYS),
+                (reminder, medicine) -> ics.event(reminder, medicine, EVENT_MINUTES));
+        if (!loaded) {
+            return null;
+        }
+        ics.end();
+
+        byte[] body = buffer.toByteArray();
+        Metrics.increment("ics.generated");
+        Metrics.add("ics.generatedBytes", body.length);
+        Metrics.recordMillis("ics.generateMillis", (System.nanoTime() - start) / 1_000_000);
+        return body;
+    }
+
+    private static void evictUser(int userId) {
+        CACHE.remove(userId);
+    }
+
+    // Only the hash is stored, so a leaked database does not leak feed URLs
+    private static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedFeed {
+        final long version;
+        final long epochDay;
+        final byte[] body;
+
+        CachedFeed(long version, long epochDay, byte[] body) {
+            this.version = version;
+            this.epochDay = epochDay;
+            this.body = body;
+        }
+    }
+}
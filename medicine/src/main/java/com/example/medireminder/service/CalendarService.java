@@ -0,0 +1,181 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.model.DoseCalendarMonth;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.util.AppConfig;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Service layer for the adherence calendar
+ * Keeps a bounded LRU cache of DoseCalendarMonth bitmaps shared by all instances,
+ * grouped per user so a user's months can be dropped in O(1).
+ * Taken/notified changes flip bits in place; adds and deletes drop the month so it
+ * is rebuilt from the reminders table on next access.
+ *
+ * A month loaded while a write for the same user is in flight could miss that
+ * write, so every write bumps a per-user stamp and a load is only cached if the
+ * stamp did not move while it ran (as in DayScheduleIndex).
+ */
+public class CalendarService {
+    private static final int MAX_CACHED_MONTHS = AppConfig.getInt("calendar.cacheMaxMonths", 10000);
+    private static final int STAMP_STRIPES = 64;
+
+    // User ID -> (month index -> bitmap), least recently used user first; guarded by itself
+    private static final LinkedHashMap<Integer, Map<Integer, DoseCalendarMonth>> CACHE =
+            new LinkedHashMap<>(256, 0.75f, true);
+    private static int cachedMonths;
+
+    private static final AtomicLongArray WRITE_STAMPS = new AtomicLongArray(STAMP_STRIPES);
+
+    static {
+        CacheCoherenceService.register(CalendarService::evictUser);
+    }
+
+    private final ReminderDao reminderDao;
+
+    public CalendarService() {
+        this(new ReminderDao());
+    }
+
+    // For tests that stand in for the database
+    CalendarService(ReminderDao reminderDao) {
+        this.reminderDao = reminderDao;
+    }
+
+    /**
+     * Get the dose calendar for a month, building it on a cache miss
+     * Months past the archive horizon are read from the archive as well
+     * @param userId User ID
+     * @param month Calendar month
+     * @return DoseCalendarMonth, or null on database error
+     */
+    public DoseCalendarMonth getMonth(int userId, YearMonth month) {
+        int monthIndex = monthIndex(month);
+        DoseCalendarMonth cached = find(userId, monthIndex);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = WRITE_STAMPS.get(stripe(userId));
+        DoseCalendarMonth loaded = reminderDao.loadDoseCalendarMonth(userId, month,
+                ReminderArchiveService.mayBeArchived(month.atDay(1)));
+        if (loaded != null) {
+            synchronized (CACHE) {
+                if (WRITE_STAMPS.get(stripe(userId)) == stamp) {
+                    put(userId, monthIndex, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Record a dose marked as taken
+     * @param reminder Reminder that was marked (needs user ID, date and ID)
+     */
+    public void onTaken(Reminder reminder) {
+        bump(reminder.getUserId());
+        DoseCalendarMonth cached = find(reminder.getUserId(), monthIndex(reminder));
+        if (cached != null && !cached.markTaken(reminder.getId())) {
+            remove(reminder.getUserId(), monthIndex(reminder));
+        }
+    }
+
+    /**
+     * Record doses that were claimed for notification
+     * @param reminders Reminders that were marked as notified
+     */
+    public void onNotified(List<Reminder> reminders) {
+        for (Reminder reminder : reminders) {
+            bump(reminder.getUserId());
+            DoseCalendarMonth cached = find(reminder.getUserId(), monthIndex(reminder));
+            if (cached != null && !cached.markNotified(reminder.getId())) {
+                remove(reminder.getUserId(), monthIndex(reminder));
+            }
+        }
+    }
+
+    /**
+     * Drop the cached month a reminder belongs to (after an add or delete)
+     * @param reminder Reminder that was added or deleted
+     */
+    public void invalidate(Reminder reminder) {
+        bump(reminder.getUserId());
+        remove(reminder.getUserId(), monthIndex(reminder));
+    }
+
+    /**
+     * Drop every cached month of a user (after a medicine delete)
+     * @param userId User ID
+     */
+    public void invalidateUser(int userId) {
+        evictUser(userId);
+    }
+
+    private static void evictUser(int userId) {
+        bump(userId);
+        synchronized (CACHE) {
+            Map<Integer, DoseCalendarMonth> months = CACHE.remove(userId);
+            if (months != null) {
+                cachedMonths -= months.size();
+            }
+        }
+    }
+
+    private static DoseCalendarMonth find(int userId, int monthIndex) {
+        synchronized (CACHE) {
+            Map<Integer, DoseCalendarMonth> months = CACHE.get(userId);
+            return months == null ? null : months.get(monthIndex);
+        }
+    }
+
+    // Caller holds the CACHE lock
+    private static void put(int userId, int monthIndex, DoseCalendarMonth calendarMonth) {
+        Map<Integer, DoseCalendarMonth> months = CACHE.computeIfAbsent(userId, id -> new HashMap<>());
+        if (months.put(monthIndex, calendarMonth) == null) {
+            cachedMonths++;
+        }
+        // Drop least recently used users until the month limit holds again
+        Iterator<Map<Integer, DoseCalendarMonth>> eldest = CACHE.values().iterator();
+        while (cachedMonths > MAX_CACHED_MONTHS && eldest.hasNext()) {
+            cachedMonths -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    private static void remove(int userId, int monthIndex) {
+        synchronized (CACHE) {
+            Map<Integer, DoseCalendarMonth> months = CACHE.get(userId);
+            if (months != null && months.remove(monthIndex) != null) {
+                cachedMonths--;
+                if (months.isEmpty()) {
+                    CACHE.remove(userId);
+                }
+            }
+        }
+    }
+
+    private static void bump(int userId) {
+        WRITE_STAMPS.incrementAndGet(stripe(userId));
+    }
+
+    private static int stripe(int userId) {
+        return userId & (STAMP_STRIPES - 1);
+    }
+
+    private static int monthIndex(Reminder reminder) {
+        return monthIndex(YearMonth.from(reminder.getReminderDate().toLocalDate()));
+    }
+
+    private static int monthIndex(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.CaregiverDao;
+import com.example.medireminder.dao.UserDao;
+import com.example.medireminder.model.User;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.Metrics;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service layer for caregiver access and the ward view
+ *
+ * A patient grants a caregiver access by username; either side can remove
+ * the link. The ward view costs two queries however many patients a
+ * caregiver has: one for the patient list and one streamed query for all
+ * their doses, sorted by time across patients.
+ */
+public class CaregiverService {
+    private static final int MAX_PATIENTS = AppConfig.getInt("ward.maxPatients", 500);
+    private static final int MISSED_DAYS = Math.max(0, AppConfig.getInt("ward.missedDays", 1));
+
+    private final CaregiverDao caregiverDao;
+    private final UserDao userDao;
+
+    public CaregiverService() {
+        this.caregiverDao = new CaregiverDao();
+        this.userDao = new UserDao();
+    }
+
+    /**
+     * Let a caregiver see a patient's schedule
+     * @param patientId Patient granting access (the logged-in user)
+     * @param caregiverUsername Caregiver's username
+     * @return true if the caregiver now has access, false otherwise
+     */
+    public boolean grantAccess(int patientId, String caregiverUsername) {
+        if (caregiverUsername == null || caregiverUsername.trim().isEmpty()) {
+            System.err.println("Caregiver username cannot be empty");
+            return false;
+        }
+
+        User caregiver = userDao.findByUsername(caregiverUsername.trim());
+        if (caregiver == null || caregiver.getId() == patientId) {
+            System.err.println("Invalid caregiver: " + caregiverUsername);
+            return false;
+        }
+
+        int patients = caregiverDao.countPatients(caregiver.getId());
+        if (patients < 0 || patients >= MAX_PATIENTS) {
+            System.err.println("Caregiver " + caregiver.getId() + " cannot take more patients");
+            return false;
+        }
+
+        return caregiverDao.link(caregiver.getId(), patientId);
+    }
+
+    /**
+     * Remove a caregiver's access to a patient
+     * @param caregiverId Caregiver's user ID
+     * @param patientId Patient's user ID
+     * @return true if access was removed, false otherwise
+     */
+    public boolean revokeAccess(int caregiverId, int patientId) {
+        return caregiverDao.unlink(caregiverId, patientId);
+    }
+
+    /**
+     * Get the patients a caregiver looks after
+     * @param caregiverId Caregiver's user ID
+     * @return Patients (ID and username only)
+     */
+    public List<User> getPatients(int caregiverId) {
+        return caregiverDao.findPatients(caregiverId);
+    }
+
+    /**
+     * Get the caregivers who can see a patient's schedule
+     * @param patientId Patient's user ID
+     * @return Caregivers (ID and username only)
+     */
+    public List<User> getCaregivers(int patientId) {
+        return caregiverDao.findCaregivers(patientId);
+    }
+
+    /**
+     * First day whose untaken doses the ward view still shows
+     * @param today Today
+     * @return today minus ward.missedDays
+     */
+    public LocalDate missedSince(LocalDate today) {
+        return today.minusDays(MISSED_DAYS);
+    }
+
+    /**
+     * Stream today's doses of all a caregiver's patients, plus recent missed doses
+     * @param caregiverId Caregiver's user ID
+     * @param today Today
+     * @param handler Called once per dose, in date/time order
+     * @return true if all rows were streamed, false on database error
+     * @throws IOException if the handler fails to write a row
+     */
+    public boolean streamWard(int caregiverId, LocalDate today, CaregiverDao.WardRowHandler handler)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        boolean complete = caregiverDao.streamWard(caregiverId, missedSince(today), today, handler);
+        Metrics.recordMillis("ward.streamMillis", System.currentTimeMillis() - start);
+        return complete;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.model.DaySchedule;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.util.AppConfig;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of each user's schedule for today
+ *
+ * Holds one DaySchedule per user in a bounded LRU cache shared by all instances.
+ * A schedule is loaded on first access each day and then updated in place by the
+ * ReminderService write methods, so today's view and the due check do not touch
+ * the database. "Today" is the JVM's local date, which is assumed to match the
+ * database server's CURDATE().
+ *
+ * A schedule loaded while a write for the same user is in flight could miss that
+ * write, so every write bumps a per-user stamp and a load is only cached if the
+ * stamp did not move while it ran.
+ */
+public class DayScheduleIndex {
+    private static final int MAX_CACHED_USERS = AppConfig.getInt("schedule.cacheMaxUsers", 10000);
+    private static final int STAMP_STRIPES = 64;
+
+    private static final Map<Integer, DaySchedule> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<Integer, DaySchedule>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, DaySchedule> eldest) {
+                    return size() > MAX_CACHED_USERS;
+                }
+            });
+
+    private static final AtomicLongArray WRITE_STAMPS = new AtomicLongArray(STAMP_STRIPES);
+
+    static {
+        CacheCoherenceService.register(DayScheduleIndex::evictUser);
+    }
+
+    private final ReminderDao reminderDao;
+
+    public DayScheduleIndex() {
+        this.reminderDao = new ReminderDao();
+    }
+
+    /**
+     * Get today's schedule for a user, loading it on a miss or a new day
+     * @param userId User ID
+     * @return DaySchedule, or null on database error
+     */
+    public DaySchedule getToday(int userId) {
+        LocalDate today = LocalDate.now();
+        DaySchedule cached = CACHE.get(userId);
+        if (cached != null && cached.getDay().equals(today)) {
+            return cached;
+        }
+
+        long stamp = WRITE_STAMPS.get(stripe(userId));
+        DaySchedule loaded = reminderDao.loadDaySchedule(userId, today);
+        if (loaded != null && WRITE_STAMPS.get(stripe(userId)) == stamp) {
+            CACHE.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Claim the user's due doses from the index
+     * @param userId User ID
+     * @param leadSeconds How early a dose may be claimed before its time
+     * @return Claimed reminders (empty if nothing is due), or null if the index
+     *         cannot answer (earlier days have pending doses, or database error)
+     */
+    public List<Reminder> claimDue(int userId, int leadSeconds) {
+        DaySchedule schedule = getToday(userId);
+        if (schedule == null || !schedule.isPriorDaysClear()) {
+            return null;
+        }
+        return schedule.claimDue(LocalTime.now().toSecondOfDay() + leadSeconds);
+    }
+
+    /**
+     * Undo in-memory claims the database did not confirm
+     * @param userId User ID
+     * @param reminders Reminders claimed by claimDue
+     */
+    public void releaseClaims(int userId, List<Reminder> reminders) {
+        DaySchedule cached = CACHE.get(userId);
+        if (cached == null) {
+            return;
+        }
+        for (Reminder reminder : reminders) {
+            cached.clearNotified(reminder.getId());
+        }
+    }
+
+    /**
+     * Record a saved reminder
+     * @param reminder Reminder that was saved (must have its generated ID)
+     */
+    public void onAdded(Reminder reminder) {
+        bump(reminder.getUserId());
+        DaySchedule cached = CACHE.get(reminder.getUserId());
+        if (cached == null) {
+            return;
+        }
+
+        LocalDate day = reminder.getReminderDate().toLocalDate();
+        if (day.isBefore(cached.getDay())) {
+            // A back-dated dose is due at once and lives outside this day
+            cached.setPriorDaysClear(false);
+        } else if (day.equals(cached.getDay())) {
+            String name = reminder.getMedicineName() != null
+                    ? reminder.getMedicineName()
+                    : cached.findMedicineName(reminder.getMedicineId());
+            if (name == null) {
+                // First dose of this medicine today; reload to pick up its name
+                CACHE.remove(reminder.getUserId());
+                return;
+            }
+            cached.add(reminder.getId(), reminder.getMedicineId(),
+                    reminder.getReminderTime().toLocalTime().toSecondOfDay() / 60,
+                    name, reminder.isTaken(), reminder.isNotified());
+        }
+    }
+
+    /**
+     * Record a dose marked as taken
+     * @param reminder Reminder that was marked
+     */
+    public void onTaken(Reminder reminder) {
+        bump(reminder.getUserId());
+        DaySchedule cached = CACHE.get(reminder.getUserId());
+        if (cached != null) {
+            cached.markTaken(reminder.getId());
+        }
+    }
+
+    /**
+     * Record doses claimed through the database
+     * The database claim covers every due dose, so earlier days are clear afterwards.
+     * @param userId User ID
+     * @param reminders Reminders that were marked as notified
+     */
+    public void onNotified(int userId, List<Reminder> reminders) {
+        bump(userId);
+        DaySchedule cached = CACHE.get(userId);
+        if (cached == null) {
+            return;
+        }
+        for (Reminder reminder : reminders) {
+            cached.markNotified(reminder.getId());
+        }
+        cached.setPriorDaysClear(true);
+    }
+
+    /**
+     * Record a deleted reminder
+     * @param reminder Reminder that was deleted
+     */
+    public void onDeleted(Reminder reminder) {
+        bump(reminder.getUserId());
+        DaySchedule cached = CACHE.get(reminder.getUserId());
+        if (cached != null) {
+            cached.remove(reminder.getId());
+        }
+    }
+
+    /**
+     * Drop a user's schedule (after a medicine delete)
+     * @param userId User ID
+     */
+    public void invalidateUser(int userId) {
+        evictUser(userId);
+    }
+
+    private static void evictUser(int userId) {
+        bump(userId);
+        CACHE.remove(userId);
+    }
+
+    private static void bump(int userId) {
+        WRITE_STAMPS.incrementAndGet(stripe(userId));
+    }
+
+    private static int stripe(int userId) {
+        return userId & (STAMP_STRIPES - 1);
+    }
+}
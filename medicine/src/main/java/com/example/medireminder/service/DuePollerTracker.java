@@ -0,0 +1,76 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.Metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects users with more than one client polling /reminders/due
+ *
+ * Each browser elects one tab to poll and sends its clientId. Per user this
+ * remembers the last two distinct clientIds. A leader handing over to another tab
+ * switches once (A, A, B, B); two live pollers alternate (A, B, A, B), and every
+ * poll that switches back to a recent client is counted as a duplicate poll in
+ * the "due.duplicatePolls" metric.
+ */
+public class DuePollerTracker {
+    private static final long WINDOW_MILLIS = 1000L * AppConfig.getInt("due.maxPollSeconds", 900) * 2;
+    private static final int MAX_TRACKED_USERS = AppConfig.getInt("due.maxTrackedPollers", 100000);
+    private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private static final Map<Integer, PollerState> POLLERS = new ConcurrentHashMap<>();
+
+    static {
+        Metrics.gauge("due.trackedPollers", POLLERS::size);
+    }
+
+    /**
+     * Record a poll
+     * @param userId User ID
+     * @param clientId Client instance ID sent by the browser, or null
+     * @return true if another client polled for this user within the window
+     */
+    public boolean recordPoll(int userId, String clientId) {
+        if (clientId == null || clientId.isEmpty() || clientId.length() > MAX_CLIENT_ID_LENGTH) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        if (POLLERS.size() >= MAX_TRACKED_USERS) {
+            POLLERS.values().removeIf(state -> state.isStale(now));
+        }
+
+        boolean duplicate = POLLERS.computeIfAbsent(userId, id -> new PollerState()).record(clientId, now);
+        if (duplicate) {
+            Metrics.increment("due.duplicatePolls");
+        }
+        return duplicate;
+    }
+
+    private static final class PollerState {
+        private String last;
+        private long lastSeen;
+        private String previous;
+        private long previousSeen;
+
+        synchronized boolean record(String clientId, long now) {
+            if (clientId.equals(last)) {
+                lastSeen = now;
+                return false;
+            }
+
+            boolean alternating = clientId.equals(previous) && now - previousSeen <= WINDOW_MILLIS;
+            previous = last;
+            previousSeen = lastSeen;
+            last = clientId;
+            lastSeen = now;
+            return alternating;
+        }
+
+        synchronized boolean isStale(long now) {
+            return now - lastSeen > WINDOW_MILLIS;
+        }
+    }
+}
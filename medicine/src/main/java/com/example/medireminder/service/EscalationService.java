@@ -0,0 +1,270 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.CaregiverDao;
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.notification.EscalationQueue;
+import com.example.medireminder.notification.NotificationMessage;
+import com.example.medireminder.notification.NotificationPipeline;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.Metrics;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escalates doses that were notified but not taken
+ *
+ * Policy (minutes after the scheduled dose time):
+ * - escalation.repeatMinutes: notify the patient again (0 = skip)
+ * - escalation.caregiverMinutes: send a CAREGIVER alert to every caregiver
+ *   linked to the patient (0 = skip); patients without caregivers get none
+ *
+ * Claimed doses are put in an in-memory EscalationQueue, so nothing scans the
+ * reminders table while waiting; taking or deleting a dose cancels it in O(1).
+ * When a step comes due, one query re-reads the batch and drops doses taken
+ * in the meantime (e.g. on another node). The queue is rebuilt from the
+ * database when the application starts.
+ *
+ * Every node rebuilds the same doses, so a step is only sent by the node
+ * whose conditional update raises the dose's escalation_stage to it (see
+ * ReminderDao#claimEscalation); the others just move on to the next step.
+ * If the database cannot be read or claimed, the batch is queued again
+ * escalation.retrySeconds later instead of being dropped.
+ *
+ * Alerts are delivered through NotificationPipeline, so escalation is only
+ * active when notify.channels is set.
+ */
+public class EscalationService {
+    public static final boolean ENABLED = AppConfig.getBoolean("escalation.enabled", true)
+            && NotificationPipeline.isConfigured();
+
+    private static final byte STAGE_REPEAT = 1;
+    private static final byte STAGE_CAREGIVER = 2;
+
+    private static final long REPEAT_MILLIS = 60_000L * Math.max(0, AppConfig.getInt("escalation.repeatMinutes", 15));
+    private static final long CAREGIVER_MILLIS = 60_000L * Math.max(0, AppConfig.getInt("escalation.caregiverMinutes", 60));
+    private static final int BATCH_SIZE = Math.max(1, AppConfig.getInt("escalation.batchSize", 500));
+    private static final long RETRY_MILLIS = 1000L * Math.max(1, AppConfig.getInt("escalation.retrySeconds", 30));
+
+    private static final EscalationQueue QUEUE =
+            new EscalationQueue(Math.max(1, AppConfig.getInt("escalation.maxPending", 500000)));
+
+    static {
+        Metrics.gauge("escalation.pending", QUEUE::pendingCount);
+        Metrics.gauge("escalation.queueEntries", QUEUE::size);
+    }
+
+    private final ReminderDao reminderDao;
+    private final CaregiverDao caregiverDao;
+
+    public EscalationService() {
+        this.reminderDao = new ReminderDao();
+        this.caregiverDao = new CaregiverDao();
+    }
+
+    /**
+     * Start escalation for doses that were just notified
+     * @param notified Claimed doses (need ID, date and time)
+     */
+    public void schedule(List<Reminder> notified) {
+        if (!ENABLED) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Reminder reminder : notified) {
+            scheduleNext(reminder.getId(), reminder.getReminderDate(), reminder.getReminderTime(), 0, now);
+        }
+    }
+
+    /**
+     * Stop escalating a dose (taken or deleted)
+     * @param reminderId Reminder ID
+     */
+    public void cancel(int reminderId) {
+        if (ENABLED && QUEUE.cancel(reminderId)) {
+            Metrics.increment("escalation.cancelled");
+        }
+    }
+
+    /**
+     * Reload every notified, untaken dose still inside the escalation window
+     * Steps already sent (by any node) and steps whose time passed while the
+     * application was down are skipped, so a restart does not replay old repeats.
+     */
+    public void rebuild() {
+        if (!ENABLED) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long window = Math.max(REPEAT_MILLIS, CAREGIVER_MILLIS);
+        LocalDate since = LocalDateTime.now().minus(Duration.ofMillis(window)).toLocalDate();
+
+        QUEUE.clear();
+        boolean complete = reminderDao.streamNotifiedUntaken(since,
+                (reminderId, reminderDate, reminderTime, escalationStage) ->
+                        scheduleNext(reminderId, reminderDate, reminderTime, escalationStage, start));
+
+        Metrics.recordMillis("escalation.rebuildMillis", System.currentTimeMillis() - start);
+        System.out.println("Escalation queue rebuilt with " + QUEUE.pendingCount() + " pending dose(s)"
+                + (complete ? "" : " (incomplete, database error)"));
+    }
+
+    /**
+     * Fire every escalation step that is due
+     * Called periodically by EscalationListener.
+     */
+    public void fireDue() {
+        if (!ENABLED) {
+            return;
+        }
+        int[] ids = new int[BATCH_SIZE];
+        byte[] stages = new byte[BATCH_SIZE];
+
+        int count;
+        do {
+            long now = System.currentTimeMillis();
+            count = QUEUE.pollDue(now, ids, stages);
+            if (count == 0) {
+                return;
+            }
+
+            Map<Integer, Byte> stageById = new HashMap<>(count * 2);
+            List<Integer> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                stageById.put(ids[i], stages[i]);
+                batch.add(ids[i]);
+            }
+
+            // Doses taken elsewhere since they were queued drop out here
+            List<Reminder> untaken = reminderDao.findUntakenByIds(batch);
+            if (untaken == null) {
+                retry(batch, stageById, now);
+                return;
+            }
+
+            Map<Integer, Reminder> repeats = new HashMap<>();
+            Map<Integer, Reminder> alerts = new HashMap<>();
+            for (Reminder reminder : untaken) {
+                if (stageById.get(reminder.getId()) == STAGE_REPEAT) {
+                    repeats.put(reminder.getId(), reminder);
+                } else {
+                    alerts.put(reminder.getId(), reminder);
+                }
+            }
+
+            List<Reminder> claimedRepeats = claim(repeats, STAGE_REPEAT, stageById, now);
+            if (claimedRepeats != null && !claimedRepeats.isEmpty()) {
+                NotificationPipeline.submit(claimedRepeats, NotificationMessage.Kind.REPEAT);
+                Metrics.add("escalation.repeats", claimedRepeats.size());
+            }
+            List<Reminder> claimedAlerts = claim(alerts, STAGE_CAREGIVER, stageById, now);
+            if (claimedAlerts != null && !claimedAlerts.isEmpty()) {
+                alertCaregivers(claimedAlerts);
+            }
+            if (claimedRepeats == null || claimedAlerts == null) {
+                // Leave the rest for the next tick rather than hammer a failing database
+                return;
+            }
+        } while (count == BATCH_SIZE);
+    }
+
+    /**
+     * Claim one stage for the given doses and queue their next step
+     * Doses another node claimed first are only moved on to the next step.
+     * @return Doses this node must send the step for, or null on database error
+     *         (the doses are then queued again for a retry)
+     */
+    private List<Reminder> claim(Map<Integer, Reminder> doses, byte stage, Map<Integer, Byte> stageById, long now) {
+        List<Reminder> claimed = new ArrayList<>();
+        if (doses.isEmpty()) {
+            return claimed;
+        }
+        List<Integer> claimedIds = reminderDao.claimEscalation(new ArrayList<>(doses.keySet()), stage);
+        if (claimedIds == null) {
+            retry(doses.keySet(), stageById, now);
+            return null;
+        }
+
+        for (int reminderId : claimedIds) {
+            claimed.add(doses.get(reminderId));
+        }
+        Metrics.add("escalation.claimedElsewhere", doses.size() - claimedIds.size());
+        for (Reminder reminder : doses.values()) {
+            scheduleNext(reminder.getId(), reminder.getReminderDate(), reminder.getReminderTime(), stage, now);
+        }
+        return claimed;
+    }
+
+    /**
+     * Put polled steps back in the queue after a database error
+     */
+    private void retry(Collection<Integer> reminderIds, Map<Integer, Byte> stageById, long now) {
+        for (int reminderId : reminderIds) {
+            enqueue(reminderId, now + RETRY_MILLIS, stageById.get(reminderId));
+        }
+        Metrics.add("escalation.retried", reminderIds.size());
+    }
+
+    /**
+     * Send missed doses to the patients' caregivers, one lookup for the whole batch
+     */
+    private void alertCaregivers(List<Reminder> alerts) {
+        Map<Integer, List<Reminder>> byPatient = new HashMap<>();
+        for (Reminder reminder : alerts) {
+            byPatient.computeIfAbsent(reminder.getUserId(), id -> new ArrayList<>()).add(reminder);
+        }
+
+        Map<Integer, List<Integer>> caregivers = caregiverDao.findCaregiverIds(byPatient.keySet());
+        if (caregivers == null) {
+            Metrics.add("escalation.caregiverErrors", alerts.size());
+            return;
+        }
+
+        for (Map.Entry<Integer, List<Reminder>> entry : byPatient.entrySet()) {
+            List<Integer> caregiverIds = caregivers.get(entry.getKey());
+            if (caregiverIds == null) {
+                Metrics.add("escalation.noCaregiver", entry.getValue().size());
+                continue;
+            }
+            for (int caregiverId : caregiverIds) {
+                NotificationPipeline.submit(caregiverId, entry.getValue(), NotificationMessage.Kind.CAREGIVER);
+            }
+            Metrics.add("escalation.caregiverAlerts", entry.getValue().size() * caregiverIds.size());
+        }
+    }
+
+    /**
+     * Queue the first step after doneStage whose time has not passed yet
+     */
+    private void scheduleNext(int reminderId, Date reminderDate, Time reminderTime, int doneStage, long now) {
+        if (reminderDate == null || reminderTime == null) {
+            return;
+        }
+        long doseMillis = reminderDate.toLocalDate().atTime(reminderTime.toLocalTime())
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // A step more than a minute overdue (missed while the application was down) is skipped
+        if (doneStage < STAGE_REPEAT && REPEAT_MILLIS > 0 && doseMillis + REPEAT_MILLIS > now - 60_000) {
+            enqueue(reminderId, doseMillis + REPEAT_MILLIS, STAGE_REPEAT);
+        } else if (doneStage < STAGE_CAREGIVER && CAREGIVER_MILLIS > REPEAT_MILLIS
+                && doseMillis + CAREGIVER_MILLIS > now - 60_000) {
+            enqueue(reminderId, doseMillis + CAREGIVER_MILLIS, STAGE_CAREGIVER);
+        }
+    }
+
+    private void enqueue(int reminderId, long dueMillis, byte stage) {
+        if (!QUEUE.add(reminderId, dueMillis, stage)) {
+            Metrics.increment("escalation.dropped");
+        }
+    }
+}
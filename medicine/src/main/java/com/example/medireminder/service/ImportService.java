@@ -0,0 +1,369 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.model.ImportReport;
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.CsvReader;
+import com.example.medireminder.util.DBConnection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service layer for bulk CSV import of medicines and dose schedules
+ *
+ * Expected header (any column order): medicine_name,dosage,notes,reminder_date,reminder_time
+ * Rows without date/time only create the medicine. Medicines are matched to the
+ * user's existing ones by name and dosage, so the same medicine can appear on many rows.
+ *
+ * The request thread parses and validates rows and puts them on a bounded queue;
+ * a writer on a virtual thread drains the queue into batched inserts. When the
+ * database falls behind, the queue fills up and parsing waits (backpressure),
+ * so memory use is bounded by the queue size, not the file size. Hand-offs
+ * wait in short slices and check that the writer is still alive, and a writer
+ * that stops early keeps draining to the end marker, so neither side can wait
+ * forever on the other.
+ */
+public class ImportService {
+    private static final int BATCH_SIZE = AppConfig.getInt("import.batchSize", 500);
+    private static final int QUEUE_CAPACITY = AppConfig.getInt("import.queueCapacity", 2000);
+    private static final int MAX_ROWS = AppConfig.getInt("import.maxRows", 100000);
+    private static final long HANDOFF_WAIT_MILLIS = 100;
+
+    private static final String[] COLUMNS = {"medicine_name", "dosage", "notes", "reminder_date", "reminder_time"};
+
+    // Marks the end of input on the queue
+    private static final ImportRow END = new ImportRow(0, null, null);
+
+    private final MedicineService medicineService;
+    private final ReminderService reminderService;
+
+    public ImportService() {
+        this.medicineService = new MedicineService();
+        this.reminderService = new ReminderService();
+    }
+
+    /**
+     * Import a CSV file for a user
+     * @param userId User ID
+     * @param source CSV content
+     * @return ImportReport with counters and per-row errors
+     * @throws IOException if the input cannot be read or has no valid header
+     * @throws InterruptedException if the import is interrupted
+     */
+    public ImportReport importCsv(int userId, Reader source) throws IOException, InterruptedException {
+        ImportReport report = new ImportReport();
+        CsvReader csv = new CsvReader(new BufferedReader(source, 16384));
+
+        int[] columnIndex = readHeader(csv.readRecord());
+
+        BlockingQueue<ImportRow> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Map<String, Integer> medicineIds = loadMedicineIds(userId);
+        Thread writer = Thread.ofVirtual().name("csv-import-writer-" + userId)
+                .start(() -> writeLoop(queue, medicineIds, report));
+
+        try {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (isBlank(record)) {
+                    continue;
+                }
+                if (report.getRowsRead() >= MAX_ROWS) {
+                    report.addError(csv.getLineNumber(), "Row limit of " + MAX_ROWS + " reached, rest of file skipped");
+                    break;
+                }
+                report.incrementRowsRead();
+
+                ImportRow row = parseRow(userId, csv.getLineNumber(), record, columnIndex, report);
+                if (row != null) {
+                    handOff(queue, row, writer); // Waits while the writer catches up
+                }
+            }
+        } finally {
+            finish(queue, writer);
+        }
+
+        return report;
+    }
+
+    /**
+     * Put a row on the queue, waiting while it is full
+     * @throws IOException if the writer has stopped, so the queue would never drain
+     */
+    private static void handOff(BlockingQueue<ImportRow> queue, ImportRow row, Thread writer)
+            throws IOException, InterruptedException {
+        while (!queue.offer(row, HANDOFF_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (!writer.isAlive()) {
+                throw new IOException("Import writer stopped unexpectedly");
+            }
+        }
+    }
+
+    /**
+     * Send END and wait for the writer to finish
+     * If END cannot be sent the writer is interrupted instead, so it does not wait for it
+     */
+    private static void finish(BlockingQueue<ImportRow> queue, Thread writer) throws InterruptedException {
+        try {
+            handOff(queue, END, writer);
+        } catch (IOException e) {
+            // The writer has already stopped
+            return;
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            throw e;
+        }
+        writer.join();
+    }
+
+    /**
+     * Map header names to column positions
+     */
+    private int[] readHeader(List<String> header) throws IOException {
+        if (header == null) {
+            throw new IOException("File is empty");
+        }
+
+        int[] index = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            index[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                String name = header.get(j).trim().toLowerCase(Locale.ROOT);
+                if (j == 0 && name.startsWith("\uFEFF")) {
+                    name = name.substring(1); // UTF-8 byte order mark
+                }
+                if (name.equals(COLUMNS[i])) {
+                    index[i] = j;
+                }
+            }
+        }
+
+        if (index[0] < 0) {
+            throw new IOException("Header must contain a medicine_name column");
+        }
+        return index;
+    }
+
+    /**
+     * Validate one record against the Medicine/Reminder models
+     * @return ImportRow, or null if the row was rejected (error recorded in the report)
+     */
+    private ImportRow parseRow(int userId, long line, List<String> record, int[] columnIndex, ImportReport report) {
+        String name = column(record, columnIndex[0]);
+        String dosage = column(record, columnIndex[1]);
+        String notes = column(record, columnIndex[2]);
+        String dateStr = column(record, columnIndex[3]);
+        String timeStr = column(record, columnIndex[4]);
+
+        if (name == null) {
+            report.addError(line, "Medicine name is required");
+            return null;
+        }
+        if (name.length() > 100) {
+            report.addError(line, "Medicine name is longer than 100 characters");
+            return null;
+        }
+        if (dosage != null && dosage.length() > 50) {
+            report.addError(line, "Dosage is longer than 50 characters");
+            return null;
+        }
+        if ((dateStr == null) != (timeStr == null)) {
+            report.addError(line, "Reminder date and time must be given together");
+            return null;
+        }
+
+        Medicine medicine = new Medicine(userId, name, dosage, notes);
+        Reminder reminder = null;
+
+        if (dateStr != null) {
+            try {
+                Date reminderDate = Date.valueOf(dateStr);
+                Time reminderTime = Time.valueOf(timeStr.length() == 5 ? timeStr + ":00" : timeStr);
+                reminder = new Reminder(userId, 0, reminderDate, reminderTime);
+            } catch (IllegalArgumentException e) {
+                report.addError(line, "Invalid date or time format, expected YYYY-MM-DD and HH:MM");
+                return null;
+            }
+        }
+
+        return new ImportRow(line, medicine, reminder);
+    }
+
+    /**
+     * Writer side of the pipeline: drain the queue in batches until END
+     * Uses one request-scoped connection for the whole import
+     */
+    private void writeLoop(BlockingQueue<ImportRow> queue, Map<String, Integer> medicineIds, ImportReport report) {
+        List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+        boolean scoped = false;
+        boolean done = false;
+
+        try {
+            DBConnection.beginRequestScope();
+            scoped = true;
+        } catch (SQLException e) {
+            System.err.println("Import writer could not open a connection, using one per batch: " + e.getMessage());
+        }
+
+        try {
+            while (!done) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+
+                int endIndex = batch.indexOf(END);
+                if (endIndex >= 0) {
+                    batch.subList(endIndex, batch.size()).clear();
+                    done = true;
+                }
+
+                try {
+                    writeBatch(batch, medicineIds, report);
+                } catch (RuntimeException e) {
+                    // Keep draining so the parser never blocks on a full queue
+                    System.err.println("Error writing import batch: " + e.getMessage());
+                    e.printStackTrace();
+                    for (ImportRow row : batch) {
+                        report.addError(row.line, "Could not save row");
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!done) {
+                drainToEnd(queue, batch, report);
+            }
+            if (scoped) {
+                DBConnection.endRequestScope();
+            }
+        }
+    }
+
+    /**
+     * Consume the rest of the queue after the writer stopped early,
+     * so the parser never waits on a queue nobody drains
+     */
+    private static void drainToEnd(BlockingQueue<ImportRow> queue, List<ImportRow> batch, ImportReport report) {
+        // A batch never holds END while the loop is still running
+        for (ImportRow row : batch) {
+            report.addError(row.line, "Could not save row");
+        }
+        try {
+            ImportRow row;
+            while ((row = queue.take()) != END) {
+                report.addError(row.line, "Could not save row");
+            }
+        } catch (InterruptedException e) {
+            // Only the parser interrupts the writer, when it gives up on the import
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(List<ImportRow> batch, Map<String, Integer> medicineIds, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Create medicines not seen before (once each, even if repeated in the batch)
+        Map<String, Medicine> newMedicines = new HashMap<>();
+        for (ImportRow row : batch) {
+            String key = medicineKey(row.medicine);
+            if (!medicineIds.containsKey(key)) {
+                newMedicines.putIfAbsent(key, row.medicine);
+            }
+        }
+
+        if (!newMedicines.isEmpty()) {
+            List<Medicine> toSave = new ArrayList<>(newMedicines.values());
+            if (medicineService.addMedicines(toSave)) {
+                for (Medicine medicine : toSave) {
+                    medicineIds.put(medicineKey(medicine), medicine.getId());
+                }
+                report.addMedicinesCreated(toSave.size());
+            }
+        }
+
+        // Then the reminders, pointing at the resolved medicine IDs
+        List<Reminder> reminders = new ArrayList<>();
+        List<ImportRow> reminderRows = new ArrayList<>();
+        for (ImportRow row : batch) {
+            Integer medicineId = medicineIds.get(medicineKey(row.medicine));
+            if (medicineId == null) {
+                report.addError(row.line, "Could not save medicine");
+                continue;
+            }
+            if (row.reminder != null) {
+                row.reminder.setMedicineId(medicineId);
+                reminders.add(row.reminder);
+                reminderRows.add(row);
+            }
+        }
+
+        if (reminderService.addReminders(reminders)) {
+            report.addRemindersCreated(reminders.size());
+        } else {
+            for (ImportRow row : reminderRows) {
+                report.addError(row.line, "Could not save reminder");
+            }
+        }
+    }
+
+    private Map<String, Integer> loadMedicineIds(int userId) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (Medicine medicine : medicineService.getUserMedicines(userId)) {
+            ids.putIfAbsent(medicineKey(medicine), medicine.getId());
+        }
+        return ids;
+    }
+
+    private static String medicineKey(Medicine medicine) {
+        String dosage = medicine.getDosage() == null ? "" : medicine.getDosage().trim();
+        return (medicine.getName().trim() + "\u0000" + dosage).toLowerCase(Locale.ROOT);
+    }
+
+    private static String column(List<String> record, int index) {
+        if (index < 0 || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(List<String> record) {
+        for (String value : record) {
+            if (!value.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One validated CSV row on its way to the writer
+     */
+    private static final class ImportRow {
+        final long line;
+        final Medicine medicine;
+        final Reminder reminder;
+
+        ImportRow(long line, Medicine medicine, Reminder reminder) {
+            this.line = line;
+            this.medicine = medicine;
+            this.reminder = reminder;
+        }
+    }
+}
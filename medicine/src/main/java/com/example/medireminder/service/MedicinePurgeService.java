@@ -0,0 +1,129 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.AdherenceDao;
+import com.example.medireminder.dao.MedicineDao;
+import com.example.medireminder.dao.ReminderArchiveDao;
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.DBConnection;
+import com.example.medireminder.util.Metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Removes soft-deleted medicines and their reminder history in the background
+ *
+ * Each run takes the oldest deletions and hard-deletes their reminders in
+ * chunks of purge.chunkSize rows, keyset-ordered by reminder ID, pausing
+ * purge.pauseMillis between chunks so the purge never holds locks for long
+ * or crowds out user traffic. A run stops after purge.maxChunksPerRun chunks;
+ * the next run resumes where it stopped. Archived reminders are purged the
+ * same way. Once a medicine has no reminders left, the medicine row and its
+ * adherence rollup are removed in one transaction.
+ *
+ * Progress is reported under "purge.*" in GET /metrics.
+ */
+public class MedicinePurgeService {
+    private static final int CHUNK_SIZE = Math.max(1, AppConfig.getInt("purge.chunkSize", 1000));
+    private static final long PAUSE_MILLIS = Math.max(0, AppConfig.getLong("purge.pauseMillis", 50));
+    private static final int MAX_CHUNKS_PER_RUN = Math.max(1, AppConfig.getInt("purge.maxChunksPerRun", 200));
+    private static final int MEDICINES_PER_RUN = Math.max(1, AppConfig.getInt("purge.medicinesPerRun", 100));
+
+    // Last reminder ID purged per medicine, so the next run continues the keyset scan
+    private static final Map<Integer, Integer> PROGRESS = new ConcurrentHashMap<>();
+    private static final Map<Integer, Integer> ARCHIVE_PROGRESS = new ConcurrentHashMap<>();
+    private static volatile int backlog;
+
+    static {
+        Metrics.gauge("purge.backlogMedicines", () -> backlog);
+    }
+
+    private final MedicineDao medicineDao;
+    private final AdherenceDao adherenceDao;
+    private final ReminderDao reminderDao;
+    private final ReminderArchiveDao archiveDao;
+    private int chunks;
+
+    public MedicinePurgeService() {
+        this(new MedicineDao(), new AdherenceDao(), new ReminderDao(), new ReminderArchiveDao());
+    }
+
+    MedicinePurgeService(MedicineDao medicineDao, AdherenceDao adherenceDao, ReminderDao reminderDao,
+                         ReminderArchiveDao archiveDao) {
+        this.medicineDao = medicineDao;
+        this.adherenceDao = adherenceDao;
+        this.reminderDao = reminderDao;
+        this.archiveDao = archiveDao;
+    }
+
+    /**
+     * Purge soft-deleted medicines until the run's chunk budget is used up
+     * @throws InterruptedException if the run is interrupted while pausing
+     */
+    public void runOnce() throws InterruptedException {
+        List<Integer> medicineIds = medicineDao.findDeletedIds(MEDICINES_PER_RUN);
+        backlog = medicineIds.size();
+        chunks = 0;
+
+        for (int medicineId : medicineIds) {
+            if (!drain(medicineId, PROGRESS, reminderDao::purgeChunkByMedicine)) {
+                return;
+            }
+            if (ReminderArchiveService.ENABLED
+                    && !drain(medicineId, ARCHIVE_PROGRESS, archiveDao::purgeChunkByMedicine)) {
+                return;
+            }
+
+            boolean purged = DBConnection.inTransaction(() ->
+                    adherenceDao.deleteByMedicine(medicineId) && medicineDao.purgeById(medicineId));
+            if (purged) {
+                Metrics.increment("purge.medicinesPurged");
+                backlog = Math.max(0, backlog - 1);
+            }
+        }
+    }
+
+    /**
+     * Delete one medicine's rows from one table chunk by chunk
+     * @return true once no rows are left; false if the run's budget ran out
+     *         or the database failed (progress is kept for the next run)
+     */
+    private boolean drain(int medicineId, Map<Integer, Integer> progress, ChunkPurger purger)
+            throws InterruptedException {
+        int afterId = progress.getOrDefault(medicineId, 0);
+
+        while (true) {
+            if (chunks == MAX_CHUNKS_PER_RUN) {
+                progress.put(medicineId, afterId);
+                return false;
+            }
+            if (chunks > 0 && PAUSE_MILLIS > 0) {
+                Thread.sleep(PAUSE_MILLIS);
+            }
+
+            long start = System.currentTimeMillis();
+            int lastId = purger.purgeChunk(medicineId, afterId, CHUNK_SIZE);
+            chunks++;
+            if (lastId < 0) {
+                progress.put(medicineId, afterId);
+                return false;
+            }
+            if (lastId == 0) {
+                progress.remove(medicineId);
+                return true;
+            }
+            Metrics.recordMillis("purge.chunkMillis", System.currentTimeMillis() - start);
+            Metrics.increment("purge.chunks");
+            afterId = lastId;
+        }
+    }
+
+    /**
+     * One keyset chunk delete (see ReminderDao#purgeChunkByMedicine)
+     */
+    private interface ChunkPurger {
+        int purgeChunk(int medicineId, int afterId, int limit);
+    }
+}
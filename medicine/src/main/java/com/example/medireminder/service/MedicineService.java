@@ -2,18 +2,30 @@ package com.example.medireminder.service;
 
 import com.example.medireminder.dao.MedicineDao;
 import com.example.medireminder.model.Medicine;
+import com.example.medireminder.util.DBConnection;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service layer for Medicine operations
  * Contains business logic for medicine management
+ * Each write, its change log entry and its user version bump commit in one transaction.
  */
 public class MedicineService {
     private final MedicineDao medicineDao;
+    private final CalendarService calendarService;
+    private final DayScheduleIndex dayScheduleIndex;
+    private final CacheCoherenceService cacheCoherence;
+    private final SyncService syncService;
 
     public MedicineService() {
         this.medicineDao = new MedicineDao();
+        this.calendarService = new CalendarService();
+        this.dayScheduleIndex = new DayScheduleIndex();
+        this.cacheCoherence = new CacheCoherenceService();
+        this.syncService = new SyncService();
     }
 
     /**
@@ -35,7 +47,28 @@ public class MedicineService {
         Medicine medicine = new Medicine(userId, name, dosage, notes);
         
         // Save to database
-        return medicineDao.saveMedicine(medicine);
+        return DBConnection.inTransaction(() ->
+                medicineDao.saveMedicine(medicine)
+                        && syncService.recordMedicine(userId, medicine.getId(), false)
+                        && cacheCoherence.recordChange(userId));
+    }
+
+    /**
+     * Add several medicines in one batch (bulk import)
+     * Generated IDs are written back into the Medicine objects
+     * @param medicines Validated medicines to save
+     * @return true if all medicines were saved, false otherwise
+     */
+    public boolean addMedicines(List<Medicine> medicines) {
+        Set<Integer> userIds = new HashSet<>();
+        for (Medicine medicine : medicines) {
+            userIds.add(medicine.getUserId());
+        }
+
+        return DBConnection.inTransaction(() ->
+                medicineDao.saveMedicines(medicines)
+                        && syncService.recordMedicines(medicines)
+                        && cacheCoherence.recordChanges(userIds));
     }
 
     /**
@@ -53,7 +86,23 @@ public class MedicineService {
      * @return true if deletion was successful, false otherwise
      */
     public boolean deleteMedicine(int medicineId) {
-        return medicineDao.deleteById(medicineId);
+        Medicine medicine = medicineDao.findById(medicineId);
+        if (medicine == null) {
+            return false;
+        }
+
+        boolean success = DBConnection.inTransaction(() ->
+                medicineDao.deleteById(medicineId)
+                        && syncService.recordMedicine(medicine.getUserId(), medicineId, true)
+                        && cacheCoherence.recordChange(medicine.getUserId()));
+
+        // Reads skip the medicine's reminders at once; MedicinePurgeService removes them later
+        if (success) {
+            calendarService.invalidateUser(medicine.getUserId());
+            dayScheduleIndex.invalidateUser(medicine.getUserId());
+        }
+
+        return success;
     }
 
     /**
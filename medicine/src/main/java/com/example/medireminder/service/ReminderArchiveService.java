@@ -0,0 +1,96 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.ReminderArchiveDao;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.Metrics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Moves reminders older than archive.horizonDays into reminders_archive
+ *
+ * The archive is partitioned by month, so old history costs nothing in the
+ * hot table's indexes and old months can be dropped whole. Each run first
+ * adds the monthly partitions the moved rows need, then moves the oldest
+ * rows in batches of archive.batchSize, pausing archive.pauseMillis between
+ * batches and stopping after archive.maxBatchesPerRun.
+ *
+ * Readers call mayBeArchived to decide whether a range has to union in the
+ * archive; the horizon is computed from the date alone, so every node agrees
+ * without coordination.
+ */
+public class ReminderArchiveService {
+    public static final boolean ENABLED = AppConfig.getBoolean("archive.enabled", true);
+
+    // Never archive days the nightly adherence reconciliation still rebuilds from reminders
+    private static final int HORIZON_DAYS = Math.max(AppConfig.getInt("archive.horizonDays", 365),
+            AppConfig.getInt("adherence.reconcileDays", 7) + 1);
+    private static final int BATCH_SIZE = Math.max(1, AppConfig.getInt("archive.batchSize", 1000));
+    private static final long PAUSE_MILLIS = Math.max(0, AppConfig.getLong("archive.pauseMillis", 50));
+    private static final int MAX_BATCHES_PER_RUN = Math.max(1, AppConfig.getInt("archive.maxBatchesPerRun", 500));
+
+    private final ReminderArchiveDao archiveDao;
+
+    public ReminderArchiveService() {
+        this.archiveDao = new ReminderArchiveDao();
+    }
+
+    /**
+     * Check whether a history range may reach into the archive
+     * One day of slack covers nodes whose clocks straddle midnight.
+     * @param from First day of the range, or null for the whole history
+     * @return true if the archive must be read as well
+     */
+    public static boolean mayBeArchived(LocalDate from) {
+        if (!ENABLED) {
+            return false;
+        }
+        return from == null || from.isBefore(LocalDate.now().minusDays(HORIZON_DAYS - 1L));
+    }
+
+    /**
+     * Archive reminders past the horizon until none are left or the run's batch budget is used
+     * @throws InterruptedException if the run is interrupted while pausing
+     */
+    public void runOnce() throws InterruptedException {
+        LocalDate cutoff = LocalDate.now().minusDays(HORIZON_DAYS);
+        LocalDate oldest = archiveDao.findOldestReminderDate();
+        if (oldest == null || !oldest.isBefore(cutoff)) {
+            return;
+        }
+
+        LocalDate partitionedUntil = archiveDao.findPartitionedUntil();
+        if (partitionedUntil == null) {
+            System.err.println("Archive skipped: reminders_archive is missing (run add_reminders_archive.sql)");
+            return;
+        }
+
+        // Every moved row must land below the last monthly bound, never in p_future
+        while (partitionedUntil.isBefore(cutoff)) {
+            LocalDate from = oldest.isAfter(partitionedUntil) ? oldest : partitionedUntil;
+            YearMonth month = YearMonth.from(from);
+            if (!archiveDao.addMonthPartition(month)) {
+                return;
+            }
+            Metrics.increment("archive.partitionsAdded");
+            partitionedUntil = month.plusMonths(1).atDay(1);
+        }
+
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            if (batch > 0 && PAUSE_MILLIS > 0) {
+                Thread.sleep(PAUSE_MILLIS);
+            }
+            long start = System.currentTimeMillis();
+            int moved = archiveDao.archiveBatch(cutoff, BATCH_SIZE);
+            if (moved <= 0) {
+                return;
+            }
+            Metrics.recordMillis("archive.batchMillis", System.currentTimeMillis() - start);
+            Metrics.add("archive.rowsMoved", moved);
+            if (moved < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+}
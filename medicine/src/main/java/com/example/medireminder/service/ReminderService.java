@@ -1,21 +1,53 @@
 package com.example.medireminder.service;
 
+import com.example.medireminder.dao.AdherenceDao;
 import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.model.DaySchedule;
 import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.ReminderRange;
+import com.example.medireminder.notification.NotificationPipeline;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.DBConnection;
 
+import java.io.IOException;
 import java.sql.Date;
 import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service layer for Reminder operations
  * Contains business logic for reminder management
+ * Each write commits in one transaction with its adherence rollup delta, change
+ * log entry and user version bump; in-memory caches are updated after the commit.
  */
 public class ReminderService {
+    /** Doses may be claimed this many seconds before their time, to spread polls at round times */
+    private static final int PRESTAGE_SECONDS = Math.max(0, AppConfig.getInt("due.prestageSeconds", 30));
+    private static final int MAX_POLL_SECONDS = Math.max(1, AppConfig.getInt("due.maxPollSeconds", 900));
+
     private final ReminderDao reminderDao;
+    private final AdherenceDao adherenceDao;
+    private final CalendarService calendarService;
+    private final DayScheduleIndex dayScheduleIndex;
+    private final CacheCoherenceService cacheCoherence;
+    private final EscalationService escalationService;
+    private final SyncService syncService;
 
     public ReminderService() {
         this.reminderDao = new ReminderDao();
+        this.adherenceDao = new AdherenceDao();
+        this.calendarService = new CalendarService();
+        this.dayScheduleIndex = new DayScheduleIndex();
+        this.cacheCoherence = new CacheCoherenceService();
+        this.escalationService = new EscalationService();
+        this.syncService = new SyncService();
     }
 
     /**
@@ -41,35 +73,134 @@ public class ReminderService {
         // Create reminder object
         Reminder reminder = new Reminder(userId, medicineId, reminderDate, reminderTime);
         
-        // Save to database
-        return reminderDao.saveReminder(reminder);
+        // Save to database, keeping the adherence rollup in step
+        boolean saved = DBConnection.inTransaction(() -> {
+            if (!reminderDao.saveReminder(reminder)) {
+                return false;
+            }
+            adherenceDao.applyDelta(userId, medicineId, reminderDate, 1, 0);
+            return syncService.recordReminder(userId, reminder.getId(), false)
+                    && cacheCoherence.recordChange(userId);
+        });
+
+        // Keep the calendar cache and day index in step
+        if (saved) {
+            calendarService.invalidate(reminder);
+            dayScheduleIndex.onAdded(reminder);
+        }
+
+        return saved;
+    }
+
+    /**
+     * Add several reminders in one batch (bulk import)
+     * @param reminders Validated reminders to save
+     * @return true if all reminders were saved, false otherwise
+     */
+    public boolean addReminders(List<Reminder> reminders) {
+        Set<Integer> userIds = new HashSet<>();
+        for (Reminder reminder : reminders) {
+            userIds.add(reminder.getUserId());
+        }
+
+        boolean saved = DBConnection.inTransaction(() -> {
+            if (!reminderDao.saveReminders(reminders)) {
+                return false;
+            }
+            adherenceDao.addScheduled(reminders);
+            return syncService.recordReminders(reminders) && cacheCoherence.recordChanges(userIds);
+        });
+
+        if (saved) {
+            for (Reminder reminder : reminders) {
+                calendarService.invalidate(reminder);
+                dayScheduleIndex.onAdded(reminder);
+            }
+        }
+
+        return saved;
     }
 
     /**
      * Get today's reminders for a user
+     * Served from the day index; falls back to the database if it cannot be loaded
      * @param userId User ID
      * @return List of Reminder objects
      */
     public List<Reminder> getTodayReminders(int userId) {
+        DaySchedule schedule = dayScheduleIndex.getToday(userId);
+        if (schedule != null) {
+            return schedule.toReminders();
+        }
         return reminderDao.findTodayRemindersByUserId(userId);
     }
 
     /**
-     * Get all reminders for a user
+     * Get a user's doses over a date range, including archived ones
+     * @param userId User ID
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return ReminderRange, or null on database error
+     */
+    public ReminderRange getReminderRange(int userId, LocalDate from, LocalDate to) {
+        return reminderDao.loadReminderRange(userId, from, to, ReminderArchiveService.mayBeArchived(from));
+    }
+
+    /**
+     * Get all reminders for a user, including archived history
      * @param userId User ID
      * @return List of Reminder objects
      */
     public List<Reminder> getAllReminders(int userId) {
-        return reminderDao.findByUserId(userId);
+        return reminderDao.findByUserId(userId, ReminderArchiveService.mayBeArchived(null));
+    }
+
+    /**
+     * Stream a user's full reminder history, oldest first, including archived rows
+     * @param userId User ID
+     * @param handler Called once per row (instances are reused between rows)
+     * @return true if all rows were streamed, false on database error
+     * @throws IOException if the handler fails to write a row
+     */
+    public boolean exportHistory(int userId, ReminderDao.HistoryRowHandler handler) throws IOException {
+        return reminderDao.streamHistory(userId, ReminderArchiveService.mayBeArchived(null), handler);
     }
 
     /**
      * Mark a reminder as taken
+     * Marking a dose that is already taken succeeds without changing anything
      * @param reminderId Reminder ID
-     * @return true if update was successful, false otherwise
+     * @return true if the dose is now taken, false otherwise
      */
     public boolean markReminderTaken(int reminderId) {
-        return reminderDao.markTaken(reminderId);
+        Reminder reminder = reminderDao.findById(reminderId);
+        if (reminder == null) {
+            return false;
+        }
+
+        // Only the call that flipped the row counts the dose, even under a double tap
+        int[] flipped = new int[1];
+        boolean success = DBConnection.inTransaction(() -> {
+            flipped[0] = reminderDao.markTaken(reminderId);
+            if (flipped[0] != 1) {
+                return flipped[0] == 0;
+            }
+            adherenceDao.applyDelta(reminder.getUserId(), reminder.getMedicineId(),
+                    reminder.getReminderDate(), 0, 1);
+            return syncService.recordReminder(reminder.getUserId(), reminderId, false)
+                    && cacheCoherence.recordChange(reminder.getUserId());
+        });
+        if (!success) {
+            return false;
+        }
+
+        if (flipped[0] == 1) {
+            calendarService.onTaken(reminder);
+            dayScheduleIndex.onTaken(reminder);
+            escalationService.cancel(reminderId);
+        }
+
+        return true;
     }
 
     /**
@@ -78,7 +209,28 @@ public class ReminderService {
      * @return true if deletion was successful, false otherwise
      */
     public boolean deleteReminder(int reminderId) {
-        return reminderDao.deleteById(reminderId);
+        Reminder reminder = reminderDao.findById(reminderId);
+        if (reminder == null) {
+            return false;
+        }
+
+        boolean success = DBConnection.inTransaction(() -> {
+            if (!reminderDao.deleteById(reminderId)) {
+                return false;
+            }
+            adherenceDao.applyDelta(reminder.getUserId(), reminder.getMedicineId(),
+                    reminder.getReminderDate(), -1, reminder.isTaken() ? -1 : 0);
+            return syncService.recordReminder(reminder.getUserId(), reminderId, true)
+                    && cacheCoherence.recordChange(reminder.getUserId());
+        });
+
+        if (success) {
+            calendarService.invalidate(reminder);
+            dayScheduleIndex.onDeleted(reminder);
+            escalationService.cancel(reminderId);
+        }
+
+        return success;
     }
 
     /**
@@ -99,4 +251,122 @@ public class ReminderService {
     public boolean markRemindersAsNotified(List<Integer> reminderIds) {
         return reminderDao.markAsNotified(reminderIds);
     }
+
+    /**
+     * Claim due reminders for notification
+     * Finds the user's due reminders and claims them with a conditional
+     * UPDATE per dose; only doses whose notified flag this call flipped in
+     * the database are returned, so a dose is handed out once even when
+     * several nodes (each with its own day index) poll for the same user.
+     * Candidates come from the day index when no earlier day has pending
+     * doses, so a poll with nothing due does not touch the database.
+     * Today's doses count as due up to due.prestageSeconds early.
+     * Claimed doses are also handed to the server-side notification pipeline
+     * and to missed-dose escalation.
+     * @param userId User ID
+     * @return List of claimed Reminder objects (empty if nothing is due or the claim failed)
+     */
+    public List<Reminder> claimDueReminders(int userId) {
+        List<Reminder> candidates = dayScheduleIndex.claimDue(userId, PRESTAGE_SECONDS);
+        boolean fromIndex = candidates != null;
+        if (!fromIndex) {
+            candidates = reminderDao.findDueRemindersForUser(userId, PRESTAGE_SECONDS);
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<Integer> candidateIds = toIds(candidates);
+        List<Integer> claimedIds = new ArrayList<>();
+        boolean written = DBConnection.inTransaction(() -> {
+            List<Integer> ids = reminderDao.claimNotified(candidateIds);
+            if (ids == null) {
+                return false;
+            }
+            claimedIds.addAll(ids);
+            return syncService.recordReminders(userId, ids, false)
+                    && (ids.isEmpty() || cacheCoherence.recordChange(userId));
+        });
+        if (!written) {
+            // Nothing was written; let the next poll try these doses again
+            if (fromIndex) {
+                dayScheduleIndex.releaseClaims(userId, candidates);
+            }
+            return new ArrayList<>();
+        }
+
+        // Doses another node claimed (or that were taken meanwhile) stay flagged
+        // in the index, which matches the database
+        Set<Integer> claimedSet = new HashSet<>(claimedIds);
+        List<Reminder> claimed = new ArrayList<>(claimedIds.size());
+        for (Reminder reminder : candidates) {
+            if (claimedSet.contains(reminder.getId())) {
+                reminder.setNotified(true);
+                claimed.add(reminder);
+            }
+        }
+
+        if (!fromIndex) {
+            dayScheduleIndex.onNotified(userId, candidates);
+        }
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+
+        calendarService.onNotified(claimed);
+        NotificationPipeline.submit(claimed);
+        escalationService.schedule(claimed);
+
+        return claimed;
+    }
+
+    /**
+     * Find when the user's next dose that still needs a notification is scheduled
+     * Today is answered from the day index; later days with one index seek.
+     * Doses inside the current pre-stage window are skipped (they are claimed already).
+     * @param userId User ID
+     * @return Date/time of the next pending dose, or null if there is none
+     */
+    public LocalDateTime findNextReminderAt(int userId) {
+        LocalDateTime from = LocalDateTime.now().plusSeconds(PRESTAGE_SECONDS);
+        LocalDate today = LocalDate.now();
+
+        DaySchedule schedule = dayScheduleIndex.getToday(userId);
+        if (schedule != null && schedule.getDay().equals(today) && from.toLocalDate().equals(today)) {
+            int minute = schedule.nextPendingMinute(from.toLocalTime().toSecondOfDay());
+            if (minute >= 0) {
+                return today.atTime(minute / 60, minute % 60);
+            }
+            from = today.plusDays(1).atStartOfDay();
+        }
+        return reminderDao.findNextPendingReminderAt(userId, from);
+    }
+
+    /**
+     * Suggest when a client should next poll for due reminders
+     * The poll lands at a random point in the next dose's pre-stage window, so
+     * clients with the same dose time (08:00, 20:00...) do not all arrive in the
+     * same second. Polls are never further apart than due.maxPollSeconds (give or
+     * take 10%), so doses added from another device are still picked up.
+     * @param nextReminderAt Next pending dose (from findNextReminderAt), or null
+     * @return Seconds until the next poll (at least 1)
+     */
+    public int suggestNextPollSeconds(LocalDateTime nextReminderAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = MAX_POLL_SECONDS * (90L + random.nextInt(21)) / 100;
+
+        if (nextReminderAt != null) {
+            long windowOpens = Duration.between(LocalDateTime.now(), nextReminderAt).getSeconds() - PRESTAGE_SECONDS;
+            delay = Math.min(delay, windowOpens + random.nextInt(PRESTAGE_SECONDS + 1));
+        }
+        return (int) Math.max(1, delay);
+    }
+
+    private static List<Integer> toIds(List<Reminder> reminders) {
+        List<Integer> reminderIds = new ArrayList<>(reminders.size());
+        for (Reminder reminder : reminders) {
+            reminderIds.add(reminder.getId());
+        }
+        return reminderIds;
+    }
 }
@@ -0,0 +1,238 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.ChangeLogDao;
+import com.example.medireminder.dao.ReminderDao.HistoryRowHandler;
+import com.example.medireminder.dao.MedicineDao;
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.SyncChange;
+import com.example.medireminder.model.SyncResult;
+import com.example.medireminder.model.SyncState;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.Metrics;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service layer for delta sync (GET /sync)
+ *
+ * Every medicine and reminder write records the changed IDs in the user's
+ * change log under a new sequence number, in the write's own transaction
+ * (see DBConnection.inTransaction), so a committed change is always in the
+ * log and a failed log write rolls the change back. A client that sends the last
+ * number it saw gets only what changed after it: current rows for inserts
+ * and updates, IDs for deletes. The log keeps one row per changed row, so a
+ * dose updated many times is sent once.
+ *
+ * Log rows older than sync.retentionDays are compacted away by a background
+ * job (SyncCompactionListener), which raises the user's floor. Clients
+ * behind the floor, new clients (since=0) and clients with a number the
+ * server never handed out get a full resync instead; its reminders are
+ * streamed (streamReminders) rather than loaded into one list.
+ */
+public class SyncService {
+    private static final int MAX_CHANGES = Math.max(1, AppConfig.getInt("sync.maxChanges", 1000));
+    private static final int RETENTION_DAYS = Math.max(1, AppConfig.getInt("sync.retentionDays", 30));
+    private static final int COMPACT_USERS_PER_RUN = Math.max(1, AppConfig.getInt("sync.compactUsersPerRun", 500));
+    private static final int COMPACT_CHUNK_SIZE = Math.max(1, AppConfig.getInt("sync.compactChunkSize", 1000));
+
+    private final ChangeLogDao changeLogDao;
+    private final MedicineDao medicineDao;
+    private final ReminderDao reminderDao;
+
+    public SyncService() {
+        this.changeLogDao = new ChangeLogDao();
+        this.medicineDao = new MedicineDao();
+        this.reminderDao = new ReminderDao();
+    }
+
+    /**
+     * Record a medicine insert, update or delete
+     * @param userId User ID
+     * @param medicineId Medicine ID
+     * @param deleted true for a delete
+     * @return true if logged, false on database error
+     */
+    public boolean recordMedicine(int userId, int medicineId, boolean deleted) {
+        return record(userId, SyncChange.MEDICINE, Collections.singletonList(medicineId), deleted);
+    }
+
+    /**
+     * Record inserts or updates of several medicines (any users)
+     * @param medicines Medicines with IDs set
+     * @return true if logged, false on database error
+     */
+    public boolean recordMedicines(List<Medicine> medicines) {
+        Map<Integer, List<Integer>> byUser = new LinkedHashMap<>();
+        for (Medicine medicine : medicines) {
+            byUser.computeIfAbsent(medicine.getUserId(), id -> new ArrayList<>()).add(medicine.getId());
+        }
+        for (Map.Entry<Integer, List<Integer>> entry : byUser.entrySet()) {
+            if (!record(entry.getKey(), SyncChange.MEDICINE, entry.getValue(), false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Record a reminder insert, update or delete
+     * @param userId User ID
+     * @param reminderId Reminder ID
+     * @param deleted true for a delete
+     * @return true if logged, false on database error
+     */
+    public boolean recordReminder(int userId, int reminderId, boolean deleted) {
+        return record(userId, SyncChange.REMINDER, Collections.singletonList(reminderId), deleted);
+    }
+
+    /**
+     * Record changes to several reminders of one user
+     * @param userId User ID
+     * @param reminderIds Reminder IDs
+     * @param deleted true for deletes
+     * @return true if logged, false on database error
+     */
+    public boolean recordReminders(int userId, List<Integer> reminderIds, boolean deleted) {
+        return record(userId, SyncChange.REMINDER, reminderIds, deleted);
+    }
+
+    /**
+     * Record inserts or updates of several reminders (any users)
+     * @param reminders Reminders with IDs set
+     * @return true if logged, false on database error
+     */
+    public boolean recordReminders(List<Reminder> reminders) {
+        Map<Integer, List<Integer>> byUser = new LinkedHashMap<>();
+        for (Reminder reminder : reminders) {
+            byUser.computeIfAbsent(reminder.getUserId(), id -> new ArrayList<>()).add(reminder.getId());
+        }
+        for (Map.Entry<Integer, List<Integer>> entry : byUser.entrySet()) {
+            if (!record(entry.getKey(), SyncChange.REMINDER, entry.getValue(), false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean record(int userId, String entity, List<Integer> ids, boolean deleted) {
+        if (changeLogDao.record(userId, entity, ids, deleted) < 0) {
+            // The caller's transaction rolls back, taking the write with it
+            Metrics.increment("sync.recordFailures");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get what changed for a user since a sequence number
+     * @param userId User ID
+     * @param since Last sequence number the client has (0 if none)
+     * @return SyncResult (full or delta), or null on database error
+     */
+    public SyncResult sync(int userId, long since) {
+        SyncState state = changeLogDao.findState(userId);
+        if (state == null) {
+            return null;
+        }
+
+        if (since <= 0 || since < state.getFloorSeq() || since > state.getSeq()) {
+            return fullSync(userId, state);
+        }
+
+        List<SyncChange> changes = changeLogDao.findSince(userId, since, MAX_CHANGES + 1);
+        if (changes == null) {
+            return null;
+        }
+        boolean more = changes.size() > MAX_CHANGES;
+        if (more) {
+            changes = changes.subList(0, MAX_CHANGES);
+        }
+
+        List<Integer> medicineIds = new ArrayList<>();
+        List<Integer> reminderIds = new ArrayList<>();
+        List<Integer> deletedMedicineIds = new ArrayList<>();
+        List<Integer> deletedReminderIds = new ArrayList<>();
+        long seq = state.getSeq();
+        for (SyncChange change : changes) {
+            boolean medicine = SyncChange.MEDICINE.equals(change.getEntity());
+            if (change.isDeleted()) {
+                (medicine ? deletedMedicineIds : deletedReminderIds).add(change.getEntityId());
+            } else {
+                (medicine ? medicineIds : reminderIds).add(change.getEntityId());
+            }
+            // Changes committed after the state was read may be included
+            seq = more ? change.getSeq() : Math.max(seq, change.getSeq());
+        }
+
+        // Rows that are gone by now (a delete not yet logged, or archived history)
+        // are simply not returned; a delete always brings its own log row
+        List<Medicine> medicines = medicineDao.findByIds(userId, medicineIds);
+        List<Reminder> reminders = reminderDao.findByIds(userId, reminderIds);
+        if (medicines == null || reminders == null) {
+            return null;
+        }
+
+        SyncResult result = new SyncResult(false, seq, more, medicines, reminders);
+        result.getDeletedMedicineIds().addAll(deletedMedicineIds);
+        result.getDeletedReminderIds().addAll(deletedReminderIds);
+
+        Metrics.increment("sync.delta");
+        Metrics.add("sync.changesSent", changes.size());
+        return result;
+    }
+
+    // The sequence number is read before the rows, so changes made meanwhile are sent again next time
+    private SyncResult fullSync(int userId, SyncState state) {
+        List<Medicine> medicines = medicineDao.findByUserId(userId);
+
+        Metrics.increment("sync.full");
+        return new SyncResult(true, state.getSeq(), false, medicines, null);
+    }
+
+    /**
+     * Stream every reminder of a user, including archived history, for a full result
+     * @param userId User ID
+     * @param handler Called once per row (instances are reused between rows)
+     * @return true if all rows were streamed, false on database error
+     * @throws IOException if the handler fails to write a row
+     */
+    public boolean streamReminders(int userId, HistoryRowHandler handler) throws IOException {
+        return reminderDao.streamHistory(userId, ReminderArchiveService.mayBeArchived(null), handler);
+    }
+
+    /**
+     * Drop change log rows older than sync.retentionDays
+     * Each user's floor is raised before their rows are deleted, so a client
+     * never misses a change: it is either in the log or the client resyncs.
+     * @return Number of rows deleted
+     */
+    public int compactOnce() {
+        long start = System.nanoTime();
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - RETENTION_DAYS * 86_400_000L);
+        Map<Integer, Long> users = changeLogDao.findCompactable(cutoff, COMPACT_USERS_PER_RUN);
+
+        int deleted = 0;
+        for (Map.Entry<Integer, Long> entry : users.entrySet()) {
+            if (!changeLogDao.raiseFloor(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            int rows;
+            do {
+                rows = changeLogDao.deleteChunk(entry.getKey(), entry.getValue(), COMPACT_CHUNK_SIZE);
+                deleted += Math.max(0, rows);
+            } while (rows == COMPACT_CHUNK_SIZE);
+        }
+
+        Metrics.add("sync.compactedRows", deleted);
+        Metrics.recordMillis("sync.compactMillis", (System.nanoTime() - start) / 1_000_000);
+        return deleted;
+    }
+}
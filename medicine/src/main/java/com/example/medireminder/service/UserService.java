@@ -2,10 +2,16 @@ package com.example.medireminder.service;
 
 import com.example.medireminder.dao.UserDao;
 import com.example.medireminder.model.User;
+import com.example.medireminder.util.Metrics;
+import com.example.medireminder.util.PasswordHasher;
 
 /**
  * Service layer for User operations
  * Contains business logic for user management
+ *
+ * Passwords are stored as salted slow hashes (see PasswordHasher). Accounts
+ * still holding a plaintext or cheaper hash are upgraded on their next login.
+ * Hashing may throw RejectedExecutionException when the hashing pool is saturated.
  */
 public class UserService {
     private final UserDao userDao;
@@ -39,12 +45,12 @@ public class UserService {
         }
 
         // Create and save user
-        User user = new User(username, password);
+        User user = new User(username, PasswordHasher.hash(password));
         boolean saved = userDao.saveUser(user);
         
         if (saved) {
             // Retrieve the saved user to get the generated ID
-            return userDao.findByUsernameAndPassword(username, password);
+            return userDao.findByUsername(username);
         }
         
         return null;
@@ -68,11 +74,22 @@ public class UserService {
             return null;
         }
 
-        // Find user by username and password
-        User user = userDao.findByUsernameAndPassword(username, password);
+        // Unknown users are checked against a dummy hash, so they take as long as known ones
+        User user = userDao.findByUsername(username);
+        String stored = user != null ? user.getPassword() : null;
         
-        if (user == null) {
+        if (!PasswordHasher.verify(password, stored)) {
             System.err.println("Invalid username or password");
+            return null;
+        }
+        
+        // Migrate plaintext or cheaper hashes now that the password is known
+        if (PasswordHasher.needsRehash(stored)) {
+            String upgraded = PasswordHasher.hash(password);
+            if (userDao.updatePassword(user.getId(), stored, upgraded)) {
+                user.setPassword(upgraded);
+                Metrics.increment("password.migrated");
+            }
         }
         
         return user;
@@ -0,0 +1,125 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.AdherenceDao;
+import com.example.medireminder.dao.MedicineDao;
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.dao.UserDao;
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.util.AppConfig;
+import com.example.medireminder.util.DBConnection;
+import com.example.medireminder.util.JsonSupport;
+import com.example.medireminder.util.Metrics;
+import com.example.medireminder.util.PasswordHasher;
+import com.example.medireminder.util.ProtobufSupport;
+import com.google.gson.reflect.TypeToken;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pays the first-request costs before the node takes traffic
+ *
+ * 1. opens warmup.connections connections into the idle pool (this also runs
+ *    DBConnection's static init and loads the driver)
+ * 2. runs every hot DAO read against a user that does not exist, so the
+ *    statements, result-set paths and the dependent classes are loaded and
+ *    compiled while returning no rows
+ * 3. serializes sample reminders and medicines to JSON and protobuf
+ *    warmup.iterations times, so the codecs are JIT-compiled
+ * 4. derives one password hash, so the first login does not pay for it
+ */
+public class WarmupService {
+    private static final int CONNECTIONS = AppConfig.getInt("warmup.connections", DBConnection.getMaxConnections());
+    private static final int ITERATIONS = Math.max(1, AppConfig.getInt("warmup.iterations", 2000));
+
+    // AUTO_INCREMENT IDs start at 1, so this matches nothing
+    private static final int NO_USER = 0;
+
+    /**
+     * Run the warm-up
+     * @return true if every step succeeded (the node is still usable if not)
+     */
+    public boolean warmUp() {
+        long start = System.currentTimeMillis();
+        boolean ok = true;
+
+        try {
+            int idle = DBConnection.warmUp(CONNECTIONS);
+            System.out.println("Warm-up: " + idle + " connection(s) open");
+        } catch (SQLException e) {
+            System.err.println("Warm-up could not open connections: " + e.getMessage());
+            ok = false;
+        }
+        Metrics.recordMillis("warmup.connectionsMillis", System.currentTimeMillis() - start);
+
+        long queriesStart = System.currentTimeMillis();
+        if (ok) {
+            warmQueries();
+        }
+        Metrics.recordMillis("warmup.queriesMillis", System.currentTimeMillis() - queriesStart);
+
+        long codecStart = System.currentTimeMillis();
+        warmCodecs();
+        Metrics.recordMillis("warmup.codecsMillis", System.currentTimeMillis() - codecStart);
+
+        long passwordStart = System.currentTimeMillis();
+        PasswordHasher.warmUp();
+        Metrics.recordMillis("warmup.passwordMillis", System.currentTimeMillis() - passwordStart);
+
+        Metrics.recordMillis("warmup.totalMillis", System.currentTimeMillis() - start);
+        return ok;
+    }
+
+    private void warmQueries() {
+        ReminderDao reminderDao = new ReminderDao();
+        MedicineDao medicineDao = new MedicineDao();
+        AdherenceDao adherenceDao = new AdherenceDao();
+        UserDao userDao = new UserDao();
+        LocalDate today = LocalDate.now();
+
+        userDao.findById(NO_USER);
+        userDao.usernameExists("");
+        medicineDao.findByUserId(NO_USER);
+        medicineDao.findById(NO_USER);
+        reminderDao.findTodayRemindersByUserId(NO_USER);
+        reminderDao.findByUserId(NO_USER, ReminderArchiveService.mayBeArchived(null));
+        reminderDao.findById(NO_USER);
+        reminderDao.loadDaySchedule(NO_USER, today);
+        reminderDao.loadDoseCalendarMonth(NO_USER, YearMonth.from(today));
+        reminderDao.findDueRemindersForUser(NO_USER, 0);
+        reminderDao.findNextPendingReminderAt(NO_USER, LocalDateTime.now());
+        adherenceDao.findByUserAndRange(NO_USER, Date.valueOf(today.minusDays(30)), Date.valueOf(today));
+    }
+
+    private void warmCodecs() {
+        List<Reminder> reminders = new ArrayList<>();
+        List<Medicine> medicines = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            Reminder reminder = new Reminder(i, NO_USER, i, Date.valueOf(LocalDate.now()),
+                    Time.valueOf(LocalTime.of(i % 24, 0)), i % 2 == 0, i % 3 == 0);
+            reminder.setMedicineName("Medicine " + i);
+            reminders.add(reminder);
+            medicines.add(new Medicine(i, NO_USER, "Medicine " + i, "10mg", "Warm-up"));
+        }
+
+        int bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            String json = JsonSupport.GSON.toJson(reminders);
+            List<Reminder> parsed = JsonSupport.GSON.fromJson(json, new TypeToken<List<Reminder>>() { }.getType());
+            bytes += json.length() + parsed.size();
+            bytes += JsonSupport.GSON.toJson(medicines).length();
+            bytes += ProtobufSupport.reminderList(true, null, reminders).getSerializedSize();
+            bytes += ProtobufSupport.medicineList(true, null, medicines).getSerializedSize();
+        }
+        // Keep the loop from being optimized away
+        Metrics.add("warmup.codecBytes", bytes);
+    }
+}
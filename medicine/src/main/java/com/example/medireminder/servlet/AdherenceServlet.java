@@ -0,0 +1,97 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.service.AdherenceService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servlet for adherence statistics
+ * Endpoint: GET /adherence?from=YYYY-MM-DD&to=YYYY-MM-DD&period=day|week
+ *
+ * Defaults to the last 30 days grouped by day. Answers from the
+ * adherence_daily rollup, so cost grows with the number of days, not doses.
+ */
+@WebServlet(value = "/adherence", asyncSupported = true)
+public class AdherenceServlet extends HttpServlet {
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final AdherenceService adherenceService = new AdherenceService();
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * GET - Adherence percentages for the logged-in user
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        Map<String, Object> jsonResponse = new HashMap<>();
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "User not logged in");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+
+            String fromStr = request.getParameter("from");
+            String toStr = request.getParameter("to");
+            String period = request.getParameter("period");
+
+            LocalDate to = toStr == null || toStr.trim().isEmpty() ? LocalDate.now() : LocalDate.parse(toStr.trim());
+            LocalDate from = fromStr == null || fromStr.trim().isEmpty()
+                    ? to.minusDays(DEFAULT_RANGE_DAYS - 1) : LocalDate.parse(fromStr.trim());
+
+            if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "Date range must be between 1 and " + MAX_RANGE_DAYS + " days");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            jsonResponse.put("success", true);
+            jsonResponse.put("adherence", adherenceService.getAdherence(userId, from, to, period));
+
+        } catch (DateTimeParseException e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "Invalid date format, expected YYYY-MM-DD");
+        } catch (Exception e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
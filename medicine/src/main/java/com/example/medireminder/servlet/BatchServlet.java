@@ -0,0 +1,174 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.service.DuePollerTracker;
+import com.example.medireminder.service.MedicineService;
+import com.example.medireminder.service.ReminderService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.example.medireminder.util.DBConnection;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Servlet for batched API calls
+ * Endpoint: POST /batch
+ *
+ * Runs several read operations in one HTTP request, one session lookup and
+ * one request-scoped database connection. Request body:
+ * {"clientId": "tab-1",
+ *  "requests": [{"id": "medicines", "path": "/medicines"},
+ *               {"id": "reminders", "path": "/reminders"},
+ *               {"id": "due", "path": "/reminders/due"}]}
+ *
+ * clientId is optional and means the same as on GET /reminders/due: a due
+ * sub-request records it as a poll from that tab.
+ *
+ * The response maps each id to the same JSON the standalone endpoint returns:
+ * {"success": true, "responses": {"medicines": {...}, "reminders": {...}, "due": {...}}}
+ */
+@WebServlet(value = "/batch", asyncSupported = true)
+public class BatchServlet extends HttpServlet {
+    private static final int MAX_SUB_REQUESTS = 10;
+
+    private final MedicineService medicineService = new MedicineService();
+    private final ReminderService reminderService = new ReminderService();
+    private final DuePollerTracker pollerTracker = new DuePollerTracker();
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * POST - Execute a list of sub-requests for the logged-in user
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        Map<String, Object> jsonResponse = new HashMap<>();
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "User not logged in");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+
+            JsonObject body = parseBody(request);
+            JsonArray subRequests = body == null ? null : getArray(body, "requests");
+            if (subRequests == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "Request body must contain a 'requests' array");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            if (subRequests.size() > MAX_SUB_REQUESTS) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "At most " + MAX_SUB_REQUESTS + " requests per batch");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            String clientId = getString(body, "clientId");
+
+            // All sub-requests share one connection
+            Map<String, Object> responses = new LinkedHashMap<>();
+            DBConnection.beginRequestScope();
+            try {
+                for (int i = 0; i < subRequests.size(); i++) {
+                    JsonObject subRequest = subRequests.get(i).getAsJsonObject();
+                    String path = getString(subRequest, "path");
+                    String id = getString(subRequest, "id");
+                    responses.put(id != null ? id : String.valueOf(i), execute(userId, clientId, path));
+                }
+            } finally {
+                DBConnection.endRequestScope();
+            }
+
+            jsonResponse.put("success", true);
+            jsonResponse.put("responses", responses);
+
+        } catch (JsonParseException | IllegalStateException e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "Invalid batch request format");
+        } catch (Exception e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+
+    /**
+     * Run one sub-request and build the response the standalone endpoint would send
+     */
+    private Map<String, Object> execute(int userId, String clientId, String path) {
+        Map<String, Object> result = new HashMap<>();
+
+        if ("/medicines".equals(path)) {
+            result.put("success", true);
+            result.put("medicines", medicineService.getUserMedicines(userId));
+        } else if ("/reminders".equals(path)) {
+            result.put("success", true);
+            result.put("reminders", reminderService.getTodayReminders(userId));
+        } else if ("/reminders/due".equals(path)) {
+            pollerTracker.recordPoll(userId, clientId);
+            result.put("success", true);
+            result.put("reminders", reminderService.claimDueReminders(userId));
+            LocalDateTime nextReminderAt = reminderService.findNextReminderAt(userId);
+            result.put("nextReminderAt", JsonSupport.formatDateTime(nextReminderAt));
+            result.put("nextPollSeconds", reminderService.suggestNextPollSeconds(nextReminderAt));
+        } else {
+            result.put("success", false);
+            result.put("message", "Unsupported path: " + path);
+        }
+
+        return result;
+    }
+
+    private JsonObject parseBody(HttpServletRequest request) throws IOException {
+        JsonElement body = JsonParser.parseReader(request.getReader());
+        return body != null && body.isJsonObject() ? body.getAsJsonObject() : null;
+    }
+
+    private JsonArray getArray(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value != null && value.isJsonArray() ? value.getAsJsonArray() : null;
+    }
+
+    private String getString(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.model.CalendarFeed;
+import com.example.medireminder.service.CalendarFeedService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.example.medireminder.util.Metrics;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servlet for the iCalendar feed of a user's doses
+ * Endpoints:
+ * - GET /calendar/feed?token=... - the feed (text/calendar); the token is the only credential,
+ *   so calendar apps can subscribe without a session
+ * - POST /calendar/feed - create or rotate the logged-in user's token and return the feed URL
+ * - POST /calendar/feed?action=revoke - revoke the logged-in user's token
+ *
+ * Feed responses carry ETag and Last-Modified; conditional polls of an
+ * unchanged feed get 304 without reading any reminders.
+ */
+@WebServlet(value = "/calendar/feed", asyncSupported = true)
+public class CalendarFeedServlet extends HttpServlet {
+    private final CalendarFeedService calendarFeedService = new CalendarFeedService();
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * GET - The feed for a token
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        CalendarFeed feed = calendarFeedService.resolve(request.getParameter("token"));
+        if (feed == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown calendar feed");
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        String etag = calendarFeedService.versionEtag(feed, today);
+        long lastModified = calendarFeedService.lastModified(feed, today);
+
+        if (etag != null && notModified(request, etag, lastModified)) {
+            writeNotModified(response, etag, lastModified);
+            return;
+        }
+
+        byte[] body = calendarFeedService.getFeed(feed, today);
+        if (body == null) {
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Could not load calendar feed");
+            return;
+        }
+
+        if (etag == null) {
+            // No version to go by: the body is always regenerated, only the transfer is saved
+            etag = CalendarFeedService.contentEtag(body);
+            lastModified = -1;
+            if (notModified(request, etag, -1)) {
+                writeNotModified(response, etag, -1);
+                return;
+            }
+        }
+
+        response.setContentType("text/calendar");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "inline; filename=\"medicine-reminders.ics\"");
+        setValidators(response, etag, lastModified);
+        response.setContentLength(body.length);
+
+        OutputStream out = response.getOutputStream();
+        out.write(body);
+        out.flush();
+    }
+
+    /**
+     * POST - Create, rotate or revoke the logged-in user's feed token
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        Map<String, Object> jsonResponse = new HashMap<>();
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "User not logged in");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+
+            if ("revoke".equals(request.getParameter("action"))) {
+                jsonResponse.put("success", calendarFeedService.revokeToken(userId));
+                jsonResponse.put("message", "Calendar feed revoked");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            String token = calendarFeedService.createToken(userId);
+            if (token == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "Failed to create calendar feed");
+            } else {
+                jsonResponse.put("success", true);
+                jsonResponse.put("message", "Calendar feed created; any previous feed URL no longer works");
+                jsonResponse.put("token", token);
+                jsonResponse.put("feedUrl", feedUrl(request, token));
+            }
+
+        } catch (Exception e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+
+    // If-None-Match wins over If-Modified-Since (RFC 7232 section 6)
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (lastModified < 0) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void writeNotModified(HttpServletResponse response, String etag, long lastModified) {
+        Metrics.increment("ics.notModified");
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        setValidators(response, etag, lastModified);
+    }
+
+    private static void setValidators(HttpServletResponse response, String etag, long lastModified) {
+        response.setHeader("ETag", etag);
+        if (lastModified >= 0) {
+            response.setDateHeader("Last-Modified", lastModified);
+        }
+        // Polls must revalidate so a taken dose shows up on the next refresh
+        response.setHeader("Cache-Control", "private, no-cache");
+    }
+
+    private static String feedUrl(HttpServletRequest request, String token) {
+        StringBuilder url = new StringBuilder();
+        url.append(request.getScheme()).append("://").append(request.getServerName());
+        int port = request.getServerPort();
+        if (!(port == 80 && "http".equals(request.getScheme())) && !(port == 443 && "https".equals(request.getScheme()))) {
+            url.append(':').append(port);
+        }
+        url.append(request.getContextPath()).append("/calendar/feed?token=").append(token);
+        return url.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.model.DoseCalendarMonth;
+import com.example.medireminder.service.CalendarService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servlet for the adherence calendar heatmap
+ * Endpoint: GET /reminders/calendar?from=YYYY-MM&to=YYYY-MM
+ *
+ * Returns one bitmap-encoded entry per month (see DoseCalendarMonth).
+ * Defaults to the current month; at most 24 months per request.
+ */
+@WebServlet(value = "/reminders/calendar", asyncSupported = true)
+public class CalendarServlet extends HttpServlet {
+    private static final int MAX_MONTHS = 24;
+
+    private final CalendarService calendarService = new CalendarService();
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * GET - Dose calendar months for the logged-in user
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        Map<String, Object> jsonResponse = new HashMap<>();
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "User not logged in");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+
+            String fromStr = request.getParameter("from");
+            String toStr = request.getParameter("to");
+            YearMonth from = fromStr == null || fromStr.trim().isEmpty() ? YearMonth.now() : YearMonth.parse(fromStr.trim());
+            YearMonth to = toStr == null || toStr.trim().isEmpty() ? from : YearMonth.parse(toStr.trim());
+
+            if (from.isAfter(to) || from.plusMonths(MAX_MONTHS).isBefore(to.plusMonths(1))) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "Month range must be between 1 and " + MAX_MONTHS + " months");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            List<Map<String, Object>> months = new ArrayList<>();
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                DoseCalendarMonth calendarMonth = calendarService.getMonth(userId, month);
+                if (calendarMonth == null) {
+                    throw new IllegalStateException("Could not load calendar for " + month);
+                }
+                months.add(calendarMonth.toWireFormat());
+            }
+
+            jsonResponse.put("success", true);
+            jsonResponse.put("months", months);
+
+        } catch (DateTimeParseException e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "Invalid month format, expected YYYY-MM");
+        } catch (Exception e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.model.User;
+import com.example.medireminder.service.CaregiverService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servlet for caregiver access
+ * Endpoints:
+ * - GET /caregivers - the logged-in user's caregivers and patients
+ * - POST /caregivers - grant a caregiver (caregiverUsername) access to the logged-in user's schedule
+ */
+@WebServlet(value = "/caregivers", asyncSupported = true)
+public class CaregiverServlet extends HttpServlet {
+    private final CaregiverService caregiverService = new CaregiverService();
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * GET - List who can see the logged-in user, and whom they look after
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        Map<String, Object> jsonResponse = new HashMap<>();
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "User not logged in");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+
+            jsonResponse.put("success", true);
+            jsonResponse.put("caregivers", toJson(caregiverService.getCaregivers(userId)));
+            jsonResponse.put("patients", toJson(caregiverService.getPatients(userId)));
+
+        } catch (Exception e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+
+    /**
+     * POST - Grant a caregiver access to the logged-in user's schedule
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        Map<String, Object> jsonResponse = new HashMap<>();
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "User not logged in");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+            String caregiverUsername = request.getParameter("caregiverUsername");
+
+            if (caregiverUsername == null || caregiverUsername.trim().isEmpty()) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "Caregiver username is required");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            if (caregiverService.grantAccess(userId, caregiverUsername)) {
+                jsonResponse.put("success", true);
+                jsonResponse.put("message", "Caregiver added successfully");
+            } else {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "Unknown caregiver, or caregiver cannot take more patients");
+            }
+
+        } catch (Exception e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+
+    // Only ID and username; never the stored password
+    private List<Map<String, Object>> toJson(List<User> users) {
+        List<Map<String, Object>> result = new ArrayList<>(users.size());
+        for (User user : users) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", user.getId());
+            entry.put("username", user.getUsername());
+            result.add(entry);
+        }
+        return result;
+    }
+}
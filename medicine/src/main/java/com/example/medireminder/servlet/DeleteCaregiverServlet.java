@@ -0,0 +1,91 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.service.CaregiverService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servlet for removing caregiver access
+ * Endpoint: POST /caregivers/delete
+ * - caregiverId: the logged-in patient revokes that caregiver's access
+ * - patientId: the logged-in caregiver stops looking after that patient
+ */
+@WebServlet(value = "/caregivers/delete", asyncSupported = true)
+public class DeleteCaregiverServlet extends HttpServlet {
+    private final CaregiverService caregiverService = new CaregiverService();
+    private final Gson gson = JsonSupport.GSON;
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        Map<String, Object> jsonResponse = new HashMap<>();
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "User not logged in");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+            String caregiverIdStr = request.getParameter("caregiverId");
+            String patientIdStr = request.getParameter("patientId");
+
+            boolean success;
+            if (caregiverIdStr != null && !caregiverIdStr.trim().isEmpty()) {
+                success = caregiverService.revokeAccess(Integer.parseInt(caregiverIdStr.trim()), userId);
+            } else if (patientIdStr != null && !patientIdStr.trim().isEmpty()) {
+                success = caregiverService.revokeAccess(userId, Integer.parseInt(patientIdStr.trim()));
+            } else {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "Caregiver ID or patient ID is required");
+                out.print(gson.toJson(jsonResponse));
+                return;
+            }
+
+            if (success) {
+                jsonResponse.put("success", true);
+                jsonResponse.put("message", "Caregiver access removed");
+            } else {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "No such caregiver access");
+            }
+
+        } catch (NumberFormatException e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "Invalid ID format");
+        } catch (Exception e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.medireminder.servlet;
 
 import com.example.medireminder.model.Reminder;
+import com.example.medireminder.service.DuePollerTracker;
 import com.example.medireminder.service.ReminderService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.example.medireminder.util.ProtobufSupport;
 import com.google.gson.Gson;
 
 import javax.servlet.ServletException;
@@ -12,7 +16,7 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,10 +30,11 @@ import java.util.Map;
  * 2. Returns them as JSON to the frontend
  * 3. Marks them as notified to prevent duplicate notifications
  */
-@WebServlet("/reminders/due")
+@WebServlet(value = "/reminders/due", asyncSupported = true)
 public class DueRemindersServlet extends HttpServlet {
     private final ReminderService reminderService = new ReminderService();
-    private final Gson gson = new Gson();
+    private final DuePollerTracker pollerTracker = new DuePollerTracker();
+    private final Gson gson = JsonSupport.GSON;
 
     /**
      * GET - Retrieve due reminders for the logged-in user
@@ -41,6 +46,18 @@ public class DueRemindersServlet extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        // Same URL serves JSON and protobuf, so caches must key on Accept
+        response.setHeader("Vary", "Accept");
+        if (ProtobufSupport.acceptsProtobuf(request)) {
+            handleGetProtobuf(request, response);
+            return;
+        }
         
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
@@ -59,27 +76,17 @@ public class DueRemindersServlet extends HttpServlet {
             }
 
             int userId = (Integer) session.getAttribute("userId");
+            pollerTracker.recordPoll(userId, request.getParameter("clientId"));
 
             // Get all due reminders for this user (not taken, not notified, time passed)
-            List<Reminder> dueReminders = reminderService.getDueReminders(userId);
-
-            if (dueReminders != null && !dueReminders.isEmpty()) {
-                // Collect reminder IDs to mark as notified
-                List<Integer> reminderIds = new ArrayList<>();
-                for (Reminder reminder : dueReminders) {
-                    reminderIds.add(reminder.getId());
-                }
-
-                // Mark all these reminders as notified to prevent duplicate notifications
-                reminderService.markRemindersAsNotified(reminderIds);
-
-                jsonResponse.put("success", true);
-                jsonResponse.put("reminders", dueReminders);
-            } else {
-                // No due reminders - return empty list
-                jsonResponse.put("success", true);
-                jsonResponse.put("reminders", new ArrayList<>());
-            }
+            // and mark them as notified to prevent duplicate notifications
+            List<Reminder> dueReminders = reminderService.claimDueReminders(userId);
+
+            jsonResponse.put("success", true);
+            jsonResponse.put("reminders", dueReminders);
+            LocalDateTime nextReminderAt = reminderService.findNextReminderAt(userId);
+            jsonResponse.put("nextReminderAt", JsonSupport.formatDateTime(nextReminderAt));
+            jsonResponse.put("nextPollSeconds", reminderService.suggestNextPollSeconds(nextReminderAt));
 
         } catch (Exception e) {
             jsonResponse.put("success", false);
@@ -90,4 +97,35 @@ public class DueRemindersServlet extends HttpServlet {
         out.print(gson.toJson(jsonResponse));
         out.flush();
     }
+
+    /**
+     * GET with Accept: application/x-protobuf - same data as a ReminderList message
+     */
+    private void handleGetProtobuf(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                ProtobufSupport.write(response, ProtobufSupport.reminderList(false, "User not logged in", null));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+            pollerTracker.recordPoll(userId, request.getParameter("clientId"));
+            List<Reminder> dueReminders = reminderService.claimDueReminders(userId);
+
+            LocalDateTime nextReminderAt = reminderService.findNextReminderAt(userId);
+
+            ProtobufSupport.write(response, ProtobufSupport.reminderList(true, null, dueReminders).toBuilder()
+                    .setNextPollSeconds(reminderService.suggestNextPollSeconds(nextReminderAt))
+                    .setNextReminderAt(ProtobufSupport.toEpochSeconds(nextReminderAt))
+                    .build());
+
+        } catch (Exception e) {
+            ProtobufSupport.write(response, ProtobufSupport.reminderList(false, "An error occurred: " + e.getMessage(), null));
+            e.printStackTrace();
+        }
+    }
 }
@@ -0,0 +1,187 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.service.ReminderService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servlet for exporting a user's complete dose history
+ * Endpoint: GET /export?format=ndjson|csv&gzip=true
+ *
+ * Rows are streamed from a forward-only database cursor straight to the
+ * response, so memory use does not depend on the number of rows.
+ * gzip is used when requested explicitly or when the client accepts it.
+ */
+@WebServlet(value = "/export", asyncSupported = true)
+public class ExportServlet extends HttpServlet {
+    private static final String CSV_HEADER =
+            "reminder_id,reminder_date,reminder_time,medicine_id,medicine_name,dosage,notes,taken,notified\n";
+
+    private final ReminderService reminderService;
+    private final Gson gson = JsonSupport.GSON;
+
+    public ExportServlet() {
+        this(new ReminderService());
+    }
+
+    ExportServlet(ReminderService reminderService) {
+        this.reminderService = reminderService;
+    }
+
+    /**
+     * GET - Stream the logged-in user's dose history
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        // Check if user is logged in
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("userId") == null) {
+            writeError(response, "User not logged in");
+            return;
+        }
+
+        int userId = (Integer) session.getAttribute("userId");
+
+        String format = request.getParameter("format");
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (format != null && !csv && !"ndjson".equalsIgnoreCase(format)) {
+            writeError(response, "Unsupported format, use ndjson or csv");
+            return;
+        }
+
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        boolean gzip = "true".equalsIgnoreCase(request.getParameter("gzip"))
+                || (acceptEncoding != null && acceptEncoding.contains("gzip"));
+
+        String fileName = "medication-history-" + LocalDate.now() + (csv ? ".csv" : ".ndjson");
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        response.setHeader("Vary", "Accept-Encoding");
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+
+        OutputStream stream = response.getOutputStream();
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, 8192);
+        }
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 16384)) {
+            if (csv) {
+                out.write(CSV_HEADER);
+            }
+
+            boolean complete = reminderService.exportHistory(userId, (reminder, medicine) -> {
+                if (csv) {
+                    writeCsvRow(out, reminder, medicine);
+                } else {
+                    writeJsonRow(out, reminder, medicine);
+                }
+            });
+
+            if (!complete) {
+                // Headers are already sent; the truncated body is all we can signal
+                System.err.println("Export for user " + userId + " ended early due to a database error");
+            }
+        }
+    }
+
+    private void writeJsonRow(Writer out, Reminder reminder, Medicine medicine) throws IOException {
+        out.write("{\"reminderId\":");
+        out.write(Integer.toString(reminder.getId()));
+        out.write(",\"reminderDate\":\"");
+        out.write(reminder.getReminderDate().toString());
+        out.write("\",\"reminderTime\":\"");
+        out.write(reminder.getReminderTime().toString());
+        out.write("\",\"medicineId\":");
+        out.write(Integer.toString(medicine.getId()));
+        out.write(",\"medicineName\":");
+        out.write(gson.toJson(medicine.getName()));
+        out.write(",\"dosage\":");
+        out.write(gson.toJson(medicine.getDosage()));
+        out.write(",\"notes\":");
+        out.write(gson.toJson(medicine.getNotes()));
+        out.write(",\"taken\":");
+        out.write(reminder.isTaken() ? "true" : "false");
+        out.write(",\"notified\":");
+        out.write(reminder.isNotified() ? "true" : "false");
+        out.write("}\n");
+    }
+
+    private void writeCsvRow(Writer out, Reminder reminder, Medicine medicine) throws IOException {
+        out.write(Integer.toString(reminder.getId()));
+        out.write(',');
+        out.write(reminder.getReminderDate().toString());
+        out.write(',');
+        out.write(reminder.getReminderTime().toString());
+        out.write(',');
+        out.write(Integer.toString(medicine.getId()));
+        out.write(',');
+        writeCsvField(out, medicine.getName());
+        out.write(',');
+        writeCsvField(out, medicine.getDosage());
+        out.write(',');
+        writeCsvField(out, medicine.getNotes());
+        out.write(',');
+        out.write(reminder.isTaken() ? '1' : '0');
+        out.write(',');
+        out.write(reminder.isNotified() ? '1' : '0');
+        out.write('\n');
+    }
+
+    // RFC 4180 quoting: only quote fields that need it
+    private void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private void writeError(HttpServletResponse response, String message) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        Map<String, Object> jsonResponse = new HashMap<>();
+        jsonResponse.put("success", false);
+        jsonResponse.put("message", message);
+
+        PrintWriter out = response.getWriter();
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
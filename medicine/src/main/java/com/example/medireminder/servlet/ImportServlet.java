@@ -0,0 +1,126 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.model.ImportReport;
+import com.example.medireminder.service.ImportService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.Part;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servlet for bulk import of medicines and reminders from CSV
+ * Endpoint: POST /import
+ *
+ * Accepts either a raw text/csv request body or a multipart form upload
+ * with the file in a part named "file". Columns:
+ * medicine_name,dosage,notes,reminder_date,reminder_time
+ */
+@WebServlet(value = "/import", asyncSupported = true)
+@MultipartConfig(fileSizeThreshold = 1024 * 1024)
+public class ImportServlet extends HttpServlet {
+    private final ImportService importService = new ImportService();
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * POST - Import a CSV file for the logged-in user
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        Map<String, Object> jsonResponse = new HashMap<>();
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                jsonResponse.put("success", false);
+                jsonResponse.put("message", "User not logged in");
+                writeJson(response, jsonResponse);
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+
+            ImportReport report;
+            try (Reader source = openSource(request)) {
+                if (source == null) {
+                    jsonResponse.put("success", false);
+                    jsonResponse.put("message", "CSV file is required");
+                    writeJson(response, jsonResponse);
+                    return;
+                }
+                report = importService.importCsv(userId, source);
+            }
+
+            jsonResponse.put("success", report.getRowsFailed() == 0);
+            jsonResponse.put("message", report.getRowsFailed() == 0
+                    ? "Import completed"
+                    : "Import completed with " + report.getRowsFailed() + " rejected rows");
+            jsonResponse.put("rowsRead", report.getRowsRead());
+            jsonResponse.put("medicinesCreated", report.getMedicinesCreated());
+            jsonResponse.put("remindersCreated", report.getRemindersCreated());
+            jsonResponse.put("rowsFailed", report.getRowsFailed());
+            jsonResponse.put("errors", report.getErrors());
+            jsonResponse.put("errorsTruncated", report.isErrorsTruncated());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "Import was interrupted");
+        } catch (IOException e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "Could not read CSV: " + e.getMessage());
+        } catch (Exception e) {
+            jsonResponse.put("success", false);
+            jsonResponse.put("message", "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        writeJson(response, jsonResponse);
+    }
+
+    /**
+     * Open the uploaded CSV as a character stream without reading it into memory
+     */
+    private Reader openSource(HttpServletRequest request) throws IOException, ServletException {
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+            Part part = request.getPart("file");
+            return part == null ? null : new InputStreamReader(part.getInputStream(), StandardCharsets.UTF_8);
+        }
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+        return request.getReader();
+    }
+
+    private void writeJson(HttpServletResponse response, Map<String, Object> jsonResponse) throws IOException {
+        PrintWriter out = response.getWriter();
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
@@ -2,6 +2,8 @@ package com.example.medireminder.servlet;
 
 import com.example.medireminder.model.User;
 import com.example.medireminder.service.UserService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
 import com.google.gson.Gson;
 
 import javax.servlet.ServletException;
@@ -14,19 +16,25 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Servlet for user login
  * Endpoint: POST /login
  */
-@WebServlet("/login")
+@WebServlet(value = "/login", asyncSupported = true)
 public class LoginServlet extends HttpServlet {
     private final UserService userService = new UserService();
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonSupport.GSON;
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         
         // Set response type to JSON
         response.setContentType("application/json");
@@ -67,6 +75,10 @@ public class LoginServlet extends HttpServlet {
                 jsonResponse.put("message", "Invalid username or password");
             }
 
+        } catch (RejectedExecutionException e) {
+            // Password hashing pool is saturated
+            AsyncDispatcher.writeBusy(response);
+            return;
         } catch (Exception e) {
             jsonResponse.put("success", false);
             jsonResponse.put("message", "An error occurred: " + e.getMessage());
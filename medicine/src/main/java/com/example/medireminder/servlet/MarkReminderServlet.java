@@ -1,6 +1,8 @@
 package com.example.medireminder.servlet;
 
 import com.example.medireminder.service.ReminderService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
 import com.google.gson.Gson;
 
 import javax.servlet.ServletException;
@@ -18,14 +20,19 @@ import java.util.Map;
  * Servlet for marking reminders as taken
  * Endpoint: POST /reminders/markTaken
  */
-@WebServlet("/reminders/markTaken")
+@WebServlet(value = "/reminders/markTaken", asyncSupported = true)
 public class MarkReminderServlet extends HttpServlet {
     private final ReminderService reminderService = new ReminderService();
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonSupport.GSON;
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
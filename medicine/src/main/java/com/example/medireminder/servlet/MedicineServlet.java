@@ -2,6 +2,9 @@ package com.example.medireminder.servlet;
 
 import com.example.medireminder.model.Medicine;
 import com.example.medireminder.service.MedicineService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.example.medireminder.util.ProtobufSupport;
 import com.google.gson.Gson;
 
 import javax.servlet.ServletException;
@@ -22,10 +25,10 @@ import java.util.Map;
  * - GET /medicines - get all medicines for logged-in user
  * - POST /medicines - add a new medicine
  */
-@WebServlet("/medicines")
+@WebServlet(value = "/medicines", asyncSupported = true)
 public class MedicineServlet extends HttpServlet {
     private final MedicineService medicineService = new MedicineService();
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonSupport.GSON;
 
     /**
      * GET - Retrieve all medicines for the logged-in user
@@ -33,6 +36,18 @@ public class MedicineServlet extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        // Same URL serves JSON and protobuf, so caches must key on Accept
+        response.setHeader("Vary", "Accept");
+        if (ProtobufSupport.acceptsProtobuf(request)) {
+            handleGetProtobuf(request, response);
+            return;
+        }
         
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
@@ -68,12 +83,42 @@ public class MedicineServlet extends HttpServlet {
         out.flush();
     }
 
+    /**
+     * GET with Accept: application/x-protobuf - same data as a MedicineList message
+     */
+    private void handleGetProtobuf(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                ProtobufSupport.write(response, ProtobufSupport.medicineList(false, "User not logged in", null));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+            List<Medicine> medicines = medicineService.getUserMedicines(userId);
+
+            ProtobufSupport.write(response, ProtobufSupport.medicineList(true, null, medicines));
+
+        } catch (Exception e) {
+            ProtobufSupport.write(response, ProtobufSupport.medicineList(false, "An error occurred: " + e.getMessage(), null));
+            e.printStackTrace();
+        }
+    }
+
     /**
      * POST - Add a new medicine
      */
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
@@ -0,0 +1,47 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.util.JsonSupport;
+import com.example.medireminder.util.Metrics;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servlet for operational metrics
+ * Endpoint: GET /metrics
+ *
+ * Answered directly on the container thread, not through AsyncDispatcher:
+ * it touches no database and must keep working when the DB slots are full.
+ */
+@WebServlet("/metrics")
+public class MetricsServlet extends HttpServlet {
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * GET - Return every registered metric
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+
+        Map<String, Object> jsonResponse = new HashMap<>();
+        jsonResponse.put("success", true);
+        jsonResponse.put("metrics", Metrics.snapshot());
+
+        PrintWriter out = response.getWriter();
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.util.JsonSupport;
+import com.example.medireminder.util.Readiness;
+import com.google.gson.Gson;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servlet for load balancer readiness checks
+ * Endpoint: GET /ready
+ *
+ * 200 once startup warm-up has finished, 503 before. Answered directly on the
+ * container thread like /metrics, and never rate limited.
+ */
+@WebServlet("/ready")
+public class ReadyServlet extends HttpServlet {
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * GET - Report readiness
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        boolean ready = Readiness.isReady();
+        response.setStatus(ready ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+
+        Map<String, Object> jsonResponse = new HashMap<>();
+        jsonResponse.put("success", ready);
+        jsonResponse.put("message", ready ? "Ready" : "Warming up");
+
+        PrintWriter out = response.getWriter();
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
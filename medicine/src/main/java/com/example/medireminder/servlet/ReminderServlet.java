@@ -1,7 +1,11 @@
 package com.example.medireminder.servlet;
 
 import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.ReminderRange;
 import com.example.medireminder.service.ReminderService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.example.medireminder.util.ProtobufSupport;
 import com.google.gson.Gson;
 
 import javax.servlet.ServletException;
@@ -14,6 +18,9 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.sql.Date;
 import java.sql.Time;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,12 +29,15 @@ import java.util.Map;
  * Servlet for reminder operations
  * Endpoints:
  * - GET /reminders/today - get today's reminders
+ * - GET /reminders?from=YYYY-MM-DD&to=YYYY-MM-DD - doses in a date range, columnar (see ReminderRange)
  * - POST /reminders - add a new reminder
  */
-@WebServlet("/reminders")
+@WebServlet(value = "/reminders", asyncSupported = true)
 public class ReminderServlet extends HttpServlet {
+    private static final int MAX_RANGE_DAYS = 366;
+
     private final ReminderService reminderService = new ReminderService();
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonSupport.GSON;
 
     /**
      * GET - Retrieve today's reminders for the logged-in user
@@ -35,6 +45,22 @@ public class ReminderServlet extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        // Same URL serves JSON and protobuf, so caches must key on Accept
+        response.setHeader("Vary", "Accept");
+        if (request.getParameter("from") != null || request.getParameter("to") != null) {
+            handleGetRange(request, response);
+            return;
+        }
+        if (ProtobufSupport.acceptsProtobuf(request)) {
+            handleGetProtobuf(request, response);
+            return;
+        }
         
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
@@ -70,12 +96,114 @@ public class ReminderServlet extends HttpServlet {
         out.flush();
     }
 
+    /**
+     * GET with Accept: application/x-protobuf - same data as a ReminderList message
+     */
+    private void handleGetProtobuf(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                ProtobufSupport.write(response, ProtobufSupport.reminderList(false, "User not logged in", null));
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+            List<Reminder> reminders = reminderService.getTodayReminders(userId);
+
+            ProtobufSupport.write(response, ProtobufSupport.reminderList(true, null, reminders));
+
+        } catch (Exception e) {
+            ProtobufSupport.write(response, ProtobufSupport.reminderList(false, "An error occurred: " + e.getMessage(), null));
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * GET with from/to - doses in a date range as one ReminderRange (JSON or protobuf)
+     * One index range query; medicine names are sent once and referenced by index
+     */
+    private void handleGetRange(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        boolean protobuf = ProtobufSupport.acceptsProtobuf(request);
+
+        try {
+            // Check if user is logged in
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("userId") == null) {
+                writeRangeError(response, protobuf, "User not logged in");
+                return;
+            }
+
+            int userId = (Integer) session.getAttribute("userId");
+
+            String fromStr = request.getParameter("from");
+            String toStr = request.getParameter("to");
+            LocalDate from = fromStr == null || fromStr.trim().isEmpty() ? LocalDate.now() : LocalDate.parse(fromStr.trim());
+            LocalDate to = toStr == null || toStr.trim().isEmpty() ? from : LocalDate.parse(toStr.trim());
+
+            long days = ChronoUnit.DAYS.between(from, to) + 1;
+            if (days < 1 || days > MAX_RANGE_DAYS) {
+                writeRangeError(response, protobuf, "Date range must be between 1 and " + MAX_RANGE_DAYS + " days");
+                return;
+            }
+
+            ReminderRange range = reminderService.getReminderRange(userId, from, to);
+            if (range == null) {
+                writeRangeError(response, protobuf, "Failed to load reminders");
+                return;
+            }
+
+            if (protobuf) {
+                ProtobufSupport.write(response, ProtobufSupport.reminderRange(true, null, range));
+                return;
+            }
+
+            Map<String, Object> jsonResponse = new HashMap<>(range.toWireFormat());
+            jsonResponse.put("success", true);
+            writeJson(response, jsonResponse);
+
+        } catch (DateTimeParseException e) {
+            writeRangeError(response, protobuf, "Invalid date format, use YYYY-MM-DD");
+        } catch (Exception e) {
+            writeRangeError(response, protobuf, "An error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void writeRangeError(HttpServletResponse response, boolean protobuf, String message)
+            throws IOException {
+        if (protobuf) {
+            ProtobufSupport.write(response, ProtobufSupport.reminderRange(false, message, null));
+            return;
+        }
+        Map<String, Object> jsonResponse = new HashMap<>();
+        jsonResponse.put("success", false);
+        jsonResponse.put("message", message);
+        writeJson(response, jsonResponse);
+    }
+
+    private void writeJson(HttpServletResponse response, Map<String, Object> jsonResponse) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+
     /**
      * POST - Add a new reminder
      */
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handlePost);
+    }
+
+    private void handlePost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
@@ -0,0 +1,142 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.SyncResult;
+import com.example.medireminder.service.SyncService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servlet for delta sync of offline-capable clients
+ * Endpoint: GET /sync?since=<seq>
+ *
+ * Returns the medicines and reminders added or changed after seq, plus the
+ * IDs of deleted ones (a deleted medicine takes its reminders with it), and
+ * the new seq to send next time. "full": true means the lists hold
+ * everything and replace the client's copy: on the first call (since
+ * missing or 0), or when the client is behind compacted history.
+ * "more": true means the delta was cut short; call again with the new seq.
+ *
+ * The response is streamed, so a full result's reminders go straight from
+ * the database cursor to the client. "complete": false means the stream was
+ * cut by a database error; the client should discard the result and retry.
+ */
+@WebServlet(value = "/sync", asyncSupported = true)
+public class SyncServlet extends HttpServlet {
+    private final SyncService syncService = new SyncService();
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * GET - Changes since a sequence number for the logged-in user
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+
+        // Check if user is logged in
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("userId") == null) {
+            writeError(response, "User not logged in");
+            return;
+        }
+
+        int userId = (Integer) session.getAttribute("userId");
+
+        long since;
+        try {
+            String sinceStr = request.getParameter("since");
+            since = sinceStr == null || sinceStr.trim().isEmpty() ? 0 : Long.parseLong(sinceStr.trim());
+        } catch (NumberFormatException e) {
+            writeError(response, "Invalid since value");
+            return;
+        }
+
+        SyncResult result = syncService.sync(userId, since);
+        if (result == null) {
+            writeError(response, "Failed to load changes");
+            return;
+        }
+
+        try (JsonWriter json = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 16384))) {
+            json.beginObject();
+            json.name("success").value(true);
+            json.name("full").value(result.isFull());
+            json.name("seq").value(result.getSeq());
+            json.name("more").value(result.isMore());
+
+            json.name("medicines").beginArray();
+            for (Medicine medicine : result.getMedicines()) {
+                gson.toJson(medicine, Medicine.class, json);
+            }
+            json.endArray();
+
+            json.name("reminders").beginArray();
+            boolean complete = true;
+            if (result.isFull()) {
+                complete = syncService.streamReminders(userId,
+                        (reminder, medicine) -> gson.toJson(reminder, Reminder.class, json));
+            } else {
+                for (Reminder reminder : result.getReminders()) {
+                    gson.toJson(reminder, Reminder.class, json);
+                }
+            }
+            json.endArray();
+
+            writeIds(json, "deletedMedicineIds", result.getDeletedMedicineIds());
+            writeIds(json, "deletedReminderIds", result.getDeletedReminderIds());
+            json.name("complete").value(complete);
+            json.endObject();
+
+            if (!complete) {
+                // Headers are already sent; the flag is all we can signal
+                System.err.println("Full sync for user " + userId + " ended early due to a database error");
+            }
+        }
+    }
+
+    private static void writeIds(JsonWriter json, String name, List<Integer> ids) throws IOException {
+        json.name(name).beginArray();
+        for (int id : ids) {
+            json.value(id);
+        }
+        json.endArray();
+    }
+
+    private void writeError(HttpServletResponse response, String message) throws IOException {
+        Map<String, Object> jsonResponse = new HashMap<>();
+        jsonResponse.put("success", false);
+        jsonResponse.put("message", message);
+
+        PrintWriter out = response.getWriter();
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.User;
+import com.example.medireminder.service.CaregiverService;
+import com.example.medireminder.util.AsyncDispatcher;
+import com.example.medireminder.util.JsonSupport;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servlet for the caregiver ward view
+ * Endpoint: GET /ward
+ *
+ * Returns every linked patient and, sorted by time across patients, their
+ * doses for today plus untaken doses from the last ward.missedDays days.
+ * Each dose has a status: taken, missed (earlier day), due (time has passed)
+ * or upcoming. Doses are streamed from the database cursor to the response.
+ */
+@WebServlet(value = "/ward", asyncSupported = true)
+public class WardServlet extends HttpServlet {
+    private final CaregiverService caregiverService = new CaregiverService();
+    private final Gson gson = JsonSupport.GSON;
+
+    /**
+     * GET - Stream the logged-in caregiver's ward view
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AsyncDispatcher.dispatch(request, response, this::handleGet);
+    }
+
+    private void handleGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        // Check if user is logged in
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("userId") == null) {
+            writeError(response, "User not logged in");
+            return;
+        }
+
+        int caregiverId = (Integer) session.getAttribute("userId");
+        LocalDate today = LocalDate.now();
+        Date todayDate = Date.valueOf(today);
+        int nowMinute = LocalTime.now().toSecondOfDay() / 60;
+
+        List<User> patients = caregiverService.getPatients(caregiverId);
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonWriter json = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 16384))) {
+            json.beginObject();
+            json.name("success").value(true);
+            json.name("date").value(today.toString());
+            json.name("missedSince").value(caregiverService.missedSince(today).toString());
+
+            json.name("patients").beginArray();
+            for (User patient : patients) {
+                json.beginObject();
+                json.name("id").value(patient.getId());
+                json.name("username").value(patient.getUsername());
+                json.endObject();
+            }
+            json.endArray();
+
+            json.name("doses").beginArray();
+            boolean complete = patients.isEmpty() || caregiverService.streamWard(caregiverId, today,
+                    reminder -> writeDose(json, reminder, todayDate, nowMinute));
+            json.endArray();
+
+            json.name("complete").value(complete);
+            json.endObject();
+
+            if (!complete) {
+                // Headers are already sent; the flag is all we can signal
+                System.err.println("Ward view for caregiver " + caregiverId + " ended early due to a database error");
+            }
+        }
+    }
+
+    private void writeDose(JsonWriter json, Reminder reminder, Date today, int nowMinute) throws IOException {
+        LocalTime time = reminder.getReminderTime().toLocalTime();
+        String status;
+        if (reminder.isTaken()) {
+            status = "taken";
+        } else if (reminder.getReminderDate().before(today)) {
+            status = "missed";
+        } else if (time.getHour() * 60 + time.getMinute() <= nowMinute) {
+            status = "due";
+        } else {
+            status = "upcoming";
+        }
+
+        json.beginObject();
+        json.name("reminderId").value(reminder.getId());
+        json.name("patientId").value(reminder.getUserId());
+        json.name("medicineId").value(reminder.getMedicineId());
+        json.name("medicineName").value(reminder.getMedicineName());
+        json.name("reminderDate").value(reminder.getReminderDate().toString());
+        json.name("reminderTime").value(JsonSupport.formatTime(reminder.getReminderTime()));
+        json.name("status").value(status);
+        json.name("notified").value(reminder.isNotified());
+        json.endObject();
+    }
+
+    private void writeError(HttpServletResponse response, String message) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        Map<String, Object> jsonResponse = new HashMap<>();
+        jsonResponse.put("success", false);
+        jsonResponse.put("message", message);
+
+        PrintWriter out = response.getWriter();
+        out.print(gson.toJson(jsonResponse));
+        out.flush();
+    }
+}
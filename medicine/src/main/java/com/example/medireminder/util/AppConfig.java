@@ -0,0 +1,113 @@
+package com.example.medireminder.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Application Configuration Helper Class
+ * Loads tuning settings from app.properties file
+ * Every lookup takes a default so a missing file or key never breaks startup
+ */
+public class AppConfig {
+    private static final Properties PROPS = new Properties();
+
+    // Static block to load application configuration
+    static {
+        try (InputStream input = AppConfig.class.getClassLoader()
+                .getResourceAsStream("app.properties")) {
+
+            if (input == null) {
+                System.err.println("Unable to find app.properties file, using defaults");
+            } else {
+                PROPS.load(input);
+            }
+
+        } catch (IOException e) {
+            System.err.println("Error loading application configuration: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private AppConfig() {
+    }
+
+    /**
+     * Get a string setting
+     * @param key Property key
+     * @param defaultValue Value returned when the key is missing
+     * @return Configured value or the default
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = PROPS.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Get an integer setting
+     * @param key Property key
+     * @param defaultValue Value returned when the key is missing or invalid
+     * @return Configured value or the default
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid integer for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a long setting
+     * @param key Property key
+     * @param defaultValue Value returned when the key is missing or invalid
+     * @return Configured value or the default
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a decimal setting
+     * @param key Property key
+     * @param defaultValue Value returned when the key is missing or invalid
+     * @return Configured value or the default
+     */
+    public static double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a boolean setting
+     * @param key Property key
+     * @param defaultValue Value returned when the key is missing
+     * @return Configured value or the default
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.medireminder.util;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs servlet handlers on virtual threads using AsyncContext
+ *
+ * The container worker thread only starts the async cycle and returns to the pool.
+ * The blocking service/DAO work runs on a virtual thread, so a slow MySQL round trip
+ * no longer ties up one of Tomcat's platform threads.
+ *
+ * A fair semaphore sized to the connection limit sits in front of the database:
+ * at most that many handlers do DB work at once, the rest wait briefly and are
+ * rejected with 503 if no slot frees up in time. CPU-bound work such as password
+ * hashing can give its slot back while it runs (withoutPermit).
+ *
+ * If a handler outlives async.timeoutMillis, the container thread cuts the
+ * handler off from the response (see GuardedResponse), answers 503, completes
+ * the request and interrupts the handler. Whatever the handler writes after
+ * that is dropped, and exactly one side completes the AsyncContext, so a
+ * recycled request is never written to or completed twice.
+ */
+public class AsyncDispatcher {
+
+    /**
+     * A servlet handler body (what used to be the doGet/doPost method)
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws Exception;
+    }
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final int MAX_CONCURRENT_REQUESTS =
+            AppConfig.getInt("async.maxConcurrentRequests", DBConnection.getMaxConnections());
+    private static final long PERMIT_WAIT_MILLIS = AppConfig.getLong("async.permitWaitMillis", 2000);
+    private static final long TIMEOUT_MILLIS = AppConfig.getLong("async.timeoutMillis", 30000);
+
+    private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENT_REQUESTS, true);
+
+    // Whether the current handler thread holds a slot (each handler has its own virtual thread)
+    private static final ThreadLocal<Boolean> HOLDS_PERMIT = new ThreadLocal<>();
+
+    static {
+        Metrics.gauge("async.availablePermits", PERMITS::availablePermits);
+        Metrics.gauge("async.queuedRequests", PERMITS::getQueueLength);
+    }
+
+    private AsyncDispatcher() {
+    }
+
+    /**
+     * Start async processing and run the handler on a virtual thread
+     * The servlet must be declared with asyncSupported = true
+     * @param request Servlet request
+     * @param response Servlet response
+     * @param handler Handler that writes the response
+     */
+    public static void dispatch(HttpServletRequest request, HttpServletResponse response, Handler handler) {
+        long start = System.nanoTime();
+        GuardedResponse guarded = new GuardedResponse(response);
+        AsyncContext asyncContext = request.startAsync(request, guarded);
+        asyncContext.setTimeout(TIMEOUT_MILLIS);
+
+        // Set by whichever side completes the request first: the handler or the container
+        AtomicBoolean completed = new AtomicBoolean();
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                if (completed.compareAndSet(false, true)) {
+                    Metrics.increment("async.timeouts");
+                    // Waits for a write in progress; later ones fail in the handler
+                    guarded.close(raw -> {
+                        if (!raw.isCommitted()) {
+                            // Drop whatever the handler had buffered or set
+                            raw.reset();
+                            writeBusy(raw);
+                        }
+                    });
+                    interrupt(worker);
+                    asyncContext.complete();
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                if (completed.compareAndSet(false, true)) {
+                    guarded.close(null);
+                    interrupt(worker);
+                    asyncContext.complete();
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        EXECUTOR.execute(() -> {
+            worker.set(Thread.currentThread());
+            HttpServletRequest asyncRequest = (HttpServletRequest) asyncContext.getRequest();
+            HttpServletResponse asyncResponse = (HttpServletResponse) asyncContext.getResponse();
+            boolean acquired = false;
+
+            try {
+                if (completed.get()) {
+                    // Timed out while queued for a thread
+                    return;
+                }
+                acquired = PERMITS.tryAcquire(PERMIT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                if (!acquired) {
+                    if (!completed.get()) {
+                        writeBusy(asyncResponse);
+                    }
+                    return;
+                }
+                HOLDS_PERMIT.set(Boolean.TRUE);
+                handler.handle(asyncRequest, asyncResponse);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!completed.get()) {
+                    writeBusy(asyncResponse);
+                }
+            } catch (RejectedExecutionException e) {
+                // No slot to come back to after withoutPermit
+                if (!completed.get()) {
+                    writeBusy(asyncResponse);
+                }
+            } catch (Exception e) {
+                if (!completed.get()) {
+                    System.err.println("Error in async request handler: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            } finally {
+                if (acquired && HOLDS_PERMIT.get() == Boolean.TRUE) {
+                    PERMITS.release();
+                }
+                HOLDS_PERMIT.remove();
+                worker.set(null);
+                if (completed.compareAndSet(false, true)) {
+                    asyncContext.complete();
+                }
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                Metrics.recordMillis("async.requestMillis", millis);
+                Readiness.recordRequest(millis);
+            }
+        });
+    }
+
+    private static void interrupt(AtomicReference<Thread> worker) {
+        Thread thread = worker.get();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Run work that does not touch the database without holding the caller's slot
+     * The slot is released while the work runs and taken back afterwards, waiting
+     * in line for at most async.permitWaitMillis like a new request, so the
+     * handler can continue with DB work. Outside a dispatched handler the work
+     * simply runs.
+     * @param work Work to run, e.g. waiting for a password hash
+     * @return Result of the work
+     * @throws RejectedExecutionException if no slot frees up in time; dispatch
+     *         answers 503 if the handler does not catch it
+     */
+    public static <T> T withoutPermit(Callable<T> work) throws Exception {
+        if (HOLDS_PERMIT.get() != Boolean.TRUE) {
+            return work.call();
+        }
+        PERMITS.release();
+        HOLDS_PERMIT.set(Boolean.FALSE);
+        try {
+            return work.call();
+        } finally {
+            reacquire();
+        }
+    }
+
+    private static void reacquire() {
+        boolean acquired;
+        try {
+            acquired = PERMITS.tryAcquire(PERMIT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a request slot", e);
+        }
+        if (!acquired) {
+            Metrics.increment("async.reacquireTimeouts");
+            throw new RejectedExecutionException("No request slot freed up in time");
+        }
+        HOLDS_PERMIT.set(Boolean.TRUE);
+    }
+
+    /**
+     * Number of request slots currently free
+     * @return available permits
+     */
+    public static int availablePermits() {
+        return PERMITS.availablePermits();
+    }
+
+    /**
+     * Maximum number of requests doing service/DAO work at the same time
+     * @return configured concurrency limit
+     */
+    public static int maxConcurrentRequests() {
+        return MAX_CONCURRENT_REQUESTS;
+    }
+
+    /**
+     * Number of requests waiting for a free slot
+     * @return approximate queue length
+     */
+    public static int queuedRequests() {
+        return PERMITS.getQueueLength();
+    }
+
+    /**
+     * Answer 503 with Retry-After (unless the response is already committed)
+     * @param response Servlet response
+     */
+    public static void writeBusy(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            PrintWriter out = response.getWriter();
+            out.print("{\"success\":false,\"message\":\"Server is busy, please try again\"}");
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing busy response: " + e.getMessage());
+        }
+    }
+}
@@ -2,25 +2,45 @@ package com.example.medireminder.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BooleanSupplier;
 
 /**
  * Database Connection Helper Class
  * Manages database connections using JDBC
  * Loads configuration from db.properties file
+ *
+ * Closed connections are kept open in a small idle pool (db.maxIdle, default
+ * db.maxConnections) and handed out again, so a request does not pay for a
+ * new MySQL handshake; warmUp() fills the pool before traffic arrives.
  */
 public class DBConnection {
     private static String DB_URL;
     private static String DB_USERNAME;
     private static String DB_PASSWORD;
     private static String DB_DRIVER;
+    private static int MAX_CONNECTIONS = 10;
+    private static int MAX_IDLE = 10;
+    private static long IDLE_VALIDATE_MILLIS = 30000;
+
+    // Open connections waiting to be reused
+    private static BlockingQueue<IdleConnection> IDLE;
+
+    // Connection shared by every DAO call on this thread while a request scope is open
+    private static final ThreadLocal<Connection> REQUEST_CONNECTION = new ThreadLocal<>();
 
     // Static block to load database configuration
     static {
         loadDatabaseConfig();
+        IDLE = new ArrayBlockingQueue<>(Math.max(1, MAX_IDLE));
+        Metrics.gauge("db.idleConnections", () -> IDLE.size());
     }
 
     /**
@@ -52,23 +72,76 @@ public class DBConnection {
             Class.forName(DB_DRIVER);
             System.out.println("Database configuration loaded successfully");
 
+            MAX_CONNECTIONS = Integer.parseInt(props.getProperty("db.maxConnections", "10").trim());
+            MAX_IDLE = Integer.parseInt(props.getProperty("db.maxIdle", String.valueOf(MAX_CONNECTIONS)).trim());
+            IDLE_VALIDATE_MILLIS = Long.parseLong(props.getProperty("db.idleValidateMillis", "30000").trim());
+
         } catch (IOException e) {
             System.err.println("Error loading database configuration: " + e.getMessage());
             e.printStackTrace();
         } catch (ClassNotFoundException e) {
             System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
             e.printStackTrace();
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid db.maxConnections/db.maxIdle value: " + e.getMessage());
         }
     }
 
+    /**
+     * Gets the configured maximum number of database connections
+     * @return value of db.maxConnections (10 if not set)
+     */
+    public static int getMaxConnections() {
+        return MAX_CONNECTIONS;
+    }
+
     /**
      * Gets a database connection
      * @return Connection object
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
+        Connection scoped = REQUEST_CONNECTION.get();
+        if (scoped != null) {
+            return nonClosing(scoped);
+        }
+
+        IdleConnection idle;
+        while ((idle = IDLE.poll()) != null) {
+            // Connections idle for a while may have been dropped by the server
+            if (System.currentTimeMillis() - idle.since < IDLE_VALIDATE_MILLIS || idle.conn.isValid(1)) {
+                Metrics.increment("db.connectionsReused");
+                return pooled(idle.conn);
+            }
+            closeQuietly(idle.conn);
+        }
+
+        return pooled(openConnection());
+    }
+
+    /**
+     * Open connections ahead of traffic and park them in the idle pool
+     * @param count Connections to open (capped at db.maxIdle)
+     * @return Number of connections now idle
+     * @throws SQLException if a connection cannot be opened
+     */
+    public static int warmUp(int count) throws SQLException {
+        int target = Math.min(count, MAX_IDLE);
+        while (IDLE.size() < target) {
+            Connection conn = openConnection();
+            if (!IDLE.offer(new IdleConnection(conn))) {
+                closeQuietly(conn);
+                break;
+            }
+        }
+        return IDLE.size();
+    }
+
+    private static Connection openConnection() throws SQLException {
+        long start = System.nanoTime();
         try {
             Connection conn = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+            Metrics.recordMillis("db.connectMillis", (System.nanoTime() - start) / 1_000_000);
             System.out.println("Database connection established");
             return conn;
         } catch (SQLException e) {
@@ -77,6 +150,166 @@ public class DBConnection {
         }
     }
 
+    /**
+     * Wraps a connection so close() returns it to the idle pool
+     * A transaction left open is rolled back first; if the pool is full
+     * the connection is really closed.
+     */
+    private static Connection pooled(Connection conn) {
+        boolean[] released = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("close".equals(name)) {
+                        if (!released[0]) {
+                            released[0] = true;
+                            release(conn);
+                        }
+                        return null;
+                    }
+                    if ("isClosed".equals(name) && released[0]) {
+                        return true;
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void release(Connection conn) {
+        try {
+            if (conn.isClosed()) {
+                return;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            return;
+        }
+        if (!IDLE.offer(new IdleConnection(conn))) {
+            closeQuietly(conn);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Already broken; nothing else to do
+        }
+    }
+
+    private static final class IdleConnection {
+        final Connection conn;
+        final long since;
+
+        IdleConnection(Connection conn) {
+            this.conn = conn;
+            this.since = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Opens a request-scoped connection for the current thread
+     * Until endRequestScope() is called, getConnection() hands out this same
+     * connection, so DAO calls made for one request share a single connection
+     * @throws SQLException if connection fails
+     */
+    public static void beginRequestScope() throws SQLException {
+        if (REQUEST_CONNECTION.get() != null) {
+            throw new IllegalStateException("Request scope already open on this thread");
+        }
+        REQUEST_CONNECTION.set(getConnection());
+    }
+
+    /**
+     * Closes the request-scoped connection opened by beginRequestScope()
+     */
+    public static void endRequestScope() {
+        Connection conn = REQUEST_CONNECTION.get();
+        REQUEST_CONNECTION.remove();
+        closeConnection(conn);
+    }
+
+    /**
+     * Runs DAO calls as one transaction
+     * Every getConnection() made by work hands out the same connection (a
+     * request scope is opened for the call if none is open). The transaction
+     * commits if work returns true and rolls back if it returns false or
+     * throws. A call made while a transaction is already open joins it.
+     * @param work DAO calls; returns false to roll back
+     * @return true if work returned true and the transaction committed
+     */
+    public static boolean inTransaction(BooleanSupplier work) {
+        boolean ownScope = REQUEST_CONNECTION.get() == null;
+        try {
+            if (ownScope) {
+                beginRequestScope();
+            }
+            Connection conn = REQUEST_CONNECTION.get();
+            if (!conn.getAutoCommit()) {
+                // The caller owns the transaction
+                return work.getAsBoolean();
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                boolean success = work.getAsBoolean();
+                if (success) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return success;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Transaction failed: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (ownScope) {
+                // Back to the pool, without endRequestScope()'s log line on every write
+                Connection conn = REQUEST_CONNECTION.get();
+                REQUEST_CONNECTION.remove();
+                if (conn != null) {
+                    closeQuietly(conn);
+                }
+            }
+        }
+    }
+
+    /**
+     * Wraps the scoped connection so DAO try-with-resources blocks don't close it
+     */
+    private static Connection nonClosing(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
     /**
      * Closes a database connection safely
      * @param conn Connection to close
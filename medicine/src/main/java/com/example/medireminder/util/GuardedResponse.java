@@ -0,0 +1,289 @@
+package com.example.medireminder.util;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Response handed to an async handler, which the dispatcher can cut off
+ *
+ * Once close() has run, nothing the handler does reaches the real response:
+ * status and header calls are ignored and writes fail with IOException, so a
+ * handler that outlives its timeout cannot touch a response the container has
+ * completed (and may have recycled for another request). Every pass-through
+ * and close() itself take the same lock, so close() never races a write that
+ * is half done.
+ */
+final class GuardedResponse extends HttpServletResponseWrapper {
+    // ReentrantLock rather than synchronized: handlers run on virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean closed;
+    private PrintWriter writer;
+    private ServletOutputStream stream;
+
+    GuardedResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Stop passing calls through, then let the caller finish the real response
+     * @param last Runs on the real response while the lock is held, or null
+     */
+    void close(Consumer<HttpServletResponse> last) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (last != null) {
+                last.accept((HttpServletResponse) getResponse());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private void guard(Action action) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Request timed out, response is closed");
+            }
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ignoreIfClosed(Runnable action) {
+        lock.lock();
+        try {
+            if (!closed) {
+                action.run();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        lock.lock();
+        try {
+            if (writer == null) {
+                Writer target = closed ? Writer.nullWriter() : super.getWriter();
+                writer = new PrintWriter(new GuardedWriter(target));
+            }
+            return writer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        lock.lock();
+        try {
+            if (stream == null) {
+                if (closed) {
+                    throw new IOException("Request timed out, response is closed");
+                }
+                stream = new GuardedOutputStream(super.getOutputStream());
+            }
+            return stream;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        guard(() -> super.sendError(sc, msg));
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        guard(() -> super.sendError(sc));
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        guard(() -> super.sendRedirect(location));
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        guard(super::flushBuffer);
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        ignoreIfClosed(() -> super.setStatus(sc));
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setStatus(int sc, String sm) {
+        ignoreIfClosed(() -> super.setStatus(sc, sm));
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        ignoreIfClosed(() -> super.setHeader(name, value));
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        ignoreIfClosed(() -> super.addHeader(name, value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        ignoreIfClosed(() -> super.setDateHeader(name, date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        ignoreIfClosed(() -> super.addDateHeader(name, date));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        ignoreIfClosed(() -> super.setIntHeader(name, value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        ignoreIfClosed(() -> super.addIntHeader(name, value));
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        ignoreIfClosed(() -> super.addCookie(cookie));
+    }
+
+    @Override
+    public void setContentType(String type) {
+        ignoreIfClosed(() -> super.setContentType(type));
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        ignoreIfClosed(() -> super.setCharacterEncoding(charset));
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        ignoreIfClosed(() -> super.setContentLength(len));
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        ignoreIfClosed(() -> super.setContentLengthLong(len));
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        ignoreIfClosed(() -> super.setLocale(loc));
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        ignoreIfClosed(() -> super.setBufferSize(size));
+    }
+
+    @Override
+    public void reset() {
+        ignoreIfClosed(super::reset);
+    }
+
+    @Override
+    public void resetBuffer() {
+        ignoreIfClosed(super::resetBuffer);
+    }
+
+    private final class GuardedWriter extends Writer {
+        private final Writer target;
+
+        GuardedWriter(Writer target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            guard(() -> target.write(c));
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            guard(() -> target.write(cbuf, off, len));
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            guard(() -> target.write(str, off, len));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            guard(target::flush);
+        }
+
+        @Override
+        public void close() throws IOException {
+            guard(target::close);
+        }
+    }
+
+    private final class GuardedOutputStream extends ServletOutputStream {
+        private final ServletOutputStream target;
+
+        GuardedOutputStream(ServletOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            guard(() -> target.write(b));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            guard(() -> target.write(b, off, len));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            guard(target::flush);
+        }
+
+        @Override
+        public void close() throws IOException {
+            guard(target::close);
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            target.setWriteListener(writeListener);
+        }
+    }
+}
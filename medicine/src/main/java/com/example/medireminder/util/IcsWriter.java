@@ -0,0 +1,151 @@
+package com.example.medireminder.util;
+
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an iCalendar (RFC 5545) feed one dose at a time
+ *
+ * Each dose becomes a VEVENT with a stable UID (the reminder ID), so calendar
+ * apps update events in place instead of duplicating them. Untaken doses get
+ * a display alarm at the dose time (apps ignore alarms in the past). Times are
+ * written in UTC; lines end in CRLF and are folded at 75 octets.
+ *
+ * Output depends only on the rows and the given timestamp, so every node
+ * produces the same bytes for the same data, and they can be cached.
+ */
+public class IcsWriter {
+    private static final DateTimeFormatter UTC_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer out;
+    private final String stamp;
+
+    /**
+     * @param out Destination (the caller closes it)
+     * @param stamp Written as DTSTAMP of every event (e.g. when the data last changed)
+     */
+    public IcsWriter(Writer out, Instant stamp) {
+        this.out = out;
+        this.stamp = UTC_FORMAT.format(stamp);
+    }
+
+    /**
+     * Write the calendar header
+     * @param name Calendar name shown by the app
+     * @param refreshMinutes Suggested polling interval
+     */
+    public void begin(String name, int refreshMinutes) throws IOException {
+        line("BEGIN", "VCALENDAR");
+        line("VERSION", "2.0");
+        line("PRODID", "-//Medicine Reminder//Dose Schedule//EN");
+        line("CALSCALE", "GREGORIAN");
+        line("METHOD", "PUBLISH");
+        line("X-WR-CALNAME", escape(name));
+        line("REFRESH-INTERVAL;VALUE=DURATION", "PT" + refreshMinutes + "M");
+        line("X-PUBLISHED-TTL", "PT" + refreshMinutes + "M");
+    }
+
+    /**
+     * Write one dose as a VEVENT
+     * @param reminder Dose (needs ID, date, time and taken)
+     * @param medicine Medicine (name, dosage and notes)
+     * @param durationMinutes Event length
+     */
+    public void event(Reminder reminder, Medicine medicine, int durationMinutes) throws IOException {
+        LocalDateTime local = reminder.getReminderDate().toLocalDate()
+                .atTime(reminder.getReminderTime().toLocalTime());
+        Instant start = local.atZone(ZoneId.systemDefault()).toInstant();
+
+        StringBuilder summary = new StringBuilder();
+        if (reminder.isTaken()) {
+            summary.append("✓ ");
+        }
+        summary.append(medicine.getName() == null ? "Medicine" : medicine.getName());
+        if (medicine.getDosage() != null && !medicine.getDosage().isEmpty()) {
+            summary.append(" (").append(medicine.getDosage()).append(')');
+        }
+
+        line("BEGIN", "VEVENT");
+        line("UID", "reminder-" + reminder.getId() + "@medicine-reminder");
+        line("DTSTAMP", stamp);
+        line("DTSTART", UTC_FORMAT.format(start));
+        line("DURATION", "PT" + durationMinutes + "M");
+        line("SUMMARY", escape(summary.toString()));
+        if (medicine.getNotes() != null && !medicine.getNotes().isEmpty()) {
+            line("DESCRIPTION", escape(medicine.getNotes()));
+        }
+        line("CATEGORIES", reminder.isTaken() ? "Medication,Taken" : "Medication");
+        line("TRANSP", "TRANSPARENT");
+        if (!reminder.isTaken()) {
+            line("BEGIN", "VALARM");
+            line("ACTION", "DISPLAY");
+            line("TRIGGER", "PT0M");
+            line("DESCRIPTION", escape(summary.toString()));
+            line("END", "VALARM");
+        }
+        line("END", "VEVENT");
+    }
+
+    /**
+     * Write the calendar footer
+     */
+    public void end() throws IOException {
+        line("END", "VCALENDAR");
+        out.flush();
+    }
+
+    // TEXT escaping (RFC 5545 3.3.11)
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                case ';':
+                case ',':
+                    escaped.append('\\').append(c);
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    // Content line folded at 75 octets (UTF-8), continuation lines start with a space
+    private void line(String name, String value) throws IOException {
+        String content = name + ":" + value;
+        int octets = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            boolean pair = Character.isHighSurrogate(c) && i + 1 < content.length();
+            int size = pair ? 4 : c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            // Never split a surrogate pair across lines
+            out.write(c);
+            if (pair) {
+                out.write(content.charAt(++i));
+            }
+            octets += size;
+        }
+        out.write("\r\n");
+    }
+}
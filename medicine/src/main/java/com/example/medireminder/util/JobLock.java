@@ -0,0 +1,96 @@
+package com.example.medireminder.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Cluster-wide lock for a background job, so only one node runs it at a time
+ *
+ * Uses MySQL GET_LOCK with a zero timeout: a node that finds the lock taken
+ * skips the run instead of waiting. MySQL locks belong to a session, so the
+ * connection is held until close(); if the node dies, the server drops the
+ * session and the lock with it.
+ *
+ * Usage:
+ * try (JobLock lock = JobLock.tryAcquire("medicine-purge")) {
+ *     if (lock == null) return;
+ *     ...
+ * }
+ */
+public final class JobLock implements AutoCloseable {
+    // GET_LOCK names are server-wide, so keep them apart from other schemas' jobs
+    private static final String PREFIX = "medireminder.";
+
+    private final String name;
+    private final Connection conn;
+
+    private JobLock(String name, Connection conn) {
+        this.name = name;
+        this.conn = conn;
+    }
+
+    /**
+     * Take a job's lock if no other node holds it
+     * @param job Job name
+     * @return The held lock, or null if another node holds it or on database error
+     */
+    public static JobLock tryAcquire(String job) {
+        String name = PREFIX + job;
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                stmt.setString(1, name);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) == 1) {
+                        JobLock lock = new JobLock(name, conn);
+                        conn = null;
+                        return lock;
+                    }
+                }
+            }
+            Metrics.increment("jobs." + job + ".skipped");
+            return null;
+
+        } catch (SQLException e) {
+            System.err.println("Error taking job lock " + name + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        } finally {
+            closeQuietly(conn);
+        }
+    }
+
+    /**
+     * Release the lock and give the connection back
+     */
+    @Override
+    public void close() {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, name);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            // Drop the session rather than pool a connection that may still hold the lock
+            System.err.println("Error releasing job lock " + name + ": " + e.getMessage());
+            try {
+                conn.abort(Runnable::run);
+            } catch (SQLException ignored) {
+                // Already gone
+            }
+        } finally {
+            closeQuietly(conn);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // Nothing left to do
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.medireminder.util;
+
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * Shared Gson instance with hand-written streaming adapters
+ *
+ * Reminder and Medicine are written field by field instead of through Gson's
+ * reflective adapter. java.sql.Date is written as ISO "YYYY-MM-DD" and
+ * java.sql.Time as "HH:mm", instead of Gson's locale-dependent DateFormat output.
+ * Times come from a precomputed table, so no formatter is created per call.
+ * Gson is thread-safe, so every servlet uses JsonSupport.GSON.
+ */
+public class JsonSupport {
+
+    // "00:00" .. "23:59", indexed by minute of day
+    private static final String[] MINUTE_LABELS = new String[24 * 60];
+
+    static {
+        for (int minute = 0; minute < MINUTE_LABELS.length; minute++) {
+            int hour = minute / 60;
+            int min = minute % 60;
+            MINUTE_LABELS[minute] = new String(new char[] {
+                    (char) ('0' + hour / 10), (char) ('0' + hour % 10), ':',
+                    (char) ('0' + min / 10), (char) ('0' + min % 10)});
+        }
+    }
+
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Reminder.class, new ReminderAdapter().nullSafe())
+            .registerTypeAdapter(Medicine.class, new MedicineAdapter().nullSafe())
+            .registerTypeAdapter(Date.class, new DateAdapter().nullSafe())
+            .registerTypeAdapter(Time.class, new TimeAdapter().nullSafe())
+            .create();
+
+    private JsonSupport() {
+    }
+
+    /**
+     * Format a time as "HH:mm"
+     * @param time SQL time
+     * @return Interned label for the minute
+     */
+    public static String formatTime(Time time) {
+        LocalTime localTime = time.toLocalTime();
+        return MINUTE_LABELS[localTime.getHour() * 60 + localTime.getMinute()];
+    }
+
+    /**
+     * Format a server-local date/time as ISO 8601 with the UTC offset
+     * e.g. "2026-10-19T20:00+02:00", so clients in other time zones read it correctly
+     * @param dateTime Server-local date/time, or null
+     * @return Formatted string, or null
+     */
+    public static String formatDateTime(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toOffsetDateTime().toString();
+    }
+
+    /**
+     * Parse "HH:mm" or "HH:mm:ss"
+     * @param value Time string
+     * @return SQL time
+     */
+    public static Time parseTime(String value) {
+        return Time.valueOf(value.length() == 5 ? value + ":00" : value);
+    }
+
+    private static final class ReminderAdapter extends TypeAdapter<Reminder> {
+        @Override
+        public void write(JsonWriter out, Reminder reminder) throws IOException {
+            out.beginObject();
+            out.name("id").value(reminder.getId());
+            out.name("userId").value(reminder.getUserId());
+            out.name("medicineId").value(reminder.getMedicineId());
+            out.name("reminderDate");
+            if (reminder.getReminderDate() == null) {
+                out.nullValue();
+            } else {
+                out.value(reminder.getReminderDate().toString());
+            }
+            out.name("reminderTime");
+            if (reminder.getReminderTime() == null) {
+                out.nullValue();
+            } else {
+                out.value(formatTime(reminder.getReminderTime()));
+            }
+            out.name("taken").value(reminder.isTaken());
+            out.name("notified").value(reminder.isNotified());
+            out.name("medicineName").value(reminder.getMedicineName());
+            out.endObject();
+        }
+
+        @Override
+        public Reminder read(JsonReader in) throws IOException {
+            Reminder reminder = new Reminder();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": reminder.setId(in.nextInt()); break;
+                    case "userId": reminder.setUserId(in.nextInt()); break;
+                    case "medicineId": reminder.setMedicineId(in.nextInt()); break;
+                    case "reminderDate": reminder.setReminderDate(Date.valueOf(in.nextString())); break;
+                    case "reminderTime": reminder.setReminderTime(parseTime(in.nextString())); break;
+                    case "taken": reminder.setTaken(in.nextBoolean()); break;
+                    case "notified": reminder.setNotified(in.nextBoolean()); break;
+                    case "medicineName": reminder.setMedicineName(in.nextString()); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return reminder;
+        }
+    }
+
+    private static final class MedicineAdapter extends TypeAdapter<Medicine> {
+        @Override
+        public void write(JsonWriter out, Medicine medicine) throws IOException {
+            out.beginObject();
+            out.name("id").value(medicine.getId());
+            out.name("userId").value(medicine.getUserId());
+            out.name("name").value(medicine.getName());
+            out.name("dosage").value(medicine.getDosage());
+            out.name("notes").value(medicine.getNotes());
+            out.endObject();
+        }
+
+        @Override
+        public Medicine read(JsonReader in) throws IOException {
+            Medicine medicine = new Medicine();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": medicine.setId(in.nextInt()); break;
+                    case "userId": medicine.setUserId(in.nextInt()); break;
+                    case "name": medicine.setName(in.nextString()); break;
+                    case "dosage": medicine.setDosage(in.nextString()); break;
+                    case "notes": medicine.setNotes(in.nextString()); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return medicine;
+        }
+    }
+
+    private static final class DateAdapter extends TypeAdapter<Date> {
+        @Override
+        public void write(JsonWriter out, Date date) throws IOException {
+            // java.sql.Date#toString is always yyyy-mm-dd, independent of locale
+            out.value(date.toString());
+        }
+
+        @Override
+        public Date read(JsonReader in) throws IOException {
+            return Date.valueOf(in.nextString());
+        }
+    }
+
+    private static final class TimeAdapter extends TypeAdapter<Time> {
+        @Override
+        public void write(JsonWriter out, Time time) throws IOException {
+            out.value(formatTime(time));
+        }
+
+        @Override
+        public Time read(JsonReader in) throws IOException {
+            return parseTime(in.nextString());
+        }
+    }
+}
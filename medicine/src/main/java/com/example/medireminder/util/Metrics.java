@@ -0,0 +1,100 @@
+package com.example.medireminder.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide registry of simple metrics, served by GET /metrics
+ *
+ * - counters: monotonically increasing totals
+ * - timers: count, total, average, last and maximum of recorded durations (ms)
+ * - gauges: values read on demand from a supplier
+ *
+ * Names are dotted, e.g. "coherence.polls". Recording never blocks.
+ */
+public class Metrics {
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Add one to a counter
+     * @param name Counter name
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Add to a counter
+     * @param name Counter name
+     * @param delta Amount to add
+     */
+    public static void add(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Record a duration
+     * @param name Timer name
+     * @param millis Duration in milliseconds
+     */
+    public static void recordMillis(String name, long millis) {
+        TIMERS.computeIfAbsent(name, key -> new Timer()).record(millis);
+    }
+
+    /**
+     * Register a gauge (replaces any gauge with the same name)
+     * @param name Gauge name
+     * @param supplier Reads the current value
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    /**
+     * Read every metric
+     * @return Metric values sorted by name
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        TIMERS.forEach((name, timer) -> snapshot.put(name, timer.toMap()));
+        GAUGES.forEach((name, supplier) -> snapshot.put(name, supplier.getAsLong()));
+        return snapshot;
+    }
+
+    private static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private volatile long last;
+
+        void record(long millis) {
+            count.increment();
+            total.add(millis);
+            max.accumulateAndGet(millis, Math::max);
+            last = millis;
+        }
+
+        Map<String, Object> toMap() {
+            long n = count.sum();
+            long sum = total.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", n);
+            values.put("totalMillis", sum);
+            values.put("avgMillis", n == 0 ? 0 : Math.round(sum * 10.0 / n) / 10.0);
+            values.put("lastMillis", last);
+            values.put("maxMillis", max.get());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.medireminder.util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Salted, slow password hashing (PBKDF2 with HMAC-SHA256)
+ *
+ * Stored format: pbkdf2-sha256$iterations$salt$hash (Base64), so the cost can be
+ * raised later and old hashes still verify; needsRehash tells when to upgrade.
+ * Values without that prefix are legacy plaintext passwords.
+ *
+ * Hashing is CPU-bound, so it runs on a small dedicated pool (password.threads)
+ * with a bounded queue (password.queueCapacity). A login burst therefore uses
+ * at most those threads, and the caller's DB slot is handed back while it waits
+ * (see AsyncDispatcher#withoutPermit), so reminder endpoints keep their share.
+ * When the queue is full, the wait exceeds password.waitMillis, or the slot
+ * cannot be taken back in time, the call fails with RejectedExecutionException
+ * and the servlet answers 503.
+ */
+public class PasswordHasher {
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+
+    private static final int ITERATIONS = Math.max(10000, AppConfig.getInt("password.iterations", 310000));
+    private static final long WAIT_MILLIS = AppConfig.getLong("password.waitMillis", 5000);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    // Verified against when the username is unknown, so both cases take as long
+    private static volatile String dummyHash;
+
+    static {
+        Metrics.gauge("password.active", EXECUTOR::getActiveCount);
+        Metrics.gauge("password.queued", () -> EXECUTOR.getQueue().size());
+    }
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * Hash a password with a fresh salt at the configured cost
+     * @param password Plaintext password
+     * @return Stored form of the hash
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public static String hash(String password) {
+        return run(() -> hashNow(password));
+    }
+
+    /**
+     * Check a password against its stored form
+     * @param password Plaintext password from the login form
+     * @param stored Stored hash, a legacy plaintext value, or null for an unknown user
+     * @return true if the password matches
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public static boolean verify(String password, String stored) {
+        if (stored != null && !stored.startsWith(PREFIX)) {
+            // Legacy row: cheap comparison, the caller migrates it right away
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String target = stored != null ? stored : dummyHash();
+        boolean matches = run(() -> verifyNow(password, target));
+        return stored != null && matches;
+    }
+
+    /**
+     * @param stored Stored password value
+     * @return true if it is plaintext or hashed at a lower cost than configured
+     */
+    public static boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Hash once on the calling thread so the key derivation is compiled
+     * before the first login (used by WarmupService)
+     */
+    public static void warmUp() {
+        dummyHash();
+    }
+
+    private static String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = hashNow("not-a-password");
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private static <T> T run(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> future = EXECUTOR.submit(() -> {
+            Metrics.recordMillis("password.queueWaitMillis", (System.nanoTime() - queuedAt) / 1_000_000);
+            return task.call();
+        });
+
+        try {
+            return AsyncDispatcher.withoutPermit(() -> future.get(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            Metrics.increment("password.timedOut");
+            throw new RejectedExecutionException("Password check timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while checking password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (RejectedExecutionException e) {
+            // The caller's request slot could not be taken back
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Password hashing failed", e);
+        }
+    }
+
+    private static String hashNow(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password, salt, ITERATIONS);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + ITERATIONS + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    private static boolean verifyNow(String password, String stored) {
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[3]);
+            byte[] actual = derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1]));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Malformed password hash: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        long start = System.nanoTime();
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+            Metrics.recordMillis("password.hashMillis", (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        int configured = AppConfig.getInt("password.threads", 0);
+        // Default: half the cores, so a login burst never takes the whole CPU
+        int threads = configured > 0 ? configured : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int queueCapacity = Math.max(1, AppConfig.getInt("password.queueCapacity", 32));
+
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, pool) -> {
+                    Metrics.increment("password.rejected");
+                    throw new RejectedExecutionException("Password hashing queue is full");
+                });
+    }
+}
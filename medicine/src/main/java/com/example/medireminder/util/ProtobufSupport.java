@@ -0,0 +1,170 @@
+package com.example.medireminder.util;
+
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.ReminderRange;
+import com.example.medireminder.proto.ApiProtos;
+import com.google.protobuf.MessageLite;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Helper for protobuf content negotiation
+ * Converts domain models to the messages in src/main/proto/api.proto
+ * and writes them to the response
+ */
+public class ProtobufSupport {
+    public static final String CONTENT_TYPE = "application/x-protobuf";
+
+    private ProtobufSupport() {
+    }
+
+    /**
+     * Check whether the client asked for protobuf
+     * @param request Servlet request
+     * @return true if the Accept header lists application/x-protobuf
+     */
+    public static boolean acceptsProtobuf(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.contains(CONTENT_TYPE);
+    }
+
+    /**
+     * Build a MedicineList envelope
+     * @param success Whether the call succeeded
+     * @param message Error message, or null
+     * @param medicines Medicines to include, or null
+     * @return MedicineList message
+     */
+    public static ApiProtos.MedicineList medicineList(boolean success, String message, List<Medicine> medicines) {
+        ApiProtos.MedicineList.Builder builder = ApiProtos.MedicineList.newBuilder().setSuccess(success);
+        if (message != null) {
+            builder.setMessage(message);
+        }
+        if (medicines != null) {
+            for (Medicine medicine : medicines) {
+                builder.addMedicines(toProto(medicine));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Build a ReminderList envelope
+     * @param success Whether the call succeeded
+     * @param message Error message, or null
+     * @param reminders Reminders to include, or null
+     * @return ReminderList message
+     */
+    public static ApiProtos.ReminderList reminderList(boolean success, String message, List<Reminder> reminders) {
+        ApiProtos.ReminderList.Builder builder = ApiProtos.ReminderList.newBuilder().setSuccess(success);
+        if (message != null) {
+            builder.setMessage(message);
+        }
+        if (reminders != null) {
+            for (Reminder reminder : reminders) {
+                builder.addReminders(toProto(reminder));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Build a ReminderRange envelope
+     * @param success Whether the call succeeded
+     * @param message Error message, or null
+     * @param range Doses to include, or null
+     * @return ReminderRange message
+     */
+    public static ApiProtos.ReminderRange reminderRange(boolean success, String message, ReminderRange range) {
+        ApiProtos.ReminderRange.Builder builder = ApiProtos.ReminderRange.newBuilder().setSuccess(success);
+        if (message != null) {
+            builder.setMessage(message);
+        }
+        if (range != null) {
+            builder.setFrom((int) range.getFrom().toEpochDay())
+                    .setTo((int) range.getTo().toEpochDay())
+                    .addAllMedicineIds(range.getMedicineIds());
+            for (String name : range.getMedicineNames()) {
+                builder.addMedicineNames(name == null ? "" : name);
+            }
+            for (int day = 0; day < range.getDayCount(); day++) {
+                ApiProtos.RangeDay.Builder dayBuilder = ApiProtos.RangeDay.newBuilder()
+                        .setDate((int) range.getDay(day).toEpochDay());
+                for (int dose = range.getDayStart(day); dose < range.getDayEnd(day); dose++) {
+                    dayBuilder.addReminderIds(range.getReminderId(dose))
+                            .addMinutes(range.getMinute(dose))
+                            .addMedicineIndexes(range.getMedicineIndex(dose))
+                            .addStatus(range.getStatus(dose));
+                }
+                builder.addDays(dayBuilder);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert a server-local date/time to Unix epoch seconds
+     * @param dateTime Server-local date/time, or null
+     * @return Epoch seconds, or 0 for null
+     */
+    public static long toEpochSeconds(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    /**
+     * Write a message as the response body
+     * @param response Servlet response
+     * @param message Protobuf message
+     * @throws IOException if writing fails
+     */
+    public static void write(HttpServletResponse response, MessageLite message) throws IOException {
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(message.getSerializedSize());
+        message.writeTo(response.getOutputStream());
+        response.getOutputStream().flush();
+    }
+
+    private static ApiProtos.Medicine toProto(Medicine medicine) {
+        ApiProtos.Medicine.Builder builder = ApiProtos.Medicine.newBuilder()
+                .setId(medicine.getId())
+                .setUserId(medicine.getUserId());
+        // Protobuf strings cannot be null; absent values stay at the default ""
+        if (medicine.getName() != null) {
+            builder.setName(medicine.getName());
+        }
+        if (medicine.getDosage() != null) {
+            builder.setDosage(medicine.getDosage());
+        }
+        if (medicine.getNotes() != null) {
+            builder.setNotes(medicine.getNotes());
+        }
+        return builder.build();
+    }
+
+    private static ApiProtos.Reminder toProto(Reminder reminder) {
+        ApiProtos.Reminder.Builder builder = ApiProtos.Reminder.newBuilder()
+                .setId(reminder.getId())
+                .setUserId(reminder.getUserId())
+                .setMedicineId(reminder.getMedicineId())
+                .setTaken(reminder.isTaken())
+                .setNotified(reminder.isNotified());
+        if (reminder.getReminderDate() != null) {
+            builder.setReminderDate((int) reminder.getReminderDate().toLocalDate().toEpochDay());
+        }
+        if (reminder.getReminderTime() != null) {
+            LocalTime time = reminder.getReminderTime().toLocalTime();
+            builder.setReminderMinute(time.getHour() * 60 + time.getMinute());
+        }
+        if (reminder.getMedicineName() != null) {
+            builder.setMedicineName(reminder.getMedicineName());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.medireminder.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Whether this node has finished warming up and should receive traffic
+ *
+ * GET /ready answers 503 until markReady() is called. Reported in GET /metrics:
+ * - ready.timeToReadyMillis: JVM start to ready
+ * - ready.firstRequestsMillis: latency of the first ready.trackedRequests requests
+ */
+public class Readiness {
+    private static final int TRACKED_REQUESTS = AppConfig.getInt("ready.trackedRequests", 100);
+
+    private static volatile boolean ready;
+    private static volatile long timeToReadyMillis = -1;
+    private static final AtomicInteger REQUESTS_SEEN = new AtomicInteger();
+
+    static {
+        Metrics.gauge("ready.timeToReadyMillis", () -> timeToReadyMillis);
+    }
+
+    private Readiness() {
+    }
+
+    /**
+     * Mark this node ready for traffic
+     */
+    public static void markReady() {
+        if (!ready) {
+            timeToReadyMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            ready = true;
+        }
+    }
+
+    /**
+     * @return true once warm-up has finished
+     */
+    public static boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Record how long a request took, if it is one of the first few
+     * @param millis Request latency
+     */
+    public static void recordRequest(long millis) {
+        if (REQUESTS_SEEN.get() < TRACKED_REQUESTS && REQUESTS_SEEN.incrementAndGet() <= TRACKED_REQUESTS) {
+            Metrics.recordMillis("ready.firstRequestsMillis", millis);
+        }
+    }
+}
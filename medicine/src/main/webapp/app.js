@@ -4,16 +4,19 @@ const API_BASE = '/medicine-reminder';
 // Global state
 let medicines = [];
 let reminders = [];
-let notificationCheckInterval = null;  // NEW: Store interval ID for notification checking
+let notificationCheckTimer = null;  // Timer ID of the next due reminder check
+let dueCheckFailures = 0;  // Consecutive failed due checks, for backoff
+
+// Longest wait between due checks, whatever the server or the backoff says
+const MAX_DUE_CHECK_SECONDS = 900;
 
 // Initialize dashboard on page load
 document.addEventListener('DOMContentLoaded', () => {
-    loadMedicines();
-    loadReminders();
+    // Notifications first: the tab election decides whether loadDashboard() checks due reminders
+    initializeNotifications();
+    loadDashboard();
     setupEventListeners();
     setTodayDate();
-    // NEW: Initialize notification system
-    initializeNotifications();
 });
 
 // Set today's date as default for reminder date input
@@ -60,6 +63,63 @@ function logout() {
     window.location.href = 'index.html';
 }
 
+// ==================== DASHBOARD BOOTSTRAP ====================
+
+/**
+ * Load everything needed for first paint in a single /batch round trip
+ * (medicines, today's reminders and, in the leader tab, due reminders).
+ * Falls back to the individual endpoints if the batch call fails.
+ */
+async function loadDashboard() {
+    const requests = [
+        { id: 'medicines', path: '/medicines' },
+        { id: 'reminders', path: '/reminders' }
+    ];
+    if (isDueLeader) {
+        requests.push({ id: 'due', path: '/reminders/due' });
+    }
+
+    try {
+        const response = await fetch(`${API_BASE}/batch`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+            },
+            // clientId counts the batched due check as this tab's poll
+            body: JSON.stringify({ clientId: TAB_ID, requests: requests })
+        });
+        const data = await response.json();
+
+        if (!data.success) {
+            throw new Error(data.message || 'Batch request failed');
+        }
+
+        const results = data.responses;
+        if (results.medicines.success) {
+            medicines = results.medicines.medicines;
+            displayMedicines(medicines);
+            updateMedicineDropdown(medicines);
+        }
+        if (results.reminders.success) {
+            reminders = results.reminders.reminders;
+            displayReminders(reminders);
+        }
+        if (results.due) {
+            if (results.due.success && results.due.reminders.length > 0) {
+                handleDueReminders(results.due.reminders);
+            }
+            scheduleDueCheck(results.due.nextPollSeconds);
+        }
+    } catch (error) {
+        console.error('Error loading dashboard, falling back to separate calls:', error);
+        loadMedicines();
+        loadReminders();
+        if (isDueLeader) {
+            scheduleDueCheck(3);
+        }
+    }
+}
+
 // ==================== MEDICINE FUNCTIONS ====================
 
 // Load all medicines
@@ -214,7 +274,7 @@ function displayReminders(reminderList) {
     }
 
     container.innerHTML = reminderList.map(reminder => {
-        const timeStr = reminder.reminderTime.substring(0, 5); // Format HH:MM
+        const timeStr = reminder.reminderTime; // Server sends HH:mm
         const takenClass = reminder.taken ? 'taken' : '';
         const statusClass = reminder.taken ? 'taken' : 'pending';
         const statusText = reminder.taken ? 'Taken' : 'Pending';
@@ -259,6 +319,9 @@ async function handleAddReminder(e) {
             e.target.reset();
             setTodayDate(); // Reset date to today
             loadReminders(); // Reload the list
+            if (isDueLeader) {
+                checkDueReminders(); // The new dose may be due sooner than the next planned check
+            }
         } else {
             showMessage(data.message || 'Failed to add reminder', true);
         }
@@ -306,7 +369,8 @@ function escapeHtml(text) {
 /**
  * Initialize the notification system
  * - Requests browser notification permission
- * - Starts periodic checking for due reminders
+ * - Joins the tab election (only the leader tab polls for due reminders)
+ * Due reminder checks are scheduled by loadDashboard() and checkDueReminders()
  */
 function initializeNotifications() {
     // Request notification permission if supported
@@ -316,12 +380,29 @@ function initializeNotifications() {
         });
     }
 
-    // Start checking for due reminders every 60 seconds (1 minute)
-    // This interval runs while the dashboard page is open
-    notificationCheckInterval = setInterval(checkDueReminders, 60000);
-    
-    // Also check immediately on page load
-    setTimeout(checkDueReminders, 3000); // Wait 3 seconds after page load
+    startDueCoordinator();
+}
+
+/**
+ * Schedule the next due reminder check
+ * The server suggests the delay (nextPollSeconds): a jittered moment just before
+ * the user's next dose (nextReminderAt), so the page stays idle between doses and
+ * open dashboards do not all hit the server in the same second at popular dose
+ * times like 08:00. The delay is capped at MAX_DUE_CHECK_SECONDS.
+ */
+function scheduleDueCheck(seconds) {
+    const delay = Math.min(seconds > 0 ? seconds : 60, MAX_DUE_CHECK_SECONDS);
+    clearTimeout(notificationCheckTimer);
+    notificationCheckTimer = setTimeout(checkDueReminders, delay * 1000);
+}
+
+/**
+ * Delay after a failed due check: exponential from 30 seconds, capped,
+ * and never shorter than the server's Retry-After
+ */
+function dueCheckBackoffSeconds(retryAfter) {
+    const backoff = Math.min(30 * Math.pow(2, dueCheckFailures - 1), MAX_DUE_CHECK_SECONDS);
+    return Math.max(backoff, parseInt(retryAfter, 10) || 0);
 }
 
 /**
@@ -332,36 +413,207 @@ function initializeNotifications() {
  * 3. Backend automatically marks them as notified to prevent duplicates
  */
 async function checkDueReminders() {
+    if (!isDueLeader) {
+        return;
+    }
+    let nextPollSeconds;
     try {
-        const response = await fetch(`${API_BASE}/reminders/due`);
+        // clientId lets the server spot several pollers for one user
+        const response = await fetch(`${API_BASE}/reminders/due?clientId=${TAB_ID}`);
+        if (!response.ok) {
+            // Rate limited (429) or overloaded (503): back off
+            dueCheckFailures++;
+            scheduleDueCheck(dueCheckBackoffSeconds(response.headers.get('Retry-After')));
+            return;
+        }
         const data = await response.json();
+        dueCheckFailures = 0;
+        nextPollSeconds = data.nextPollSeconds;
 
         if (data.success && data.reminders && data.reminders.length > 0) {
-            // We have due reminders - show notifications
-            data.reminders.forEach(reminder => {
-                showReminderNotification(reminder);
-            });
+            // We have due reminders - show notifications here and in the other tabs
+            handleDueReminders(data.reminders);
             
             // Reload today's reminders list to show updated status
             loadReminders();
         }
     } catch (error) {
         console.error('Error checking due reminders:', error);
+        dueCheckFailures++;
+        nextPollSeconds = dueCheckBackoffSeconds(null);
+    }
+    if (isDueLeader) {
+        scheduleDueCheck(nextPollSeconds);
+    }
+}
+
+// ==================== TAB COORDINATION ====================
+// Only one dashboard tab per browser (the leader) polls /reminders/due.
+// Leadership is a lease in localStorage that the leader keeps renewing; other
+// tabs take over when it expires or when the leader tab closes. The leader passes
+// each result to the other tabs over a BroadcastChannel (or storage events where
+// BroadcastChannel is not supported).
+
+const TAB_ID = Math.random().toString(36).slice(2) + Date.now().toString(36);
+const LEADER_KEY = 'medicineReminder.dueLeader';
+const MESSAGE_KEY = 'medicineReminder.dueMessage';
+const LEASE_MS = 150000;  // Long enough to survive timer throttling in background tabs
+const RENEW_MS = 30000;
+
+let isDueLeader = false;
+let dueChannel = null;
+
+/**
+ * Join the election and set up messaging between tabs
+ * Claims the lease right away if it is free, so loadDashboard() knows
+ * whether this tab should include the due check
+ */
+function startDueCoordinator() {
+    try {
+        localStorage.getItem(LEADER_KEY);
+    } catch (error) {
+        // Storage blocked: this tab polls on its own
+        isDueLeader = true;
+        return;
+    }
+
+    if ('BroadcastChannel' in window) {
+        dueChannel = new BroadcastChannel('medicine-reminder-due');
+        dueChannel.onmessage = event => handleTabMessage(event.data);
+    } else {
+        window.addEventListener('storage', event => {
+            if (event.key === MESSAGE_KEY && event.newValue) {
+                handleTabMessage(JSON.parse(event.newValue));
+            }
+        });
+    }
+    window.addEventListener('pagehide', resignLeadership);
+
+    if (isLeaseFree(readLease())) {
+        claimLeadership(null);
+    }
+    setInterval(renewLeadership, RENEW_MS);
+}
+
+function readLease() {
+    try {
+        return JSON.parse(localStorage.getItem(LEADER_KEY));
+    } catch (error) {
+        return null;
+    }
+}
+
+function writeLease() {
+    try {
+        localStorage.setItem(LEADER_KEY, JSON.stringify({ id: TAB_ID, expires: Date.now() + LEASE_MS }));
+    } catch (error) {
+        console.error('Could not write leader lease:', error);
+    }
+}
+
+function isLeaseFree(lease) {
+    return !lease || lease.expires < Date.now();
+}
+
+/**
+ * Take the lease; onConfirmed runs once it is clear no other tab won
+ * (two tabs can claim at the same moment, and the last write wins)
+ */
+function claimLeadership(onConfirmed) {
+    writeLease();
+    isDueLeader = true;
+    setTimeout(() => {
+        const lease = readLease();
+        if (!lease || lease.id !== TAB_ID) {
+            stepDown();
+        } else if (onConfirmed) {
+            onConfirmed();
+        }
+    }, 100);
+}
+
+/**
+ * Renew the lease if this tab holds it, otherwise take over an expired one
+ */
+function renewLeadership() {
+    const lease = readLease();
+    if (lease && lease.id === TAB_ID) {
+        writeLease();
+        return;
     }
+    if (isDueLeader) {
+        // Another tab took over while this one was suspended
+        stepDown();
+    }
+    if (isLeaseFree(lease)) {
+        claimLeadership(checkDueReminders);
+    }
+}
+
+function stepDown() {
+    isDueLeader = false;
+    clearTimeout(notificationCheckTimer);
+}
+
+/**
+ * Hand leadership over when the leader tab closes
+ */
+function resignLeadership() {
+    if (!isDueLeader) {
+        return;
+    }
+    stepDown();
+    try {
+        localStorage.removeItem(LEADER_KEY);
+    } catch (error) {
+        // Lease will simply expire
+    }
+    postTabMessage({ type: 'resign' });
+}
+
+function postTabMessage(message) {
+    if (dueChannel) {
+        dueChannel.postMessage(message);
+        return;
+    }
+    try {
+        // The nonce makes every message a change, so a storage event always fires
+        localStorage.setItem(MESSAGE_KEY, JSON.stringify({ ...message, nonce: Math.random() }));
+    } catch (error) {
+        console.error('Could not notify other tabs:', error);
+    }
+}
+
+function handleTabMessage(message) {
+    if (message.type === 'resign') {
+        renewLeadership();
+    } else if (message.type === 'due') {
+        // The leader already showed the system notification
+        message.reminders.forEach(reminder => showReminderNotification(reminder, false));
+        loadReminders();
+    }
+}
+
+/**
+ * Show due reminders found by this (leader) tab and pass them to the other tabs
+ */
+function handleDueReminders(dueReminders) {
+    dueReminders.forEach(reminder => showReminderNotification(reminder, true));
+    postTabMessage({ type: 'due', reminders: dueReminders });
 }
 
 /**
  * Show notification for a single reminder
- * - Shows browser notification if permission granted
+ * - Shows browser notification if permission granted (leader tab only, so once per browser)
  * - Always shows on-page toast (fallback if browser notification not available)
  */
-function showReminderNotification(reminder) {
-    const timeStr = reminder.reminderTime.substring(0, 5); // Format: HH:MM
+function showReminderNotification(reminder, systemNotification) {
+    const timeStr = reminder.reminderTime; // Server sends HH:mm
     const title = 'Medicine Reminder';
     const body = `Time to take: ${reminder.medicineName} at ${timeStr}`;
 
     // Try to show browser notification
-    if ('Notification' in window && Notification.permission === 'granted') {
+    if (systemNotification && 'Notification' in window && Notification.permission === 'granted') {
         const notification = new Notification(title, {
             body: body,
             icon: '/medicine-reminder/favicon.ico', // Optional: add an icon
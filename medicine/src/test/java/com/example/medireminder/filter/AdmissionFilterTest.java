@@ -0,0 +1,66 @@
+package com.example.medireminder.filter;
+
+import com.example.medireminder.filter.AdmissionFilter.Priority;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionFilterTest {
+
+    // Request with a method, servlet path and query parameters ("name=value" pairs)
+    private static HttpServletRequest request(String method, String path, String... params) {
+        Map<String, String> values = new HashMap<>();
+        for (String param : params) {
+            int eq = param.indexOf('=');
+            values.put(param.substring(0, eq), param.substring(eq + 1));
+        }
+        return (HttpServletRequest) Proxy.newProxyInstance(AdmissionFilterTest.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class}, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getMethod":
+                            return method;
+                        case "getServletPath":
+                            return path;
+                        case "getParameter":
+                            return values.get((String) args[0]);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static Priority classify(String method, String path, String... params) {
+        return AdmissionFilter.classify(request(method, path, params));
+    }
+
+    @Test
+    void dosesAndDuePollsComeFirst() {
+        assertEquals(Priority.CRITICAL, classify("POST", "/reminders/markTaken"));
+        assertEquals(Priority.HIGH, classify("GET", "/reminders/due"));
+        assertEquals(Priority.EXEMPT, classify("GET", "/app.js"));
+        assertEquals(Priority.EXEMPT, classify("GET", "/metrics"));
+    }
+
+    @Test
+    void historyReadsAreShedFirst() {
+        assertEquals(Priority.LOW, classify("GET", "/export"));
+        assertEquals(Priority.LOW, classify("GET", "/ward"));
+        assertEquals(Priority.LOW, classify("GET", "/sync"));
+        assertEquals(Priority.LOW, classify("GET", "/sync", "since=0"));
+        assertEquals(Priority.LOW, classify("GET", "/reminders", "from=2026-01-01", "to=2026-12-31"));
+        assertEquals(Priority.LOW, classify("GET", "/reminders", "from=2026-01-01"));
+    }
+
+    @Test
+    void dashboardReadsAndEditsStayNormal() {
+        assertEquals(Priority.NORMAL, classify("GET", "/sync", "since=42"));
+        assertEquals(Priority.NORMAL, classify("GET", "/reminders"));
+        assertEquals(Priority.NORMAL, classify("POST", "/reminders", "from=x"));
+        assertEquals(Priority.NORMAL, classify("GET", "/medicines"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.medireminder.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final int BURST = 20;
+
+    @Test
+    void admitsAFullBurstThenAsksToWaitOneInterval() {
+        AdmissionFilter.TokenBucket bucket = new AdmissionFilter.TokenBucket();
+        long now = System.nanoTime();
+
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, bucket.tryAcquire(now, BURST), "request " + i);
+        }
+        long wait = bucket.tryAcquire(now, BURST);
+        assertTrue(wait > 0);
+
+        // A rejected request does not consume a token
+        assertEquals(wait, bucket.tryAcquire(now, BURST));
+        assertEquals(0, bucket.tryAcquire(now + wait, BURST));
+        assertTrue(bucket.tryAcquire(now + wait, BURST) > 0);
+    }
+
+    @Test
+    void deeperBurstStillAdmitsWhenTheNormalOneIsSpent() {
+        AdmissionFilter.TokenBucket bucket = new AdmissionFilter.TokenBucket();
+        long now = System.nanoTime();
+
+        for (int i = 0; i < BURST; i++) {
+            bucket.tryAcquire(now, BURST);
+        }
+        assertTrue(bucket.tryAcquire(now, BURST) > 0);
+
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, bucket.tryAcquire(now, 2 * BURST), "critical request " + i);
+        }
+        assertTrue(bucket.tryAcquire(now, 2 * BURST) > 0);
+    }
+
+    @Test
+    void refillsToFullAfterIdling() {
+        AdmissionFilter.TokenBucket bucket = new AdmissionFilter.TokenBucket();
+        long now = System.nanoTime();
+        assertTrue(bucket.isFull(now));
+
+        bucket.tryAcquire(now, BURST);
+        assertFalse(bucket.isFull(now));
+
+        for (int i = 1; i < BURST; i++) {
+            bucket.tryAcquire(now, BURST);
+        }
+        long interval = bucket.tryAcquire(now, BURST);
+        assertFalse(bucket.isFull(now + (BURST - 1) * interval));
+        assertTrue(bucket.isFull(now + BURST * interval));
+
+        // An idle period does not bank more than one burst
+        long later = now + 100 * BURST * interval;
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, bucket.tryAcquire(later, BURST));
+        }
+        assertTrue(bucket.tryAcquire(later, BURST) > 0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.medireminder.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DayScheduleTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+
+    private static DaySchedule schedule() {
+        return new DaySchedule(7, DAY, true, 1);
+    }
+
+    private static List<Integer> ids(List<Reminder> reminders) {
+        List<Integer> ids = new ArrayList<>();
+        for (Reminder reminder : reminders) {
+            ids.add(reminder.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void keepsDosesInTimeThenIdOrderAndGrows() {
+        DaySchedule schedule = schedule();
+        schedule.add(5, 1, 20 * 60, "Aspirin", false, false);
+        schedule.add(3, 1, 8 * 60, "Aspirin", false, false);
+        schedule.add(9, 2, 8 * 60, "Vitamin D", false, false);
+        schedule.add(4, 2, 8 * 60, "Vitamin D", false, false);
+        schedule.add(1, 3, 12 * 60 + 30, null, true, false);
+
+        assertEquals(5, schedule.getDoseCount());
+        List<Reminder> reminders = schedule.toReminders();
+        assertEquals(Arrays.asList(3, 4, 9, 1, 5), ids(reminders));
+
+        Reminder first = reminders.get(0);
+        assertEquals(7, first.getUserId());
+        assertEquals(Date.valueOf(DAY), first.getReminderDate());
+        assertEquals("08:00:00", first.getReminderTime().toString());
+        assertEquals("Aspirin", first.getMedicineName());
+        assertTrue(reminders.get(3).isTaken());
+    }
+
+    @Test
+    void ignoresADoseItAlreadyHolds() {
+        DaySchedule schedule = schedule();
+        schedule.add(3, 1, 8 * 60, "Aspirin", false, false);
+        schedule.markTaken(3);
+        schedule.add(3, 1, 8 * 60, "Aspirin", false, false);
+
+        assertEquals(1, schedule.getDoseCount());
+        assertTrue(schedule.toReminders().get(0).isTaken());
+    }
+
+    @Test
+    void removesDosesAndKeepsTheRestInOrder() {
+        DaySchedule schedule = schedule();
+        schedule.add(1, 1, 60, "A", false, false);
+        schedule.add(2, 1, 120, "A", false, false);
+        schedule.add(3, 1, 180, "A", false, false);
+
+        assertTrue(schedule.remove(2));
+        assertFalse(schedule.remove(2));
+        assertEquals(Arrays.asList(1, 3), ids(schedule.toReminders()));
+    }
+
+    @Test
+    void claimsEachDueDoseOnce() {
+        DaySchedule schedule = schedule();
+        schedule.add(1, 1, 8 * 60, "A", false, false);
+        schedule.add(2, 1, 8 * 60, "A", true, false);
+        schedule.add(3, 1, 9 * 60, "A", false, false);
+        schedule.add(4, 1, 20 * 60, "A", false, false);
+
+        List<Reminder> claimed = schedule.claimDue(9 * 3600);
+        assertEquals(Arrays.asList(1, 3), ids(claimed));
+        assertTrue(claimed.get(0).isNotified());
+
+        assertTrue(schedule.claimDue(9 * 3600).isEmpty());
+        assertEquals(20 * 60, schedule.nextPendingMinute(9 * 3600));
+    }
+
+    @Test
+    void clearNotifiedReleasesAClaim() {
+        DaySchedule schedule = schedule();
+        schedule.add(1, 1, 8 * 60, "A", false, false);
+        schedule.claimDue(8 * 3600);
+
+        assertTrue(schedule.clearNotified(1));
+        assertFalse(schedule.clearNotified(99));
+        assertEquals(Arrays.asList(1), ids(schedule.claimDue(8 * 3600)));
+    }
+
+    @Test
+    void nextPendingMinuteSkipsTakenAndNotifiedDoses() {
+        DaySchedule schedule = schedule();
+        schedule.add(1, 1, 8 * 60, "A", false, true);
+        schedule.add(2, 1, 9 * 60, "A", true, false);
+
+        assertEquals(-1, schedule.nextPendingMinute(0));
+        schedule.add(3, 1, 10 * 60, "A", false, false);
+        assertEquals(10 * 60, schedule.nextPendingMinute(0));
+        assertEquals(-1, schedule.nextPendingMinute(10 * 3600));
+    }
+
+    @Test
+    void findsMedicineNamesAndInternsThem() {
+        DaySchedule schedule = schedule();
+        schedule.add(1, 42, 60, new String("Ibuprofen"), false, false);
+
+        assertSame("Ibuprofen", schedule.findMedicineName(42));
+        assertNull(schedule.findMedicineName(43));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.medireminder.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoseCalendarMonthTest {
+    private static final YearMonth OCTOBER = YearMonth.of(2026, 10);
+
+    // Day 1: doses 0 and 1, day 2: dose 2
+    private static DoseCalendarMonth threeDoses() {
+        byte[] perDay = new byte[OCTOBER.lengthOfMonth()];
+        perDay[0] = 2;
+        perDay[1] = 1;
+        return new DoseCalendarMonth(OCTOBER, perDay, new int[] {10, 11, 12}, new BitSet(), new BitSet());
+    }
+
+    @Test
+    void marksOnlyRemindersOfTheMonth() {
+        DoseCalendarMonth month = threeDoses();
+
+        assertTrue(month.markTaken(11));
+        assertTrue(month.markNotified(12));
+        assertFalse(month.markTaken(99));
+        assertFalse(month.markNotified(99));
+        assertEquals(3, month.getDoseCount());
+    }
+
+    @Test
+    void wireFormatIsLittleEndianBitsets() {
+        DoseCalendarMonth month = threeDoses();
+        month.markTaken(11);
+        month.markNotified(10);
+        month.markNotified(12);
+
+        Map<String, Object> wire = month.toWireFormat();
+        Base64.Decoder decoder = Base64.getDecoder();
+
+        assertEquals("2026-10", wire.get("month"));
+        assertEquals(3, wire.get("doses"));
+        assertArrayEquals(new byte[] {0b010}, decoder.decode((String) wire.get("taken")));
+        assertArrayEquals(new byte[] {0b101}, decoder.decode((String) wire.get("notified")));
+
+        byte[] perDay = decoder.decode((String) wire.get("perDay"));
+        assertEquals(31, perDay.length);
+        assertEquals(2, perDay[0]);
+        assertEquals(1, perDay[1]);
+        assertEquals(0, perDay[2]);
+    }
+
+    @Test
+    void emptyBitsetsEncodeAsEmptyStrings() {
+        Map<String, Object> wire = threeDoses().toWireFormat();
+
+        assertEquals("", wire.get("taken"));
+        assertEquals("", wire.get("notified"));
+    }
+
+    @Test
+    void dosesPerDayIsUnsigned() {
+        byte[] perDay = new byte[OCTOBER.lengthOfMonth()];
+        perDay[0] = (byte) 200;
+        DoseCalendarMonth month = new DoseCalendarMonth(OCTOBER, perDay, new int[200], new BitSet(), new BitSet());
+
+        byte[] decoded = Base64.getDecoder().decode((String) month.toWireFormat().get("perDay"));
+        assertEquals(200, decoded[0] & 0xFF);
+    }
+}
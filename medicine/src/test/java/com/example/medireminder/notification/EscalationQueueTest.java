@@ -0,0 +1,171 @@
+package com.example.medireminder.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EscalationQueueTest {
+    private static final byte STAGE = 1;
+
+    @Test
+    void pollsInDueOrderAcrossGrowth() {
+        EscalationQueue queue = new EscalationQueue(100000);
+        Random random = new Random(42);
+        Map<Integer, Long> dueById = new HashMap<>();
+        for (int id = 1; id <= 5000; id++) {
+            long due = random.nextInt(1_000_000);
+            dueById.put(id, due);
+            assertTrue(queue.add(id, due, (byte) (id % 3)));
+        }
+        assertEquals(5000, queue.pendingCount());
+
+        int[] ids = new int[128];
+        byte[] stages = new byte[128];
+        long lastDue = Long.MIN_VALUE;
+        Set<Integer> seen = new HashSet<>();
+        int count;
+        while ((count = queue.pollDue(Long.MAX_VALUE, ids, stages)) > 0) {
+            for (int i = 0; i < count; i++) {
+                long due = dueById.get(ids[i]);
+                assertTrue(due >= lastDue, "out of order at reminder " + ids[i]);
+                assertEquals((byte) (ids[i] % 3), stages[i]);
+                assertTrue(seen.add(ids[i]));
+                lastDue = due;
+            }
+        }
+        assertEquals(5000, seen.size());
+        assertEquals(0, queue.pendingCount());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void pollsOnlyWhatIsDue() {
+        EscalationQueue queue = new EscalationQueue(10);
+        queue.add(1, 100, STAGE);
+        queue.add(2, 200, STAGE);
+        queue.add(3, 300, STAGE);
+
+        int[] ids = new int[10];
+        byte[] stages = new byte[10];
+        assertEquals(0, queue.pollDue(99, ids, stages));
+        assertEquals(2, queue.pollDue(200, ids, stages));
+        assertEquals(1, ids[0]);
+        assertEquals(2, ids[1]);
+        assertEquals(1, queue.pendingCount());
+    }
+
+    @Test
+    void fillsAtMostTheBuffer() {
+        EscalationQueue queue = new EscalationQueue(10);
+        for (int id = 1; id <= 5; id++) {
+            queue.add(id, id, STAGE);
+        }
+
+        int[] ids = new int[2];
+        byte[] stages = new byte[2];
+        assertEquals(2, queue.pollDue(100, ids, stages));
+        assertEquals(2, queue.pollDue(100, ids, stages));
+        assertEquals(1, queue.pollDue(100, ids, stages));
+        assertEquals(5, ids[0]);
+    }
+
+    @Test
+    void cancelledStepsAreSkippedWhenDue() {
+        EscalationQueue queue = new EscalationQueue(10);
+        queue.add(1, 100, STAGE);
+        queue.add(2, 100, STAGE);
+
+        assertTrue(queue.cancel(1));
+        assertFalse(queue.cancel(1));
+        assertFalse(queue.cancel(99));
+        assertEquals(1, queue.pendingCount());
+        assertEquals(2, queue.size());
+
+        int[] ids = new int[10];
+        byte[] stages = new byte[10];
+        assertEquals(1, queue.pollDue(100, ids, stages));
+        assertEquals(2, ids[0]);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void aPolledReminderIsNoLongerPending() {
+        EscalationQueue queue = new EscalationQueue(10);
+        queue.add(7, 100, (byte) 1);
+        queue.add(7, 200, (byte) 2);
+        assertEquals(1, queue.pendingCount());
+        assertEquals(2, queue.size());
+
+        int[] ids = new int[10];
+        byte[] stages = new byte[10];
+        assertEquals(1, queue.pollDue(100, ids, stages));
+        assertEquals(1, stages[0]);
+
+        // The leftover step belongs to a reminder that was not re-added
+        assertEquals(0, queue.pollDue(200, ids, stages));
+        assertFalse(queue.cancel(7));
+    }
+
+    @Test
+    void rejectsStepsBeyondCapacity() {
+        EscalationQueue queue = new EscalationQueue(2);
+
+        assertTrue(queue.add(1, 100, STAGE));
+        assertTrue(queue.add(2, 100, STAGE));
+        assertFalse(queue.add(3, 100, STAGE));
+
+        // Cancelled entries still take room until they come due
+        queue.cancel(1);
+        assertFalse(queue.add(3, 100, STAGE));
+    }
+
+    @Test
+    void setSurvivesRandomCancelsWithoutTombstones() {
+        EscalationQueue queue = new EscalationQueue(100000);
+        Random random = new Random(7);
+        Set<Integer> kept = new HashSet<>();
+        for (int i = 0; i < 4000; i++) {
+            // Clustered IDs make long probe runs
+            int id = 1 + random.nextInt(20000);
+            if (kept.add(id)) {
+                queue.add(id, 0, STAGE);
+            }
+        }
+        for (Integer id : new HashSet<>(kept)) {
+            if (random.nextBoolean()) {
+                assertTrue(queue.cancel(id));
+                kept.remove(id);
+            }
+        }
+        assertEquals(kept.size(), queue.pendingCount());
+
+        int[] ids = new int[kept.size() + 1];
+        byte[] stages = new byte[ids.length];
+        int count = queue.pollDue(0, ids, stages);
+        Set<Integer> polled = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            polled.add(ids[i]);
+        }
+        assertEquals(kept, polled);
+    }
+
+    @Test
+    void clearDropsEverything() {
+        EscalationQueue queue = new EscalationQueue(10);
+        queue.add(1, 100, STAGE);
+        queue.clear();
+
+        assertEquals(0, queue.pendingCount());
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.pollDue(Long.MAX_VALUE, new int[1], new byte[1]));
+        assertTrue(queue.add(1, 100, STAGE));
+    }
+}
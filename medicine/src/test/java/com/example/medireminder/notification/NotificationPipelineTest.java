@@ -0,0 +1,179 @@
+package com.example.medireminder.notification;
+
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.util.Metrics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs the real pipeline thread against RecordingChannel
+ * (notify.channels=memory in the test app.properties)
+ */
+class NotificationPipelineTest {
+
+    @BeforeAll
+    static void start() {
+        NotificationPipeline.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        NotificationPipeline.stop();
+    }
+
+    private static Reminder dose(int id, int userId) {
+        Reminder reminder = new Reminder();
+        reminder.setId(id);
+        reminder.setUserId(userId);
+        reminder.setMedicineId(1);
+        reminder.setMedicineName("Aspirin");
+        return reminder;
+    }
+
+    // Messages recorded since `before` was taken, once they cover every given reminder ID
+    // (compared by identity: the recorder drops its oldest messages once full)
+    private static List<NotificationMessage> awaitDelivered(List<NotificationMessage> before,
+                                                            Integer... reminderIds) throws InterruptedException {
+        Set<NotificationMessage> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.addAll(before);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            List<NotificationMessage> messages = new ArrayList<>();
+            for (NotificationMessage message : RecordingChannel.getRecorded()) {
+                if (!seen.contains(message)) {
+                    messages.add(message);
+                }
+            }
+            List<Integer> delivered = new ArrayList<>();
+            for (NotificationMessage message : messages) {
+                delivered.addAll(ids(message));
+            }
+            if (delivered.containsAll(Arrays.asList(reminderIds))) {
+                return messages;
+            }
+            Thread.sleep(10);
+        }
+        fail("Expected reminders " + Arrays.toString(reminderIds) + " to be delivered within 5 seconds");
+        return null;
+    }
+
+    private static List<Integer> ids(NotificationMessage message) {
+        List<Integer> ids = new ArrayList<>();
+        for (Reminder reminder : message.getReminders()) {
+            ids.add(reminder.getId());
+        }
+        return ids;
+    }
+
+    private static long counter(String name) {
+        Object value = Metrics.snapshot().get(name);
+        return value == null ? 0 : (Long) value;
+    }
+
+    // Doses may be split over flushes, but a message never mixes users
+    @Test
+    void groupsClaimedDosesPerUser() throws InterruptedException {
+        List<NotificationMessage> before = RecordingChannel.getRecorded();
+
+        NotificationPipeline.submit(Arrays.asList(dose(101, 1), dose(102, 1), dose(103, 2)));
+
+        List<NotificationMessage> messages = awaitDelivered(before, 101, 102, 103);
+        assertTrue(messages.size() <= 3);
+        for (NotificationMessage message : messages) {
+            assertEquals(NotificationMessage.Kind.DUE, message.getKind());
+            for (Reminder reminder : message.getReminders()) {
+                assertEquals(message.getUserId(), reminder.getUserId());
+            }
+            assertTrue(message.toText().startsWith("Time to take: Aspirin"));
+        }
+    }
+
+    @Test
+    void dueDoseIsDeliveredOnceButEscalationsRepeat() throws InterruptedException {
+        List<NotificationMessage> before = RecordingChannel.getRecorded();
+        NotificationPipeline.submit(Arrays.asList(dose(201, 3)));
+        awaitDelivered(before, 201);
+
+        before = RecordingChannel.getRecorded();
+        NotificationPipeline.submit(Arrays.asList(dose(201, 3), dose(202, 3)));
+        NotificationMessage message = awaitDelivered(before, 202).get(0);
+        assertEquals(Arrays.asList(202), ids(message));
+
+        before = RecordingChannel.getRecorded();
+        NotificationPipeline.submit(Arrays.asList(dose(201, 3)), NotificationMessage.Kind.REPEAT);
+        message = awaitDelivered(before, 201).get(0);
+        assertEquals(NotificationMessage.Kind.REPEAT, message.getKind());
+        assertEquals(Arrays.asList(201), ids(message));
+    }
+
+    @Test
+    void keepsUpWithARoundHourBurst() throws Exception {
+        int users = 1000;
+        int dosesPerUser = 5;
+        List<NotificationMessage> before = RecordingChannel.getRecorded();
+        long sentBefore = counter("notify.memory.sent");
+        long droppedBefore = counter("notify.dropped");
+        long suppressedBefore = counter("notify.duplicatesSuppressed");
+
+        // Four request threads claiming every user's 08:00 doses at once
+        ExecutorService requests = Executors.newFixedThreadPool(4);
+        long start = System.nanoTime();
+        for (int user = 0; user < users; user++) {
+            int userId = 10_000 + user;
+            requests.execute(() -> {
+                List<Reminder> doses = new ArrayList<>();
+                for (int i = 0; i < dosesPerUser; i++) {
+                    doses.add(dose(userId * 10 + i, userId));
+                }
+                NotificationPipeline.submit(doses);
+            });
+        }
+        requests.shutdown();
+        assertTrue(requests.awaitTermination(5, TimeUnit.SECONDS));
+
+        int lastId = (10_000 + users - 1) * 10 + dosesPerUser - 1;
+        awaitDelivered(before, lastId);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (counter("notify.queued") > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long sent = counter("notify.memory.sent") - sentBefore;
+
+        assertEquals(0, counter("notify.queued"));
+        assertEquals(droppedBefore, counter("notify.dropped"));
+        assertEquals(suppressedBefore, counter("notify.duplicatesSuppressed"));
+        // Every user heard at least once, and doses were grouped rather than sent one by one
+        assertTrue(sent >= users && sent < 2L * users, sent + " messages for " + users + " users");
+        System.out.printf("%d doses for %d users: %d messages in %d ms%n",
+                users * dosesPerUser, users, sent, elapsedMillis);
+    }
+
+    @Test
+    void caregiverAlertsGoToTheCaregiver() throws InterruptedException {
+        List<NotificationMessage> before = RecordingChannel.getRecorded();
+
+        NotificationPipeline.submit(90, Arrays.asList(dose(301, 4)), NotificationMessage.Kind.CAREGIVER);
+
+        NotificationMessage message = awaitDelivered(before, 301).get(0);
+        assertEquals(90, message.getUserId());
+        assertEquals(NotificationMessage.Kind.CAREGIVER, message.getKind());
+        assertEquals(4, message.getReminders().get(0).getUserId());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.model.DoseCalendarMonth;
+import com.example.medireminder.model.Reminder;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CalendarServiceTest {
+    private static final YearMonth OCTOBER = YearMonth.of(2026, 10);
+
+    /**
+     * Stands in for the database; runs duringLoad in the middle of each load,
+     * the way a write on another request thread would
+     */
+    private static final class FakeReminderDao extends ReminderDao {
+        final AtomicInteger loads = new AtomicInteger();
+        Runnable duringLoad = () -> { };
+
+        @Override
+        public DoseCalendarMonth loadDoseCalendarMonth(int userId, YearMonth month, boolean includeArchive) {
+            loads.incrementAndGet();
+            DoseCalendarMonth loaded = new DoseCalendarMonth(month, new byte[month.lengthOfMonth()],
+                    new int[0], new BitSet(), new BitSet());
+            duringLoad.run();
+            return loaded;
+        }
+    }
+
+    private static Reminder dose(int userId) {
+        Reminder reminder = new Reminder();
+        reminder.setId(1);
+        reminder.setUserId(userId);
+        reminder.setReminderDate(Date.valueOf(OCTOBER.atDay(19)));
+        return reminder;
+    }
+
+    @Test
+    void servesRepeatReadsFromTheCache() {
+        FakeReminderDao dao = new FakeReminderDao();
+        CalendarService service = new CalendarService(dao);
+
+        DoseCalendarMonth first = service.getMonth(101, OCTOBER);
+        assertSame(first, service.getMonth(101, OCTOBER));
+        assertEquals(1, dao.loads.get());
+    }
+
+    @Test
+    void doesNotCacheALoadThatRacedAWrite() {
+        FakeReminderDao dao = new FakeReminderDao();
+        CalendarService service = new CalendarService(dao);
+        // A reminder is added and its month invalidated while nothing is cached yet
+        dao.duringLoad = () -> service.invalidate(dose(102));
+
+        DoseCalendarMonth stale = service.getMonth(102, OCTOBER);
+        dao.duringLoad = () -> { };
+
+        assertNotSame(stale, service.getMonth(102, OCTOBER));
+        assertEquals(2, dao.loads.get());
+    }
+
+    @Test
+    void invalidateUserDropsEveryMonthOfThatUserOnly() {
+        FakeReminderDao dao = new FakeReminderDao();
+        CalendarService service = new CalendarService(dao);
+        DoseCalendarMonth october = service.getMonth(103, OCTOBER);
+        service.getMonth(103, OCTOBER.plusMonths(1));
+        DoseCalendarMonth other = service.getMonth(104, OCTOBER);
+
+        service.invalidateUser(103);
+
+        assertNotSame(october, service.getMonth(103, OCTOBER));
+        assertSame(other, service.getMonth(104, OCTOBER));
+        assertEquals(4, dao.loads.get());
+    }
+}
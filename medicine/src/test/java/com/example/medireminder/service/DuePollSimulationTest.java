@@ -0,0 +1,180 @@
+package com.example.medireminder.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulates one day of dashboards polling /reminders/due and counts, per second,
+ * the polls the server answers and the doses it claims
+ *
+ * Dose times cluster on round hours with a Zipf distribution (08:00 most popular,
+ * then 20:00, 12:00, ...), with a few at odd minutes. Three client behaviours:
+ * - legacy: the old fixed 60 s setInterval, started at a random phase
+ * - aimed: poll exactly when the next dose is due (a next-dose hint with no
+ *   jitter and no pre-stage window), otherwise every due.maxPollSeconds
+ * - spread: the current code, sleeping for suggestNextPollSeconds and
+ *   claiming every dose due within due.prestageSeconds
+ */
+class DuePollSimulationTest {
+    private static final int CLIENTS = 10_000;
+    private static final int DAY = 24 * 3600;
+    private static final int LEGACY_POLL_SECONDS = 60;
+    // Same defaults as ReminderService (the test app.properties does not set them)
+    private static final int PRESTAGE_SECONDS = 30;
+    private static final int MAX_POLL_SECONDS = 900;
+    // Popularity order of dose hours; rank k is picked with weight 1 / k^1.1
+    private static final int[] HOURS_BY_RANK =
+            {8, 20, 12, 21, 7, 9, 18, 22, 13, 19, 6, 10, 14, 17, 23, 11, 15, 16, 5};
+
+    private static final class Load {
+        final int[] polls = new int[DAY + MAX_POLL_SECONDS * 2];
+        final int[] claims = new int[DAY + MAX_POLL_SECONDS * 2];
+        long totalPolls;
+
+        void poll(int second) {
+            polls[second]++;
+            totalPolls++;
+        }
+
+        int peakPolls() {
+            return Arrays.stream(polls).max().orElse(0);
+        }
+
+        int peakClaims() {
+            return Arrays.stream(claims).max().orElse(0);
+        }
+    }
+
+    // Each client's doses in seconds of the day, sorted
+    private static int[][] doseTimes(Random random) {
+        double[] cumulative = new double[HOURS_BY_RANK.length];
+        double sum = 0;
+        for (int k = 0; k < HOURS_BY_RANK.length; k++) {
+            sum += 1 / Math.pow(k + 1, 1.1);
+            cumulative[k] = sum;
+        }
+        int[][] doses = new int[CLIENTS][];
+        for (int c = 0; c < CLIENTS; c++) {
+            int count = 1 + random.nextInt(3);
+            doses[c] = random.ints(0, Integer.MAX_VALUE).map(r -> {
+                int hour = HOURS_BY_RANK[HOURS_BY_RANK.length - 1];
+                double pick = random.nextDouble() * cumulative[cumulative.length - 1];
+                for (int k = 0; k < cumulative.length; k++) {
+                    if (pick < cumulative[k]) {
+                        hour = HOURS_BY_RANK[k];
+                        break;
+                    }
+                }
+                int minute = random.nextInt(10) == 0 ? 1 + random.nextInt(59) : 0;
+                return hour * 3600 + minute * 60;
+            }).distinct().limit(count).sorted().toArray();
+        }
+        return doses;
+    }
+
+    private static Load legacy(int[][] doses, Random random) {
+        Load load = new Load();
+        for (int[] clientDoses : doses) {
+            int phase = random.nextInt(LEGACY_POLL_SECONDS);
+            for (int t = phase; t < DAY; t += LEGACY_POLL_SECONDS) {
+                load.poll(t);
+            }
+            for (int dose : clientDoses) {
+                // Claimed by the first poll at or after the dose time
+                int wait = Math.floorMod(phase - dose, LEGACY_POLL_SECONDS);
+                load.claims[dose + wait]++;
+            }
+        }
+        return load;
+    }
+
+    private static Load aimed(int[][] doses, Random random) {
+        Load load = new Load();
+        for (int[] clientDoses : doses) {
+            int next = 0;
+            for (int t = random.nextInt(MAX_POLL_SECONDS); t < DAY; ) {
+                load.poll(t);
+                while (next < clientDoses.length && clientDoses[next] <= t) {
+                    load.claims[t]++;
+                    next++;
+                }
+                int delay = MAX_POLL_SECONDS;
+                if (next < clientDoses.length) {
+                    delay = Math.min(delay, clientDoses[next] - t);
+                }
+                t += delay;
+            }
+        }
+        return load;
+    }
+
+    private static Load spread(int[][] doses, Random random) {
+        ReminderService service = new ReminderService();
+        Load load = new Load();
+        for (int[] clientDoses : doses) {
+            int next = 0;
+            for (int t = random.nextInt(MAX_POLL_SECONDS); t < DAY; ) {
+                load.poll(t);
+                while (next < clientDoses.length && clientDoses[next] <= t + PRESTAGE_SECONDS) {
+                    // Pre-staging claims early; a poll that lands after the dose is late
+                    assertTrue(clientDoses[next] >= t, "dose claimed late");
+                    load.claims[t]++;
+                    next++;
+                }
+                LocalDateTime nextReminderAt = null;
+                if (next < clientDoses.length) {
+                    // Half a second of slack so the clock moving on inside the call
+                    // does not round the distance down
+                    nextReminderAt = LocalDateTime.now()
+                            .plusSeconds(clientDoses[next] - t).plusNanos(500_000_000);
+                }
+                t += service.suggestNextPollSeconds(nextReminderAt);
+            }
+            assertEquals(clientDoses.length, next, "dose never claimed");
+        }
+        return load;
+    }
+
+    @Test
+    void preStagedPollsFlattenTheRoundHourPeak() {
+        Random random = new Random(42);
+        int[][] doses = doseTimes(random);
+        int top = 0;
+        for (int[] clientDoses : doses) {
+            for (int dose : clientDoses) {
+                if (dose == HOURS_BY_RANK[0] * 3600) {
+                    top++;
+                }
+            }
+        }
+
+        Load legacy = legacy(doses, random);
+        Load aimed = aimed(doses, random);
+        Load spread = spread(doses, random);
+
+        System.out.printf("%d clients, %d doses at %02d:00%n", CLIENTS, top, HOURS_BY_RANK[0]);
+        System.out.printf("legacy: peak %d polls/s, %d claims/s, %d polls a day%n",
+                legacy.peakPolls(), legacy.peakClaims(), legacy.totalPolls);
+        System.out.printf("aimed:  peak %d polls/s, %d claims/s, %d polls a day%n",
+                aimed.peakPolls(), aimed.peakClaims(), aimed.totalPolls);
+        System.out.printf("spread: peak %d polls/s, %d claims/s, %d polls a day%n",
+                spread.peakPolls(), spread.peakClaims(), spread.totalPolls);
+
+        // Aiming at the dose time puts the whole 08:00 crowd in one second;
+        // the pre-stage window spreads it over about 30
+        assertTrue(aimed.peakClaims() >= top);
+        assertTrue(spread.peakClaims() * 10 < aimed.peakClaims());
+        assertTrue(spread.peakPolls() * 10 < aimed.peakPolls());
+        // No second carries more than its share of the window, plus the background polls
+        int expected = top / PRESTAGE_SECONDS + CLIENTS / MAX_POLL_SECONDS;
+        assertTrue(spread.peakPolls() < expected * 2, "peak " + spread.peakPolls() + ", expected ~" + expected);
+        // And far fewer requests in total than polling every minute
+        assertTrue(spread.totalPolls * 5 < legacy.totalPolls);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.medireminder.service;
+
+import com.example.medireminder.dao.AdherenceDao;
+import com.example.medireminder.dao.MedicineDao;
+import com.example.medireminder.dao.ReminderArchiveDao;
+import com.example.medireminder.dao.ReminderDao;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the purge against stand-in DAOs
+ * (purge.maxChunksPerRun=5 and purge.pauseMillis=0 in the test app.properties)
+ *
+ * Every scenario stops before the final medicine/adherence delete, which
+ * needs a real database transaction.
+ */
+class MedicinePurgeServiceTest {
+    private static final int CHUNK_IDS = 100;
+
+    /**
+     * A table holding reminders CHUNK_IDS, 2 * CHUNK_IDS, ... for one medicine;
+     * each chunk deletes the next one. The calls numbered in failures (from 1)
+     * fail like a database error.
+     */
+    private static final class Table {
+        final List<Integer> afterIds = new ArrayList<>();
+        final List<Integer> failures = new ArrayList<>();
+        final int lastId;
+        int deletedUpTo;
+
+        Table(int chunks) {
+            this.lastId = chunks * CHUNK_IDS;
+        }
+
+        int purgeChunk(int afterId, int limit) {
+            afterIds.add(afterId);
+            if (failures.remove((Integer) afterIds.size())) {
+                return -1;
+            }
+            if (deletedUpTo == lastId) {
+                return 0;
+            }
+            // Keyset scan: nothing at or below afterId is left
+            assertEquals(deletedUpTo, afterId);
+            deletedUpTo += CHUNK_IDS;
+            return deletedUpTo;
+        }
+    }
+
+    private static MedicinePurgeService service(int medicineId, Table reminders, Table archive) {
+        MedicineDao medicineDao = new MedicineDao() {
+            @Override
+            public List<Integer> findDeletedIds(int limit) {
+                return Arrays.asList(medicineId);
+            }
+
+            @Override
+            public boolean purgeById(int id) {
+                throw new AssertionError("medicine row purged while rows are left");
+            }
+        };
+        ReminderDao reminderDao = new ReminderDao() {
+            @Override
+            public int purgeChunkByMedicine(int id, int afterId, int limit) {
+                assertEquals(medicineId, id);
+                return reminders.purgeChunk(afterId, limit);
+            }
+        };
+        ReminderArchiveDao archiveDao = new ReminderArchiveDao() {
+            @Override
+            public int purgeChunkByMedicine(int id, int afterId, int limit) {
+                assertEquals(medicineId, id);
+                return archive.purgeChunk(afterId, limit);
+            }
+        };
+        return new MedicinePurgeService(medicineDao, new AdherenceDao(), reminderDao, archiveDao);
+    }
+
+    @Test
+    void spreadsALongPurgeOverRunsAndResumesWhereItStopped() throws InterruptedException {
+        Table reminders = new Table(7);
+        Table archive = new Table(100);
+        MedicinePurgeService service = service(501, reminders, archive);
+
+        service.runOnce();
+        assertEquals(Arrays.asList(0, 100, 200, 300, 400), reminders.afterIds);
+
+        service.runOnce();
+        // Two chunks left, one more finds nothing, then the archive starts
+        assertEquals(Arrays.asList(0, 100, 200, 300, 400, 500, 600, 700), reminders.afterIds);
+        assertEquals(Arrays.asList(0, 100), archive.afterIds);
+
+        service.runOnce();
+        // The finished reminder scan starts over, finds nothing, and the rest goes to the archive
+        assertEquals(Arrays.asList(0, 100, 200, 300, 400, 500, 600, 700, 0), reminders.afterIds);
+        assertEquals(Arrays.asList(0, 100, 200, 300, 400, 500), archive.afterIds);
+    }
+
+    @Test
+    void databaseErrorEndsTheRunButKeepsProgress() throws InterruptedException {
+        Table reminders = new Table(50);
+        // The third chunk of the first run fails
+        reminders.failures.add(3);
+        Table archive = new Table(0);
+        MedicinePurgeService service = service(502, reminders, archive);
+
+        service.runOnce();
+        assertEquals(Arrays.asList(0, 100, 200), reminders.afterIds);
+
+        service.runOnce();
+        assertEquals(Arrays.asList(0, 100, 200, 200, 300, 400, 500, 600), reminders.afterIds);
+        assertEquals(0, archive.afterIds.size());
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.medireminder.servlet;
+
+import com.example.medireminder.dao.ReminderDao;
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.service.ReminderService;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportServletTest {
+    private static final int USER_ID = 7;
+
+    /**
+     * Streams generated rows instead of reading the database, reusing one
+     * Reminder and Medicine like the real cursor does
+     */
+    private static class FakeReminderService extends ReminderService {
+        final int rows;
+        final String name;
+
+        FakeReminderService(int rows, String name) {
+            this.rows = rows;
+            this.name = name;
+        }
+
+        void afterRow(int row) {
+        }
+
+        @Override
+        public boolean exportHistory(int userId, ReminderDao.HistoryRowHandler handler) throws IOException {
+            assertEquals(USER_ID, userId);
+            Reminder reminder = new Reminder();
+            Medicine medicine = new Medicine();
+            medicine.setId(3);
+            medicine.setName(name);
+            medicine.setDosage("10 mg");
+            for (int row = 1; row <= rows; row++) {
+                reminder.setId(row);
+                reminder.setReminderDate(Date.valueOf("2026-10-19"));
+                reminder.setReminderTime(Time.valueOf("08:00:00"));
+                reminder.setTaken(row % 2 == 0);
+                reminder.setNotified(true);
+                handler.handle(reminder, medicine);
+                afterRow(row);
+            }
+            return true;
+        }
+    }
+
+    private static final class Response {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final Map<String, String> headers = new HashMap<>();
+
+        final HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {HttpServletResponse.class}, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getOutputStream":
+                            return new ServletOutputStream() {
+                                @Override
+                                public void write(int b) {
+                                    body.write(b);
+                                }
+
+                                @Override
+                                public void write(byte[] b, int off, int len) {
+                                    body.write(b, off, len);
+                                }
+
+                                @Override
+                                public boolean isReady() {
+                                    return true;
+                                }
+
+                                @Override
+                                public void setWriteListener(WriteListener writeListener) {
+                                }
+                            };
+                        case "setHeader":
+                            headers.put((String) args[0], (String) args[1]);
+                            return null;
+                        case "setContentType":
+                            headers.put("Content-Type", (String) args[0]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+
+        String text() throws IOException {
+            InputStream in = new ByteArrayInputStream(body.toByteArray());
+            if ("gzip".equals(headers.get("Content-Encoding"))) {
+                in = new GZIPInputStream(in);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Logged-in GET with query parameters ("name=value" pairs)
+    private static HttpServletRequest request(String... params) {
+        Map<String, String> values = new HashMap<>();
+        for (String param : params) {
+            int eq = param.indexOf('=');
+            values.put(param.substring(0, eq), param.substring(eq + 1));
+        }
+        HttpSession session = (HttpSession) Proxy.newProxyInstance(ExportServletTest.class.getClassLoader(),
+                new Class<?>[] {HttpSession.class},
+                (proxy, m, args) -> m.getName().equals("getAttribute") && "userId".equals(args[0]) ? USER_ID : null);
+        return (HttpServletRequest) Proxy.newProxyInstance(ExportServletTest.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class}, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getSession":
+                            return session;
+                        case "getParameter":
+                            return values.get((String) args[0]);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static Response export(FakeReminderService service, String... params) throws IOException {
+        Response response = new Response();
+        new ExportServlet(service).handleGet(request(params), response.response);
+        return response;
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws IOException {
+        Response response = export(new FakeReminderService(3, "Vitamin \"D\""), "format=ndjson");
+
+        assertEquals("application/x-ndjson", response.headers.get("Content-Type"));
+        String[] lines = response.text().split("\n");
+        assertEquals(3, lines.length);
+        JsonObject second = JsonParser.parseString(lines[1]).getAsJsonObject();
+        assertEquals(2, second.get("reminderId").getAsInt());
+        assertEquals("2026-10-19", second.get("reminderDate").getAsString());
+        assertEquals("08:00:00", second.get("reminderTime").getAsString());
+        assertEquals("Vitamin \"D\"", second.get("medicineName").getAsString());
+        assertTrue(second.get("notes").isJsonNull());
+        assertTrue(second.get("taken").getAsBoolean());
+    }
+
+    @Test
+    void quotesCsvFieldsOnlyWhenNeeded() throws IOException {
+        Response response = export(new FakeReminderService(2, "Iron, \"slow\""), "format=csv");
+
+        assertEquals("text/csv", response.headers.get("Content-Type"));
+        String[] lines = response.text().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("reminder_id,"));
+        assertEquals("1,2026-10-19,08:00:00,3,\"Iron, \"\"slow\"\"\",10 mg,,0,1", lines[1]);
+    }
+
+    @Test
+    void gzipsWhenAsked() throws IOException {
+        Response plain = export(new FakeReminderService(1000, "Aspirin"), "format=csv");
+        Response gzipped = export(new FakeReminderService(1000, "Aspirin"), "format=csv", "gzip=true");
+
+        assertEquals("gzip", gzipped.headers.get("Content-Encoding"));
+        assertEquals(plain.text(), gzipped.text());
+        assertTrue(gzipped.body.size() * 10 < plain.body.size());
+    }
+
+    @Test
+    void streamsRowsInsteadOfBufferingTheHistory() throws IOException {
+        int rows = 100_000;
+        Response response = new Response();
+        int[] bytesAtHalf = new int[1];
+        FakeReminderService service = new FakeReminderService(rows, "Aspirin") {
+            @Override
+            void afterRow(int row) {
+                if (row == rows / 2) {
+                    bytesAtHalf[0] = response.body.size();
+                }
+            }
+        };
+
+        new ExportServlet(service).handleGet(request("format=ndjson"), response.response);
+
+        int total = response.body.size();
+        // Half the rows are already on the wire while the cursor is still open,
+        // give or take one write buffer
+        assertTrue(bytesAtHalf[0] > total / 2 - 64 * 1024,
+                bytesAtHalf[0] + " of " + total + " bytes written halfway through");
+        assertEquals(rows, response.text().split("\n").length);
+    }
+}
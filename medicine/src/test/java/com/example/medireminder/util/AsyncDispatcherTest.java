@@ -0,0 +1,355 @@
+package com.example.medireminder.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the dispatcher with stand-in container objects
+ * (async.maxConcurrentRequests and async.permitWaitMillis in the test app.properties)
+ */
+class AsyncDispatcherTest {
+    private static final String BUSY = "Server is busy";
+
+    /**
+     * One request/response pair plus the AsyncContext the dispatcher starts on it
+     */
+    private static final class Exchange implements AsyncContext {
+        private final StringBuilder body = new StringBuilder();
+        private final PrintWriter writer = new PrintWriter(new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                synchronized (body) {
+                    body.append(cbuf, off, len);
+                }
+            }
+
+            @Override
+            public void flush() {
+                committed = true;
+            }
+
+            @Override
+            public void close() {
+                committed = true;
+            }
+        });
+        private final List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+        private final AtomicInteger completions = new AtomicInteger();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private volatile int status = HttpServletResponse.SC_OK;
+        private volatile boolean committed;
+        private ServletRequest asyncRequest;
+        private ServletResponse asyncResponse;
+
+        final HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("startAsync") && args != null) {
+                        asyncRequest = (ServletRequest) args[0];
+                        asyncResponse = (ServletResponse) args[1];
+                        return this;
+                    }
+                    return defaultValue(method.getReturnType());
+                });
+
+        final HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getWriter":
+                            return writer;
+                        case "setStatus":
+                            status = (Integer) args[0];
+                            return null;
+                        case "getStatus":
+                            return status;
+                        case "isCommitted":
+                            return committed;
+                        case "flushBuffer":
+                            committed = true;
+                            return null;
+                        case "reset":
+                            if (committed) {
+                                throw new IllegalStateException("Response already committed");
+                            }
+                            synchronized (body) {
+                                body.setLength(0);
+                            }
+                            status = HttpServletResponse.SC_OK;
+                            return null;
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+
+        int status() {
+            return status;
+        }
+
+        String body() {
+            synchronized (body) {
+                return body.toString();
+            }
+        }
+
+        int completions() {
+            return completions.get();
+        }
+
+        boolean awaitCompleted() throws InterruptedException {
+            return completed.await(10, TimeUnit.SECONDS);
+        }
+
+        // What the container does once async.timeoutMillis has passed
+        void fireTimeout() throws IOException {
+            for (AsyncListener listener : listeners) {
+                listener.onTimeout(new AsyncEvent(this));
+            }
+        }
+
+        @Override
+        public ServletRequest getRequest() {
+            return asyncRequest;
+        }
+
+        @Override
+        public ServletResponse getResponse() {
+            return asyncResponse;
+        }
+
+        @Override
+        public boolean hasOriginalRequestAndResponse() {
+            return false;
+        }
+
+        @Override
+        public void dispatch() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dispatch(String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dispatch(ServletContext context, String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void complete() {
+            completions.incrementAndGet();
+            completed.countDown();
+        }
+
+        @Override
+        public void start(Runnable run) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addListener(AsyncListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void addListener(AsyncListener listener, ServletRequest request, ServletResponse response) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public <T extends AsyncListener> T createListener(Class<T> clazz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+        }
+
+        @Override
+        public long getTimeout() {
+            return 0;
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // Behave like a handler stuck in a call that ignores interrupts
+            }
+        }
+    }
+
+    @Test
+    void sustainsConcurrencyUpToTheSlotLimitOnTwoContainerThreads() throws Exception {
+        int limit = AsyncDispatcher.maxConcurrentRequests();
+        int requests = 10 * limit;
+        long dbMillis = 20;
+        int containerThreads = 2;
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        int platformThreadsBefore = threads.getThreadCount();
+
+        List<Exchange> exchanges = new ArrayList<>();
+        ExecutorService container = Executors.newFixedThreadPool(containerThreads);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            Exchange exchange = new Exchange();
+            exchanges.add(exchange);
+            container.execute(() -> AsyncDispatcher.dispatch(exchange.request, exchange.response, (rq, rs) -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                // A MySQL round trip: the thread just waits
+                Thread.sleep(dbMillis);
+                running.decrementAndGet();
+                rs.getWriter().print("ok");
+            }));
+        }
+        for (Exchange exchange : exchanges) {
+            assertTrue(exchange.awaitCompleted(), "request never completed");
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        container.shutdown();
+
+        for (Exchange exchange : exchanges) {
+            assertEquals(200, exchange.status());
+            assertEquals("ok", exchange.body());
+            assertEquals(1, exchange.completions());
+        }
+        // Handling on the container threads would cap this at containerThreads
+        assertEquals(limit, peak.get());
+        long blockingMillis = requests * dbMillis / containerThreads;
+        assertTrue(elapsedMillis < blockingMillis / 4,
+                "took " + elapsedMillis + " ms, blocking handlers need about " + blockingMillis + " ms");
+        // Waiting handlers sit on virtual threads, not on platform threads
+        assertTrue(threads.getPeakThreadCount() - platformThreadsBefore < limit / 2,
+                "platform threads grew from " + platformThreadsBefore + " to " + threads.getPeakThreadCount());
+        System.out.printf("%d requests, %d concurrent on %d container threads: %d ms (blocking: ~%d ms), "
+                        + "%d platform threads at peak%n", requests, peak.get(), containerThreads, elapsedMillis,
+                blockingMillis, threads.getPeakThreadCount());
+    }
+
+    @Test
+    void timedOutHandlerCannotWriteToTheResponse() throws Exception {
+        Exchange exchange = new Exchange();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean lateWriteFailed = new AtomicBoolean();
+
+        AsyncDispatcher.dispatch(exchange.request, exchange.response, (rq, rs) -> {
+            rs.getWriter().print("partial");
+            started.countDown();
+            awaitUninterruptibly(release);
+
+            rs.setStatus(HttpServletResponse.SC_OK);
+            PrintWriter out = rs.getWriter();
+            out.print("late");
+            out.flush();
+            lateWriteFailed.set(out.checkError());
+            finished.countDown();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        exchange.fireTimeout();
+        assertEquals(503, exchange.status());
+        assertTrue(exchange.body().contains(BUSY));
+        assertFalse(exchange.body().contains("partial"));
+        assertEquals(1, exchange.completions());
+
+        String answered = exchange.body();
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        assertTrue(lateWriteFailed.get());
+        assertEquals(503, exchange.status());
+        assertEquals(answered, exchange.body());
+        assertEquals(1, exchange.completions());
+    }
+
+    @Test
+    void withoutPermitAnswersBusyWhenNoSlotComesBack() throws Exception {
+        int limit = AsyncDispatcher.maxConcurrentRequests();
+        CountDownLatch holding = new CountDownLatch(limit);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Exchange> blockers = new CopyOnWriteArrayList<>();
+        Exchange login = new Exchange();
+
+        AsyncDispatcher.dispatch(login.request, login.response, (rq, rs) -> {
+            AsyncDispatcher.withoutPermit(() -> {
+                // While the slot is given back, other requests take every slot
+                for (int i = 0; i < limit; i++) {
+                    Exchange blocker = new Exchange();
+                    blockers.add(blocker);
+                    AsyncDispatcher.dispatch(blocker.request, blocker.response, (brq, brs) -> {
+                        holding.countDown();
+                        release.await();
+                        brs.getWriter().print("ok");
+                    });
+                }
+                holding.await();
+                return null;
+            });
+            rs.getWriter().print("logged in");
+        });
+
+        try {
+            assertTrue(login.awaitCompleted());
+            assertEquals(503, login.status());
+            assertTrue(login.body().contains(BUSY));
+        } finally {
+            release.countDown();
+        }
+        for (Exchange blocker : blockers) {
+            assertTrue(blocker.awaitCompleted());
+            assertEquals("ok", blocker.body());
+        }
+        assertEquals(limit, AsyncDispatcher.availablePermits());
+    }
+}
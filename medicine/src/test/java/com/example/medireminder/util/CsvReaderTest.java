@@ -0,0 +1,88 @@
+package com.example.medireminder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    private static CsvReader csv(String text) {
+        return new CsvReader(new StringReader(text));
+    }
+
+    @Test
+    void readsPlainRecordsUntilEndOfInput() throws IOException {
+        CsvReader reader = csv("name,dosage\nAspirin,100mg\n");
+
+        assertEquals(Arrays.asList("name", "dosage"), reader.readRecord());
+        assertEquals(Arrays.asList("Aspirin", "100mg"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        CsvReader reader = csv("a,b");
+
+        assertEquals(Arrays.asList("a", "b"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertEquals(Arrays.asList("", "x", ""), csv(",x,\n").readRecord());
+    }
+
+    @Test
+    void handlesCrLfAndBareCr() throws IOException {
+        CsvReader reader = csv("a,b\r\nc,d\re,f\r");
+
+        assertEquals(Arrays.asList("a", "b"), reader.readRecord());
+        assertEquals(Arrays.asList("c", "d"), reader.readRecord());
+        assertEquals(Arrays.asList("e", "f"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        List<String> record = csv("\"Vitamin D, 1000 IU\",\"say \"\"hi\"\"\",\"two\nlines\"\n").readRecord();
+
+        assertEquals(Arrays.asList("Vitamin D, 1000 IU", "say \"hi\"", "two\nlines"), record);
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(Arrays.asList("5\" tablet"), csv("5\" tablet\n").readRecord());
+    }
+
+    @Test
+    void lineNumberIsWhereTheRecordStarted() throws IOException {
+        CsvReader reader = csv("a\n\"multi\nline\",b\nc\n");
+
+        reader.readRecord();
+        assertEquals(1, reader.getLineNumber());
+        reader.readRecord();
+        assertEquals(2, reader.getLineNumber());
+        reader.readRecord();
+        assertEquals(4, reader.getLineNumber());
+    }
+
+    @Test
+    void unterminatedQuoteFails() {
+        assertThrows(IOException.class, () -> csv("\"never closed,\n").readRecord());
+    }
+
+    @Test
+    void overlongFieldFails() {
+        char[] field = new char[10001];
+        Arrays.fill(field, 'x');
+
+        assertThrows(IOException.class, () -> csv(new String(field)).readRecord());
+    }
+}
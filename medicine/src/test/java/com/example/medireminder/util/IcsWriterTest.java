@@ -0,0 +1,125 @@
+package com.example.medireminder.util;
+
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IcsWriterTest {
+    private static final Instant STAMP = Instant.parse("2026-10-19T06:30:00Z");
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+
+    private static Reminder dose(int id, boolean taken) {
+        return new Reminder(id, 1, 2, Date.valueOf(DAY), Time.valueOf(LocalTime.of(8, 0)), taken);
+    }
+
+    private static String feed(Reminder reminder, Medicine medicine) throws IOException {
+        StringWriter out = new StringWriter();
+        IcsWriter writer = new IcsWriter(out, STAMP);
+        writer.begin("My doses", 15);
+        writer.event(reminder, medicine, 10);
+        writer.end();
+        return out.toString();
+    }
+
+    // Content lines with folding undone (RFC 5545 3.1)
+    private static List<String> unfold(String ics) {
+        assertTrue(ics.endsWith("\r\n"));
+        List<String> lines = new ArrayList<>();
+        for (String physical : ics.substring(0, ics.length() - 2).split("\r\n", -1)) {
+            if (physical.startsWith(" ")) {
+                int last = lines.size() - 1;
+                lines.set(last, lines.get(last) + physical.substring(1));
+            } else {
+                lines.add(physical);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    void writesCalendarAndEventStructure() throws IOException {
+        String ics = feed(dose(42, false), new Medicine(2, 1, "Aspirin", "100mg", null));
+        String start = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC)
+                .format(DAY.atTime(8, 0).atZone(ZoneId.systemDefault()));
+
+        assertFalse(ics.replace("\r\n", "").contains("\n"), "bare LF in output");
+        assertEquals(Arrays.asList(
+                "BEGIN:VCALENDAR",
+                "VERSION:2.0",
+                "PRODID:-//Medicine Reminder//Dose Schedule//EN",
+                "CALSCALE:GREGORIAN",
+                "METHOD:PUBLISH",
+                "X-WR-CALNAME:My doses",
+                "REFRESH-INTERVAL;VALUE=DURATION:PT15M",
+                "X-PUBLISHED-TTL:PT15M",
+                "BEGIN:VEVENT",
+                "UID:reminder-42@medicine-reminder",
+                "DTSTAMP:20261019T063000Z",
+                "DTSTART:" + start,
+                "DURATION:PT10M",
+                "SUMMARY:Aspirin (100mg)",
+                "CATEGORIES:Medication",
+                "TRANSP:TRANSPARENT",
+                "BEGIN:VALARM",
+                "ACTION:DISPLAY",
+                "TRIGGER:PT0M",
+                "DESCRIPTION:Aspirin (100mg)",
+                "END:VALARM",
+                "END:VEVENT",
+                "END:VCALENDAR"), unfold(ics));
+    }
+
+    @Test
+    void takenDoseIsMarkedAndHasNoAlarm() throws IOException {
+        List<String> lines = unfold(feed(dose(1, true), new Medicine(2, 1, "Aspirin", "", null)));
+
+        assertTrue(lines.contains("SUMMARY:✓ Aspirin"));
+        assertTrue(lines.contains("CATEGORIES:Medication,Taken"));
+        assertFalse(lines.contains("BEGIN:VALARM"));
+    }
+
+    @Test
+    void escapesTextValues() throws IOException {
+        Medicine medicine = new Medicine(2, 1, "Vitamin D, 1000 IU", null, "With food; not\r\nwith milk \\ tea");
+        List<String> lines = unfold(feed(dose(1, true), medicine));
+
+        assertTrue(lines.contains("SUMMARY:✓ Vitamin D\\, 1000 IU"));
+        assertTrue(lines.contains("DESCRIPTION:With food\\; not\\nwith milk \\\\ tea"));
+    }
+
+    @Test
+    void foldsLongLinesAtSeventyFiveOctets() throws IOException {
+        StringBuilder notes = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            // Two- and four-byte characters, so folds must not split them
+            notes.append("é😀x");
+        }
+        String ics = feed(dose(1, true), new Medicine(2, 1, "Aspirin", null, notes.toString()));
+
+        for (String physical : ics.split("\r\n")) {
+            assertTrue(physical.getBytes(StandardCharsets.UTF_8).length <= 75, "too long: " + physical);
+            assertFalse(Character.isLowSurrogate(physical.charAt(physical.startsWith(" ") ? 1 : 0)),
+                    "surrogate pair split: " + physical);
+        }
+        assertTrue(unfold(ics).contains("DESCRIPTION:" + notes));
+    }
+}
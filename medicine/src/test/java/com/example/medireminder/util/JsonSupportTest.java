@@ -0,0 +1,95 @@
+package com.example.medireminder.util;
+
+import com.example.medireminder.model.Medicine;
+import com.example.medireminder.model.Reminder;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonSupportTest {
+
+    private static Reminder reminder() {
+        Reminder reminder = new Reminder();
+        reminder.setId(12);
+        reminder.setUserId(7);
+        reminder.setMedicineId(3);
+        reminder.setReminderDate(Date.valueOf("2026-10-19"));
+        reminder.setReminderTime(Time.valueOf("08:05:00"));
+        reminder.setTaken(true);
+        reminder.setMedicineName("Aspirin");
+        return reminder;
+    }
+
+    private static Medicine medicine() {
+        Medicine medicine = new Medicine();
+        medicine.setId(3);
+        medicine.setUserId(7);
+        medicine.setName("Vitamin \"D\"");
+        medicine.setDosage("1000 IU");
+        medicine.setNotes("with food");
+        return medicine;
+    }
+
+    @Test
+    void writesIsoDatesAndMinuteTimes() {
+        assertEquals("{\"id\":12,\"userId\":7,\"medicineId\":3,\"reminderDate\":\"2026-10-19\","
+                        + "\"reminderTime\":\"08:05\",\"taken\":true,\"notified\":false,\"medicineName\":\"Aspirin\"}",
+                JsonSupport.GSON.toJson(reminder()));
+        assertEquals("\"2026-01-02\"", JsonSupport.GSON.toJson(Date.valueOf("2026-01-02")));
+        assertEquals("\"23:59\"", JsonSupport.GSON.toJson(Time.valueOf("23:59:59")));
+    }
+
+    @Test
+    void readsWhatItWrites() {
+        Reminder read = JsonSupport.GSON.fromJson(JsonSupport.GSON.toJson(reminder()), Reminder.class);
+        assertEquals(12, read.getId());
+        assertEquals(Date.valueOf("2026-10-19"), read.getReminderDate());
+        assertEquals(Time.valueOf("08:05:00"), read.getReminderTime());
+        assertTrue(read.isTaken());
+        assertEquals("Aspirin", read.getMedicineName());
+
+        Medicine medicine = JsonSupport.GSON.fromJson(JsonSupport.GSON.toJson(medicine()), Medicine.class);
+        assertEquals("Vitamin \"D\"", medicine.getName());
+        assertEquals("with food", medicine.getNotes());
+    }
+
+    @Test
+    void acceptsSecondsNullsAndUnknownFields() {
+        Reminder read = JsonSupport.GSON.fromJson(
+                "{\"id\":5,\"reminderTime\":\"21:30:15\",\"medicineName\":null,\"extra\":{\"a\":[1,2]},\"taken\":false}",
+                Reminder.class);
+        assertEquals(5, read.getId());
+        assertEquals(Time.valueOf("21:30:15"), read.getReminderTime());
+        assertNull(read.getMedicineName());
+        assertNull(read.getReminderDate());
+        assertFalse(read.isTaken());
+    }
+
+    @Test
+    void keepsTheFieldNamesOfReflectiveGson() {
+        Gson reflective = new Gson();
+        assertEquals(JsonParser.parseString(reflective.toJson(reminder())).getAsJsonObject().keySet(),
+                JsonParser.parseString(JsonSupport.GSON.toJson(reminder())).getAsJsonObject().keySet());
+        assertEquals(JsonParser.parseString(reflective.toJson(medicine())),
+                JsonParser.parseString(JsonSupport.GSON.toJson(medicine())));
+    }
+
+    @Test
+    void formatsDateTimesWithTheServerOffset() {
+        LocalDateTime at = LocalDateTime.of(2026, 10, 19, 20, 0);
+        OffsetDateTime parsed = OffsetDateTime.parse(JsonSupport.formatDateTime(at));
+        assertEquals(at.atZone(ZoneId.systemDefault()).toInstant(), parsed.toInstant());
+        assertNull(JsonSupport.formatDateTime(null));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.medireminder.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    @Test
+    void hashVerifiesOnlyTheSamePassword() {
+        String stored = PasswordHasher.hash("correct horse");
+
+        assertTrue(stored.startsWith("pbkdf2-sha256$10000$"));
+        assertEquals(4, stored.split("\\$").length);
+        assertTrue(PasswordHasher.verify("correct horse", stored));
+        assertFalse(PasswordHasher.verify("correct horse ", stored));
+        assertFalse(PasswordHasher.verify("", stored));
+    }
+
+    @Test
+    void eachHashGetsItsOwnSalt() {
+        String first = PasswordHasher.hash("secret");
+        String second = PasswordHasher.hash("secret");
+
+        assertNotEquals(first, second);
+        assertTrue(PasswordHasher.verify("secret", first));
+        assertTrue(PasswordHasher.verify("secret", second));
+    }
+
+    @Test
+    void legacyPlaintextIsComparedDirectly() {
+        assertTrue(PasswordHasher.verify("hunter2", "hunter2"));
+        assertFalse(PasswordHasher.verify("hunter3", "hunter2"));
+    }
+
+    @Test
+    void unknownUserNeverMatches() {
+        assertFalse(PasswordHasher.verify("not-a-password", null));
+        assertFalse(PasswordHasher.verify("anything", null));
+    }
+
+    @Test
+    void malformedHashDoesNotMatch() {
+        assertFalse(PasswordHasher.verify("secret", "pbkdf2-sha256$10000$only-three"));
+        assertFalse(PasswordHasher.verify("secret", "pbkdf2-sha256$10000$!!!$!!!"));
+    }
+
+    @Test
+    void needsRehashBelowTheConfiguredCost() {
+        assertFalse(PasswordHasher.needsRehash(PasswordHasher.hash("secret")));
+
+        assertTrue(PasswordHasher.needsRehash(null));
+        assertTrue(PasswordHasher.needsRehash("hunter2"));
+        assertTrue(PasswordHasher.needsRehash("pbkdf2-sha256$9999$c2FsdA$aGFzaA"));
+        assertTrue(PasswordHasher.needsRehash("pbkdf2-sha256$lots$c2FsdA$aGFzaA"));
+        assertTrue(PasswordHasher.needsRehash("pbkdf2-sha256$10000$c2FsdA"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.medireminder.util;
+
+import com.example.medireminder.model.Reminder;
+import com.example.medireminder.model.ReminderRange;
+import com.example.medireminder.proto.ApiProtos;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProtobufSupportTest {
+    private static final LocalDate FROM = LocalDate.of(2026, 10, 1);
+
+    private static Reminder reminder(int id, int day, String time, String name) {
+        Reminder reminder = new Reminder();
+        reminder.setId(id);
+        reminder.setUserId(7);
+        reminder.setMedicineId(100 + id % 3);
+        reminder.setReminderDate(Date.valueOf(FROM.plusDays(day)));
+        reminder.setReminderTime(Time.valueOf(time));
+        reminder.setTaken(id % 2 == 0);
+        reminder.setMedicineName(name);
+        return reminder;
+    }
+
+    @Test
+    void reminderListRoundTrips() throws Exception {
+        List<Reminder> reminders = List.of(reminder(1, 0, "08:30:00", "Aspirin"), reminder(2, 3, "21:05:00", null));
+
+        byte[] bytes = ProtobufSupport.reminderList(true, null, reminders).toByteArray();
+        ApiProtos.ReminderList parsed = ApiProtos.ReminderList.parseFrom(bytes);
+
+        assertTrue(parsed.getSuccess());
+        assertEquals("", parsed.getMessage());
+        assertEquals(2, parsed.getRemindersCount());
+        ApiProtos.Reminder first = parsed.getReminders(0);
+        assertEquals(1, first.getId());
+        assertEquals(FROM.toEpochDay(), first.getReminderDate());
+        assertEquals(8 * 60 + 30, first.getReminderMinute());
+        assertEquals("Aspirin", first.getMedicineName());
+        ApiProtos.Reminder second = parsed.getReminders(1);
+        assertTrue(second.getTaken());
+        assertEquals(FROM.plusDays(3).toEpochDay(), second.getReminderDate());
+        assertEquals("", second.getMedicineName());
+    }
+
+    @Test
+    void rangeIsSmallerThanItsJsonForm() throws Exception {
+        // A month of four doses a day, as GET /reminders?from=&to= serves it
+        ReminderRange range = new ReminderRange(FROM, FROM.plusDays(29));
+        int id = 1000;
+        for (int day = 0; day < 30; day++) {
+            for (int dose = 0; dose < 4; dose++) {
+                range.add(FROM.plusDays(day), id++, 100 + dose, "Medicine " + dose, 480 + dose * 240,
+                        day < 20, true);
+            }
+        }
+
+        byte[] proto = ProtobufSupport.reminderRange(true, null, range).toByteArray();
+        Map<String, Object> envelope = new HashMap<>(range.toWireFormat());
+        envelope.put("success", true);
+        byte[] json = JsonSupport.GSON.toJson(envelope).getBytes(StandardCharsets.UTF_8);
+
+        ApiProtos.ReminderRange parsed = ApiProtos.ReminderRange.parseFrom(proto);
+        assertEquals(30, parsed.getDaysCount());
+        assertEquals(List.of(100, 101, 102, 103), parsed.getMedicineIdsList());
+        ApiProtos.RangeDay last = parsed.getDays(29);
+        assertEquals(FROM.plusDays(29).toEpochDay(), last.getDate());
+        assertEquals(List.of(480, 720, 960, 1200), last.getMinutesList());
+        assertEquals(List.of(ReminderRange.NOTIFIED, ReminderRange.NOTIFIED, ReminderRange.NOTIFIED,
+                ReminderRange.NOTIFIED), last.getStatusList());
+        assertTrue(proto.length * 2 < json.length, proto.length + " protobuf bytes, " + json.length + " JSON bytes");
+    }
+
+    @Test
+    void writeSetsTypeAndLength() throws Exception {
+        List<Reminder> reminders = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            reminders.add(reminder(i, i % 7, "09:00:00", "Vitamin D"));
+        }
+        ApiProtos.ReminderList message = ProtobufSupport.reminderList(true, null, reminders);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Map<String, Object> set = new HashMap<>();
+        HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class}, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getOutputStream":
+                            return new ServletOutputStream() {
+                                @Override
+                                public void write(int b) {
+                                    body.write(b);
+                                }
+
+                                @Override
+                                public boolean isReady() {
+                                    return true;
+                                }
+
+                                @Override
+                                public void setWriteListener(WriteListener writeListener) {
+                                }
+                            };
+                        case "setContentType":
+                        case "setContentLength":
+                            set.put(m.getName(), args[0]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+
+        ProtobufSupport.write(response, message);
+
+        assertEquals(ProtobufSupport.CONTENT_TYPE, set.get("setContentType"));
+        assertEquals(body.size(), set.get("setContentLength"));
+        assertArrayEquals(message.toByteArray(), body.toByteArray());
+    }
+}